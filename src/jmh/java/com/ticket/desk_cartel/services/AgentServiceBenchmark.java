@@ -0,0 +1,76 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent selection over N agents and the performance points formula.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AgentServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int agents;
+
+    private AgentService agentService;
+    private List<Ticket> tickets;
+    private Priority priority;
+    private LocalDateTime completionTime;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Agent> agentList = BenchmarkData.agents(agents, 42);
+        tickets = BenchmarkData.tickets(1024, 42);
+        priority = BenchmarkData.PRIORITIES.get(1);
+        completionTime = BenchmarkData.START;
+
+        agentService = new AgentService(BenchmarkData.agentRepository(agentList), null,
+                null, null, null);
+        AgentMatchingEngine matchingEngine = new AgentMatchingEngine(
+                List.of(new CategoryAffinityScorer(0.5), new LevelScorer(0.2), new LoadScorer(0.3)),
+                new AgentProfileCache(BenchmarkData.ticketRepository(tickets)));
+        Field field = ReflectionUtils.findField(AgentService.class, "matchingEngine");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, agentService, matchingEngine);
+    }
+
+    // Rotate through tickets so one set of branches is not all that gets measured
+    private Ticket nextTicket() {
+        next = (next + 1) & (tickets.size() - 1);
+        return tickets.get(next);
+    }
+
+    @Benchmark
+    public int calculatePerformancePoints() {
+        return agentService.calculatePerformancePoints(nextTicket(), completionTime);
+    }
+
+    @Benchmark
+    public Optional<Agent> findBestAgentForTicket() {
+        return agentService.findBestAgentForTicket(priority);
+    }
+
+    @Benchmark
+    public List<Agent> rankCandidatesForTicket() {
+        return agentService.findCandidateAgentsForTicket(nextTicket());
+    }
+}
@@ -0,0 +1,145 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Fixed, seeded data for the benchmarks and in-memory repositories serving it.
+ * The repositories are dynamic proxies answering only the queries the benchmarked
+ * methods make, and return a fresh list per call the way JPA does.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime START = LocalDateTime.of(2025, 1, 6, 8, 0);
+
+    // Priorities as seeded in data.sql
+    static final List<Priority> PRIORITIES = List.of(
+            priority(1L, "LOW", 10, 4),
+            priority(2L, "MEDIUM", 20, 8),
+            priority(3L, "HIGH", 30, 24),
+            priority(4L, "CRITICAL", 40, 48));
+
+    static final List<Category> CATEGORIES = List.of(
+            category(1, "Account", 1),
+            category(2, "Hardware", 2),
+            category(3, "Software", 2),
+            category(4, "Network", 3),
+            category(5, "Database", 3));
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Active agents of every level with 0-90% of their capacity in use.
+     */
+    static List<Agent> agents(int count, long seed) {
+        Random random = new Random(seed);
+        List<Agent> agents = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Agent agent = new Agent(new User(), AgentLevel.JUNIOR);
+            agent.setId(id);
+            agent.setCompletedTickets(random.nextInt(151));
+            agent.recalculateLevel();
+            agent.setCurrentWorkload((int) (agent.getTotalCapacity() * random.nextDouble() * 0.9));
+            agents.add(agent);
+        }
+        return agents;
+    }
+
+    /**
+     * Tickets in random order with every priority, category and status, started within
+     * the last 30 days; completed ones took up to twice their time limit.
+     */
+    static List<Ticket> tickets(int count, long seed) {
+        Random random = new Random(seed);
+        Status[] statuses = Status.values();
+        List<Ticket> tickets = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Priority priority = PRIORITIES.get(random.nextInt(PRIORITIES.size()));
+            Ticket ticket = new Ticket();
+            ticket.setTicketId(id);
+            ticket.setTitle("Ticket " + Long.toHexString(random.nextLong()));
+            ticket.setPriority(priority);
+            ticket.setCategory(CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+            ticket.setStatus(statuses[random.nextInt(statuses.length)]);
+            LocalDateTime started = START.minusMinutes(random.nextInt(30 * 24 * 60));
+            ticket.setDate_created(started.minusMinutes(random.nextInt(120)));
+            ticket.setDate_started(started);
+            ticket.setExpected_completion_date(started.plusHours(priority.getTimeLimit()));
+            if (ticket.getStatus() == Status.COMPLETED) {
+                ticket.setCompletion_date(started.plusMinutes(random.nextInt(priority.getTimeLimit() * 120 + 1)));
+            }
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    static AgentRepository agentRepository(List<Agent> agents) {
+        return proxy(AgentRepository.class, Map.of(
+                "findAgentsWithEnoughCapacityFor", args -> {
+                    int weight = (Integer) args[0];
+                    List<Agent> available = new ArrayList<>();
+                    for (Agent agent : agents) {
+                        if (agent.isActive() && agent.getTotalCapacity() - agent.getCurrentWorkload() >= weight) {
+                            available.add(agent);
+                        }
+                    }
+                    return available;
+                }));
+    }
+
+    static TicketRepository ticketRepository(List<Ticket> tickets) {
+        return proxy(TicketRepository.class, Map.of(
+                "findAll", args -> new ArrayList<>(tickets),
+                "findByStatus", args -> {
+                    List<Ticket> matching = new ArrayList<>();
+                    for (Ticket ticket : tickets) {
+                        if (ticket.getStatus() == args[0]) {
+                            matching.add(ticket);
+                        }
+                    }
+                    return matching;
+                },
+                "summarizeByAgentAndCategory", args -> List.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return implementation.apply(args != null ? args : new Object[0]);
+        });
+    }
+
+    private static Priority priority(Long id, String name, int weight, int timeLimit) {
+        Priority priority = new Priority(name, weight, timeLimit);
+        priority.setId(id);
+        return priority;
+    }
+
+    private static Category category(int id, String name, int points) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setName(name);
+        category.setPoints(points);
+        return category;
+    }
+}
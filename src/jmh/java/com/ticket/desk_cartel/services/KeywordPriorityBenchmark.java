@@ -0,0 +1,73 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The keyword fallback of GeminiAIService, for texts that stop at an early rule
+ * and for ones that fall through every rule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeywordPriorityBenchmark {
+
+    private static final Map<String, String[]> TICKETS = Map.of(
+            "security", new String[]{"Virus on my laptop",
+                    "I think someone stole my personal information after I opened an attachment", "Software"},
+            "database", new String[]{"Orders database is down",
+                    "The reporting database is not retrieving anything for all users since this morning", "Database"},
+            "how-to", new String[]{"Exporting a report",
+                    "I don't know how to export the monthly report to a spreadsheet", "Software"},
+            "no-match", new String[]{"Monitor flickers",
+                    "The second screen on my desk goes black for a second every few minutes", "Network"});
+
+    @Param({"security", "database", "how-to", "no-match"})
+    public String text;
+
+    private GeminiAIService service;
+    private String title;
+    private String description;
+    private String category;
+
+    @Setup
+    public void setUp() {
+        Map<String, Priority> byName = BenchmarkData.PRIORITIES.stream()
+                .collect(Collectors.toMap(Priority::getName, Function.identity()));
+        PriorityService priorityService = new PriorityService(null, null) {
+            @Override
+            public Priority getPriorityByName(String name) {
+                return byName.get(name);
+            }
+        };
+
+        service = new GeminiAIService();
+        Field field = ReflectionUtils.findField(GeminiAIService.class, "priorityService");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, service, priorityService);
+
+        String[] ticket = TICKETS.get(text);
+        title = ticket[0];
+        description = ticket[1];
+        category = ticket[2];
+    }
+
+    @Benchmark
+    public Priority keywordBasedPriority() {
+        return service.keywordBasedPriority(title, description, category);
+    }
+}
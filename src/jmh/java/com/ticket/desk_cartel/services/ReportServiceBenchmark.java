@@ -0,0 +1,54 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The completion time aggregation of ReportService, with no filter and with every filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tickets;
+
+    private ReportService reportService;
+    private Category category;
+    private Priority priority;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    @Setup
+    public void setUp() {
+        reportService = new ReportService(BenchmarkData.ticketRepository(BenchmarkData.tickets(tickets, 42)),
+                null, null);
+        category = BenchmarkData.CATEGORIES.get(2);
+        priority = BenchmarkData.PRIORITIES.get(1);
+        startDate = BenchmarkData.START.minusDays(14);
+        endDate = BenchmarkData.START.plusDays(1);
+    }
+
+    @Benchmark
+    public Map<String, Object> averageCompletionTime() {
+        return reportService.calculateAverageCompletionTime(null, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> averageCompletionTimeFiltered() {
+        return reportService.calculateAverageCompletionTime(category, priority, startDate, endDate);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory comparators of TicketService.filterAndSortTickets, on unfiltered
+ * tickets. The repository copy of the list is part of every measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketSortBenchmark {
+
+    @Param({"100", "10000"})
+    public int tickets;
+
+    @Param({"ticketId", "title", "priority", "category", "status", "date_started"})
+    public String sortBy;
+
+    @Param({"ASC", "DESC"})
+    public String direction;
+
+    private TicketService ticketService;
+
+    @Setup
+    public void setUp() {
+        ticketService = new TicketService(BenchmarkData.ticketRepository(BenchmarkData.tickets(tickets, 42)),
+                null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Ticket> filterAndSortTickets() {
+        return ticketService.filterAndSortTickets(null, null, null, sortBy, direction);
+    }
+}
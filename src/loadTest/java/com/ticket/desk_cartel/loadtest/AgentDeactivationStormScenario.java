@@ -0,0 +1,42 @@
+package com.ticket.desk_cartel.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rounds of deactivating half of the agents at once, which reassigns all their open
+ * tickets, and then reactivating them. Best run after the ticket burst, so agents
+ * hold tickets.
+ */
+final class AgentDeactivationStormScenario implements Scenario {
+
+    private final int rounds;
+    private final int concurrency;
+
+    AgentDeactivationStormScenario(int rounds, int concurrency) {
+        this.rounds = rounds;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public String name() {
+        return "Agent deactivation storm: " + rounds + " rounds, " + concurrency + " concurrent";
+    }
+
+    @Override
+    public void run(LoadTestData data, ScenarioResult result) throws Exception {
+        Random random = new Random(42);
+        for (int round = 0; round < rounds; round++) {
+            List<Long> agents = new ArrayList<>(data.agentIds);
+            Collections.shuffle(agents, random);
+            List<Long> storm = agents.subList(0, Math.max(1, agents.size() / 2));
+
+            Scenario.repeat(storm.size(), concurrency, i -> data.api.call(result, "deactivate agent", "PUT",
+                    "/api/agents/" + storm.get(i) + "/active?active=false", data.adminToken, null));
+            Scenario.repeat(storm.size(), concurrency, i -> data.api.call(result, "reactivate agent", "PUT",
+                    "/api/agents/" + storm.get(i) + "/active?active=true", data.adminToken, null));
+        }
+    }
+}
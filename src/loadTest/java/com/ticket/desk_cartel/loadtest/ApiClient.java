@@ -0,0 +1,87 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal JSON client for the REST API, recording the latency of every call.
+ */
+final class ApiClient {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Send a request and record its latency under the operation name. A non-2xx status
+     * or an I/O error counts as a failure.
+     *
+     * @return the response, or null when the request failed
+     */
+    HttpResponse<byte[]> call(ScenarioResult result, String operation, String method, String path,
+                              String token, Object body) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = send(method, path, token, body);
+            if (response.statusCode() / 100 != 2) {
+                result.error(operation);
+                result.count(operation + " HTTP " + response.statusCode());
+                return null;
+            }
+            result.record(operation, System.nanoTime() - start);
+            return response;
+        } catch (IOException e) {
+            result.error(operation);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.error(operation);
+            return null;
+        }
+    }
+
+    HttpResponse<byte[]> send(String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send("POST", "/auth/login", null,
+                Map.of("username", username, "password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+        }
+        return json(response).path("token").asText();
+    }
+}
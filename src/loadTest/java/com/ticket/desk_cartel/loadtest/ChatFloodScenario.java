@@ -0,0 +1,130 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ticket.desk_cartel.security.TicketSubscriptionInterceptor;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clients connected over STOMP flood their ticket chats. The latency measured is the
+ * round trip from sending a message to receiving it back on the ticket topic, so it
+ * covers the access check, the save and the broker fan-out. Messages not back within
+ * the timeout are counted as failures.
+ */
+final class ChatFloodScenario implements Scenario {
+
+    private final int participants;
+    private final int messagesPerClient;
+    private final long timeoutSeconds;
+
+    ChatFloodScenario(int participants, int messagesPerClient, long timeoutSeconds) {
+        this.participants = participants;
+        this.messagesPerClient = messagesPerClient;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public String name() {
+        return "Chat flood: " + participants + " clients x " + messagesPerClient + " messages";
+    }
+
+    @Override
+    public void run(LoadTestData data, ScenarioResult result) throws Exception {
+        List<LoadTestData.Client> senders = data.clients.subList(0, Math.min(participants, data.clients.size()));
+        ensureTickets(data, senders);
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        Map<String, Long> inFlight = new ConcurrentHashMap<>();
+        CountDownLatch delivered = new CountDownLatch(senders.size() * messagesPerClient);
+        StompFrameHandler echoHandler = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Long sentAt = inFlight.remove(((JsonNode) payload).path("clientMessageId").asText());
+                if (sentAt != null) {
+                    result.record("message round trip", System.nanoTime() - sentAt);
+                    delivered.countDown();
+                }
+            }
+        };
+
+        List<StompSession> sessions = new ArrayList<>();
+        try {
+            for (LoadTestData.Client client : senders) {
+                long start = System.nanoTime();
+                StompSession session = stompClient.connectAsync(data.webSocketUrl + "?token=" + client.token(),
+                        new StompSessionHandlerAdapter() {
+                        }).get(10, TimeUnit.SECONDS);
+                result.record("connect", System.nanoTime() - start);
+                session.subscribe(TicketSubscriptionInterceptor.ticketTopic(
+                        String.valueOf(data.ticketByClient.get(client.userId()))), echoHandler);
+                sessions.add(session);
+            }
+            // SUBSCRIBE has no reply from the simple broker; give the subscriptions time to register
+            Thread.sleep(1000);
+
+            // One sender thread per session: a STOMP session must not be written to concurrently
+            Scenario.repeat(sessions.size(), sessions.size(), i -> {
+                StompSession session = sessions.get(i);
+                String ticketId = String.valueOf(data.ticketByClient.get(senders.get(i).userId()));
+                for (int n = 0; n < messagesPerClient; n++) {
+                    String messageId = UUID.randomUUID().toString();
+                    inFlight.put(messageId, System.nanoTime());
+                    session.send("/app/chat", Map.of(
+                            "ticketId", ticketId,
+                            "receiverUsername", "PUBLIC_CHAT",
+                            "messageContent", "Load test message " + n,
+                            "clientMessageId", messageId));
+                }
+            });
+
+            if (!delivered.await(timeoutSeconds, TimeUnit.SECONDS)) {
+                inFlight.keySet().forEach(lost -> result.error("message round trip"));
+                result.count("messages not delivered within " + timeoutSeconds + "s: " + inFlight.size());
+            }
+        } finally {
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+        }
+    }
+
+    // The chat scenario can run on its own; give every sender a ticket if the burst did not
+    private void ensureTickets(LoadTestData data, List<LoadTestData.Client> senders) throws Exception {
+        for (LoadTestData.Client client : senders) {
+            if (data.ticketByClient.containsKey(client.userId())) {
+                continue;
+            }
+            HttpResponse<byte[]> response = data.api.send("POST", "/api/tickets/create?userId=" + client.userId(),
+                    client.token(), Map.of(
+                            "title", "Chat load test",
+                            "description", "Ticket used for the chat flood scenario",
+                            "categoryId", data.categoryIds.get(0),
+                            "priorityId", data.priorityIds.get(0)));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not create a chat ticket: HTTP " + response.statusCode());
+            }
+            data.ticketByClient.put(client.userId(), data.api.json(response).path("ticketId").asLong());
+        }
+    }
+}
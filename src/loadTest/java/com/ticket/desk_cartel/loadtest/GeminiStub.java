@@ -0,0 +1,89 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Gemini generateContent endpoint. Every call waits for the
+ * configured latency, then either fails with a 503 (at the configured rate) or answers
+ * with a random priority in the shape GeminiAIService parses.
+ */
+final class GeminiStub implements AutoCloseable {
+
+    private static final List<String> PRIORITIES = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+
+    private final HttpServer server;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    GeminiStub(long latencyMillis, double failureRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        // One virtual thread per call, so the stub latency is the only latency
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * @return the URL to set as gemini.api.url
+     */
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta/models/stub:generateContent";
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long failures() {
+        return failures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            calls.incrementAndGet();
+            Thread.sleep(latencyMillis);
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                respond(exchange, 503, "{\"error\":{\"code\":503,\"message\":\"stub failure\"}}");
+                return;
+            }
+            String priority = PRIORITIES.get(random.nextInt(PRIORITIES.size()));
+            respond(exchange, 200,
+                    "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + priority + "\"}]}}]}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
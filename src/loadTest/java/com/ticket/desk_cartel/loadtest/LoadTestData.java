@@ -0,0 +1,117 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.AgentService;
+import com.ticket.desk_cartel.services.CategoryService;
+import com.ticket.desk_cartel.services.PriorityService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users, agents and categories seeded straight through the application's services
+ * before any scenario runs, and the state scenarios hand to each other.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "load-test-password";
+
+    /**
+     * A logged-in client.
+     */
+    record Client(Long userId, String username, String token) {
+    }
+
+    final ApiClient api;
+    final String webSocketUrl;
+    final String adminToken;
+    final List<Client> clients;
+    final List<Long> agentIds;
+    final List<Long> categoryIds;
+    final List<Long> priorityIds;
+    // Latest ticket created by each client, by user id; used by the chat scenario
+    final Map<Long, Long> ticketByClient = new ConcurrentHashMap<>();
+
+    private LoadTestData(ApiClient api, String webSocketUrl, String adminToken, List<Client> clients,
+                         List<Long> agentIds, List<Long> categoryIds, List<Long> priorityIds) {
+        this.api = api;
+        this.webSocketUrl = webSocketUrl;
+        this.adminToken = adminToken;
+        this.clients = clients;
+        this.agentIds = agentIds;
+        this.categoryIds = categoryIds;
+        this.priorityIds = priorityIds;
+    }
+
+    static LoadTestData seed(ApplicationContext context, ApiClient api, String webSocketUrl,
+                             int clientCount, int agentCount) throws Exception {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AgentService agentService = context.getBean(AgentService.class);
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        // Hash once; BCrypt per user would dominate seeding
+        String passwordHash = context.getBean(BCryptPasswordEncoder.class).encode(PASSWORD);
+
+        createUser(userRepository, passwordHash, "loadtest.admin", "ADMIN");
+
+        List<Long> agentIds = new ArrayList<>();
+        for (int i = 1; i <= agentCount; i++) {
+            User user = createUser(userRepository, passwordHash, "loadtest.agent." + i, "CLIENT");
+            agentIds.add(agentService.createAgent(user.getId()).getId());
+        }
+
+        List<User> clientUsers = new ArrayList<>();
+        for (int i = 1; i <= clientCount; i++) {
+            clientUsers.add(createUser(userRepository, passwordHash, "loadtest.client." + i, "CLIENT"));
+        }
+
+        List<Long> categoryIds = new ArrayList<>();
+        String[][] categories = {{"Account", "1"}, {"Hardware", "2"}, {"Software", "2"}, {"Network", "3"}, {"Database", "3"}};
+        for (String[] category : categories) {
+            Category created = categoryService.categoryCreation(category[0], category[0] + " issues",
+                    Integer.parseInt(category[1]), true);
+            categoryIds.add((long) created.getCategoryId());
+        }
+
+        List<Long> priorityIds = context.getBean(PriorityService.class).getAllPriorities().stream()
+                .filter(priority -> priority.getWeight() > 0)
+                .map(Priority::getId)
+                .toList();
+
+        String adminToken = api.login("loadtest.admin", PASSWORD);
+        List<Client> clients = Collections.synchronizedList(new ArrayList<>());
+        Scenario.repeat(clientUsers.size(), 16, i -> {
+            User user = clientUsers.get(i);
+            try {
+                clients.add(new Client(user.getId(), user.getUsername(), api.login(user.getUsername(), PASSWORD)));
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not log in " + user.getUsername(), e);
+            }
+        });
+        if (clients.size() != clientUsers.size()) {
+            throw new IllegalStateException("Only " + clients.size() + " of " + clientUsers.size() + " clients logged in");
+        }
+
+        return new LoadTestData(api, webSocketUrl, adminToken, List.copyOf(clients), List.copyOf(agentIds),
+                List.copyOf(categoryIds), priorityIds);
+    }
+
+    private static User createUser(UserRepository userRepository, String passwordHash, String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@loadtest.local");
+        user.setFullName(username);
+        user.setPassword(passwordHash);
+        user.setRole(role);
+        user.setActive(true);
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+}
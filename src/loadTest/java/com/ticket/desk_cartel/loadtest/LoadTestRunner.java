@@ -0,0 +1,150 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.ticket.desk_cartel.DeskCartelApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots the application under the loadtest profile against local stand-ins, then runs
+ * scripted scenarios over HTTP and STOMP and prints a latency histogram and throughput
+ * for each. The stand-ins are:
+ * <ul>
+ *   <li>MySQL in a Testcontainers container (Docker is required)</li>
+ *   <li>a GreenMail SMTP sink</li>
+ *   <li>a Gemini stub with configurable latency and failure rate</li>
+ * </ul>
+ *
+ * <pre>
+ * ./gradlew loadTest
+ * ./gradlew loadTest -PloadTestArgs="--scenarios=tickets,chat --tickets=2000 --gemini-latency-ms=800"
+ * </pre>
+ *
+ * Options (defaults in brackets):
+ * <ul>
+ *   <li>--scenarios [tickets,deactivation,chat,reports]</li>
+ *   <li>--clients [50], --agents [20], --concurrency [32]</li>
+ *   <li>--tickets [500], --storm-rounds [5], --chat-clients [20], --chat-messages [50] (per client),
+ *       --reports [30]</li>
+ *   <li>--gemini-latency-ms [400], --gemini-failure-rate [0.05]</li>
+ *   <li>--mysql-image [mysql:8.0]</li>
+ * </ul>
+ * The application log goes to build/loadtest/app.log.
+ */
+public final class LoadTestRunner {
+
+    static final class Options {
+        List<String> scenarios = List.of("tickets", "deactivation", "chat", "reports");
+        int clients = 50;
+        int agents = 20;
+        int concurrency = 32;
+        int tickets = 500;
+        int stormRounds = 5;
+        int chatClients = 20;
+        int chatMessages = 50;
+        int reports = 30;
+        long geminiLatencyMillis = 400;
+        double geminiFailureRate = 0.05;
+        String mysqlImage = "mysql:8.0";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String value = parts[1];
+                switch (parts[0]) {
+                    case "scenarios" -> options.scenarios = Arrays.stream(value.split(",")).map(String::trim).toList();
+                    case "clients" -> options.clients = Integer.parseInt(value);
+                    case "agents" -> options.agents = Integer.parseInt(value);
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "tickets" -> options.tickets = Integer.parseInt(value);
+                    case "storm-rounds" -> options.stormRounds = Integer.parseInt(value);
+                    case "chat-clients" -> options.chatClients = Integer.parseInt(value);
+                    case "chat-messages" -> options.chatMessages = Integer.parseInt(value);
+                    case "reports" -> options.reports = Integer.parseInt(value);
+                    case "gemini-latency-ms" -> options.geminiLatencyMillis = Long.parseLong(value);
+                    case "gemini-failure-rate" -> options.geminiFailureRate = Double.parseDouble(value);
+                    case "mysql-image" -> options.mysqlImage = value;
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return options;
+        }
+
+        List<Scenario> toScenarios() {
+            List<Scenario> selected = new ArrayList<>();
+            for (String scenario : scenarios) {
+                selected.add(switch (scenario) {
+                    case "tickets" -> new TicketBurstScenario(tickets, concurrency);
+                    case "deactivation" -> new AgentDeactivationStormScenario(stormRounds, concurrency);
+                    case "chat" -> new ChatFloodScenario(chatClients, chatMessages, 60);
+                    case "reports" -> new ReportGenerationScenario(reports, Math.min(concurrency, 8));
+                    default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+                });
+            }
+            return selected;
+        }
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<Scenario> scenarios = options.toScenarios();
+
+        GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withUser("loadtest", "loadtest"));
+        try (MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse(options.mysqlImage));
+             GeminiStub gemini = new GeminiStub(options.geminiLatencyMillis, options.geminiFailureRate)) {
+            mysql.start();
+            smtp.start();
+
+            // Same variables the application reads from .env in production
+            System.setProperty("MYSQL_URL", mysql.getJdbcUrl());
+            System.setProperty("MYSQL_USERNAME", mysql.getUsername());
+            System.setProperty("MYSQL_PASSWORD", mysql.getPassword());
+            System.setProperty("MAIL_HOST", "127.0.0.1");
+            System.setProperty("MAIL_PORT", String.valueOf(smtp.getSmtp().getPort()));
+            System.setProperty("MAIL_USERNAME", "loadtest");
+            System.setProperty("MAIL_PASSWORD", "loadtest");
+            System.setProperty("GEMINI_API_KEY", "loadtest");
+            System.setProperty("GEMINI_API_URL", gemini.url());
+
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DeskCartelApplication.class)
+                    .profiles("loadtest")
+                    .run()) {
+                int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                ApiClient api = new ApiClient("http://127.0.0.1:" + port);
+                LoadTestData data = LoadTestData.seed(app, api, "ws://127.0.0.1:" + port + "/ws-chat",
+                        options.clients, options.agents);
+                System.out.printf("Seeded %d clients and %d agents; Gemini stub at %dms, %.0f%% failures%n",
+                        data.clients.size(), data.agentIds.size(), options.geminiLatencyMillis,
+                        options.geminiFailureRate * 100);
+
+                for (Scenario scenario : scenarios) {
+                    ScenarioResult result = new ScenarioResult(scenario.name());
+                    scenario.run(data, result);
+                    result.finish();
+                    result.print(System.out);
+                }
+            }
+
+            System.out.printf("%nGemini stub: %d calls, %d failed. SMTP sink: %d emails received%n",
+                    gemini.calls(), gemini.failures(), smtp.getReceivedMessages().length);
+        } finally {
+            smtp.stop();
+        }
+    }
+}
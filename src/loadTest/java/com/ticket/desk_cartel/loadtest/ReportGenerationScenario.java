@@ -0,0 +1,35 @@
+package com.ticket.desk_cartel.loadtest;
+
+import java.util.List;
+
+/**
+ * Concurrent report requests: completion time statistics and both PDF reports.
+ */
+final class ReportGenerationScenario implements Scenario {
+
+    private static final List<String[]> REPORTS = List.of(
+            new String[]{"completion stats", "/api/reports/completion-time/stats"},
+            new String[]{"tickets PDF", "/api/reports/tickets"},
+            new String[]{"completion time PDF", "/api/reports/completion-time/pdf"});
+
+    private final int reports;
+    private final int concurrency;
+
+    ReportGenerationScenario(int reports, int concurrency) {
+        this.reports = reports;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public String name() {
+        return "Report generation: " + reports + " reports, " + concurrency + " concurrent";
+    }
+
+    @Override
+    public void run(LoadTestData data, ScenarioResult result) throws Exception {
+        Scenario.repeat(reports, concurrency, i -> {
+            String[] report = REPORTS.get(i % REPORTS.size());
+            data.api.call(result, report[0], "GET", report[1], data.adminToken, null);
+        });
+    }
+}
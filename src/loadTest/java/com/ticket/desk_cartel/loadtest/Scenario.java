@@ -0,0 +1,37 @@
+package com.ticket.desk_cartel.loadtest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntConsumer;
+
+/**
+ * One scripted load pattern run against the booted application.
+ */
+interface Scenario {
+
+    String name();
+
+    void run(LoadTestData data, ScenarioResult result) throws Exception;
+
+    /**
+     * Run the task for 0..count-1 on virtual threads, at most concurrency at a time,
+     * and wait for all of them.
+     */
+    static void repeat(int count, int concurrency, IntConsumer task) throws InterruptedException {
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        task.accept(index);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ticket.desk_cartel.loadtest;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.CountingMode;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms, error counts and throughput of one scenario, per operation.
+ */
+final class ScenarioResult {
+
+    // Histogram bucket bounds, also the rows of the printed histogram
+    private static final Duration[] BUCKETS = {
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+            Duration.ofSeconds(5), Duration.ofSeconds(10)};
+
+    private final String name;
+    // Cumulative, so the counts cover the whole run rather than the last step
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry(new SimpleConfig() {
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public CountingMode mode() {
+            return CountingMode.CUMULATIVE;
+        }
+    }, Clock.SYSTEM);
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos;
+
+    ScenarioResult(String name) {
+        this.name = name;
+    }
+
+    void record(String operation, long nanos) {
+        timer(operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void error(String operation) {
+        timer(operation);
+        errors.computeIfAbsent(operation, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Count an outcome worth reporting besides latency, such as the status of created tickets.
+     */
+    void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    private synchronized Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, key -> Timer.builder("loadtest." + key)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .serviceLevelObjectives(BUCKETS)
+                // Percentiles and max over the whole scenario, not a sliding window
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry));
+    }
+
+    synchronized void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%n=== %s (%.1fs) ===%n", name, seconds);
+        timers.forEach((operation, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            long failed = errors.getOrDefault(operation, new AtomicLong()).get();
+            out.printf("%s: %d ok, %d failed, %.1f/s%n", operation, snapshot.count(), failed,
+                    seconds > 0 ? snapshot.count() / seconds : 0);
+            if (snapshot.count() == 0) {
+                return;
+            }
+            StringBuilder percentiles = new StringBuilder("  mean " + millis(snapshot.mean(TimeUnit.NANOSECONDS)));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                percentiles.append(String.format("  p%.0f %s", percentile.percentile() * 100,
+                        millis(percentile.value(TimeUnit.NANOSECONDS))));
+            }
+            percentiles.append("  max ").append(millis(snapshot.max(TimeUnit.NANOSECONDS)));
+            out.println(percentiles);
+
+            // Bucket counts are cumulative; print each bucket's own share
+            double previous = 0;
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                double inBucket = bucket.count() - previous;
+                previous = bucket.count();
+                int bar = (int) Math.round(40 * inBucket / snapshot.count());
+                out.printf("  <= %8s %7.0f %s%n", millis(bucket.bucket(TimeUnit.NANOSECONDS)), inBucket, "#".repeat(bar));
+            }
+            out.printf("  >  %8s %7.0f%n", millis(BUCKETS[BUCKETS.length - 1].toNanos()), snapshot.count() - previous);
+        });
+        new TreeMap<>(outcomes).forEach((outcome, count) -> out.printf("%s: %d%n", outcome, count.get()));
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.1fms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ticket.desk_cartel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A burst of ticket creations without a priority, so each one goes through the Gemini
+ * stub (or the keyword fallback when the stub fails) and then agent assignment.
+ */
+final class TicketBurstScenario implements Scenario {
+
+    private static final List<String> DESCRIPTIONS = List.of(
+            "My laptop will not connect to the office network since this morning",
+            "I don't know how to export the monthly report to a spreadsheet",
+            "Someone may have stolen my personal information after I opened an attachment",
+            "The orders database is down and not retrieving anything for all users",
+            "Small typo on the login page, would be nice to fix when possible");
+
+    private final int tickets;
+    private final int concurrency;
+
+    TicketBurstScenario(int tickets, int concurrency) {
+        this.tickets = tickets;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public String name() {
+        return "Ticket creation burst: " + tickets + " tickets, " + concurrency + " concurrent";
+    }
+
+    @Override
+    public void run(LoadTestData data, ScenarioResult result) throws Exception {
+        Scenario.repeat(tickets, concurrency, i -> {
+            LoadTestData.Client client = data.clients.get(i % data.clients.size());
+            Map<String, Object> ticket = Map.of(
+                    "title", "Load test ticket " + i,
+                    "description", DESCRIPTIONS.get(i % DESCRIPTIONS.size()),
+                    "categoryId", data.categoryIds.get(i % data.categoryIds.size()));
+            HttpResponse<byte[]> response = data.api.call(result, "create ticket", "POST",
+                    "/api/tickets/create?userId=" + client.userId(), client.token(), ticket);
+            if (response == null) {
+                return;
+            }
+            try {
+                JsonNode created = data.api.json(response);
+                data.ticketByClient.put(client.userId(), created.path("ticketId").asLong());
+                result.count("created as " + created.path("status").asText("?"));
+            } catch (Exception e) {
+                result.count("unreadable response");
+            }
+        });
+    }
+}
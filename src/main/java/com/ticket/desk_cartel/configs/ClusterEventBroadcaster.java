@@ -0,0 +1,146 @@
+package com.ticket.desk_cartel.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticket.desk_cartel.events.ChatHistoryChangedEvent;
+import com.ticket.desk_cartel.events.ClusterEvent;
+import com.ticket.desk_cartel.events.EntityChangedEvent;
+import com.ticket.desk_cartel.events.ReferenceDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Broadcasts cache invalidation events to the other nodes of the cluster.
+ * In relay mode (chat.broker.mode=relay) events are published to a broker topic per event
+ * type that every node listens on through the relay's shared system connection; received events
+ * from other nodes are re-published as local application events. With the simple
+ * broker there is only one node and nothing is sent.
+ */
+@Component
+public class ClusterEventBroadcaster {
+
+    // Node-to-node topics; clients may neither send to nor subscribe to them (TicketSubscriptionInterceptor)
+    public static final String DESTINATION_PREFIX = "/topic/cluster.";
+    public static final String DESTINATION = DESTINATION_PREFIX + "reference-data";
+    public static final String CHAT_HISTORY_DESTINATION = DESTINATION_PREFIX + "chat-history";
+    public static final String ENTITY_DESTINATION = DESTINATION_PREFIX + "entity";
+
+    // Event type carried by each cluster topic
+    private static final Map<String, Class<? extends ClusterEvent>> EVENT_TYPES = Map.of(
+            DESTINATION, ReferenceDataChangedEvent.class,
+            CHAT_HISTORY_DESTINATION, ChatHistoryChangedEvent.class,
+            ENTITY_DESTINATION, EntityChangedEvent.class);
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventBroadcaster.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean relayMode;
+
+    public ClusterEventBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   @Value("${chat.broker.mode:simple}") String brokerMode) {
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.relayMode = "relay".equalsIgnoreCase(brokerMode);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Tell the other nodes that reference data changed.
+     * @param type The kind of reference data that changed
+     */
+    public void broadcast(ReferenceDataChangedEvent.Type type) {
+        send(DESTINATION, new ReferenceDataChangedEvent(type, nodeId));
+    }
+
+    /**
+     * Tell the other nodes that a ticket's chat history changed.
+     * @param ticketId The ticket that got a new message
+     */
+    public void broadcastChatHistoryChanged(String ticketId) {
+        send(CHAT_HISTORY_DESTINATION, new ChatHistoryChangedEvent(ticketId, nodeId));
+    }
+
+    /**
+     * Tell the other nodes that a cached entity row changed.
+     * @param entityName The Hibernate entity name
+     * @param id The id of the changed row
+     */
+    public void broadcastEntityChanged(String entityName, Long id) {
+        send(ENTITY_DESTINATION, new EntityChangedEvent(entityName, id, nodeId));
+    }
+
+    private void send(String destination, ClusterEvent event) {
+        if (!relayMode) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(destination, event);
+            logger.debug("📡 Broadcast {} to cluster", event);
+        } catch (Exception e) {
+            logger.error("❌ Failed to broadcast {}: {}", event, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Handle an event received from the broker.
+     */
+    void onBrokerMessage(String destination, Message<?> message) {
+        try {
+            ClusterEvent event = objectMapper.readValue((byte[]) message.getPayload(), EVENT_TYPES.get(destination));
+            if (nodeId.equals(event.getOriginNodeId())) {
+                return;
+            }
+            logger.info("📡 Received {} from node {}", event, event.getOriginNodeId());
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            logger.error("❌ Failed to handle cluster event: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Subscribe to the cluster topics on the relay's system connection. The relay
+     * handler is created by the broker configuration, so the subscription is
+     * added once the handler bean is initialized and before it connects.
+     */
+    @Bean
+    static BeanPostProcessor clusterEventRelaySubscription(ObjectProvider<ClusterEventBroadcaster> broadcaster) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof StompBrokerRelayMessageHandler relayHandler) {
+                    Map<String, MessageHandler> subscriptions = new HashMap<>();
+                    if (relayHandler.getSystemSubscriptions() != null) {
+                        subscriptions.putAll(relayHandler.getSystemSubscriptions());
+                    }
+                    for (String destination : EVENT_TYPES.keySet()) {
+                        subscriptions.put(destination, message -> broadcaster.getObject().onBrokerMessage(destination, message));
+                    }
+                    relayHandler.setSystemSubscriptions(subscriptions);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.ticket.desk_cartel.configs;
 import com.ticket.desk_cartel.entities.User;
 import com.ticket.desk_cartel.repositories.UserRepository;
 import com.ticket.desk_cartel.services.PriorityService;
+import com.ticket.desk_cartel.services.UserIdentityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -24,13 +25,16 @@ public class DataInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final PriorityService priorityService;
+    private final UserIdentityCache userIdentityCache;
     
     public DataInitializer(UserRepository userRepository, 
                           BCryptPasswordEncoder passwordEncoder,
-                          PriorityService priorityService) {
+                          PriorityService priorityService,
+                          UserIdentityCache userIdentityCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.priorityService = priorityService;
+        this.userIdentityCache = userIdentityCache;
     }
     
     @Override
@@ -84,6 +88,10 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             logger.info("✅ SYSTEM user already exists");
         }
+        
+        // Pin the system users so chat never has to look them up again
+        userRepository.findByUsername("PUBLIC_CHAT").ifPresent(userIdentityCache::pin);
+        userRepository.findByUsername("SYSTEM").ifPresent(userIdentityCache::pin);
     }
     
     /**
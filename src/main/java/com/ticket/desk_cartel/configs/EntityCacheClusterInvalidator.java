@@ -0,0 +1,93 @@
+package com.ticket.desk_cartel.configs;
+
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.events.EntityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Keeps the node-local second-level cache of users in step across the cluster.
+ * Hibernate evicts a changed row only on the node that wrote it, so a deactivated user or
+ * a changed role would otherwise be served from the other nodes' caches until the TTL.
+ * Once an update or delete is committed, the row is broadcast through ClusterEventBroadcaster
+ * and every other node evicts it.
+ */
+@Component
+public class EntityCacheClusterInvalidator implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheClusterInvalidator.class);
+
+    // Cached entities whose changes must reach every node (see HibernateCacheConfig)
+    static final Set<Class<?>> CLUSTERED_ENTITIES = Set.of(User.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ClusterEventBroadcaster broadcaster;
+
+    public EntityCacheClusterInvalidator(EntityManagerFactory entityManagerFactory, ClusterEventBroadcaster broadcaster) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.broadcaster = broadcaster;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CLUSTERED_ENTITIES.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back, the cached row is still current
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back, the cached row is still current
+    }
+
+    /**
+     * Evict a row another node has changed.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                .evictEntityData(event.getEntityName(), event.getId());
+        logger.debug("Evicted {}#{} from the second-level cache", event.getEntityName(), event.getId());
+    }
+
+    private void changed(EntityPersister persister, Object id) {
+        if (requiresPostCommitHandling(persister) && id instanceof Number number) {
+            broadcaster.broadcastEntityChanged(persister.getEntityName(), number.longValue());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ticket.desk_cartel.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Named, separately sized thread pools, so that a slow subsystem (SMTP, Gemini)
+ * cannot delay the others.
+ * Schedulers: assignment and reconciliation jobs, classification of imported tickets
+ * (which waits on Gemini), and WebSocket heartbeats (app heartbeats and the simple
+ * broker's STOMP heartbeats).
+ * Executors: outgoing mail (@Async) and AI classification calls.
+ * Every pool records task wait and run times through MeteredTaskDecorator.
+ * Executors also carry the submitting thread's trace context (and MDC), so mail and
+ * AI work shows up under the request that started it. Boot creates no
+ * applicationTaskExecutor next to these pools, so the decorators are set on each pool here.
+ */
+@Configuration
+@EnableAsync
+public class ExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public static final String ASSIGNMENT_SCHEDULER = "assignmentScheduler";
+    public static final String RECONCILIATION_SCHEDULER = "reconciliationScheduler";
+    public static final String CLASSIFICATION_SCHEDULER = "classificationScheduler";
+    public static final String HEARTBEAT_SCHEDULER = "heartbeatScheduler";
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String AI_EXECUTOR = "aiExecutor";
+
+    @Bean(name = ASSIGNMENT_SCHEDULER)
+    public ThreadPoolTaskScheduler assignmentScheduler(MeterRegistry meterRegistry) {
+        return scheduler(ASSIGNMENT_SCHEDULER, 1, "assignment-", meterRegistry);
+    }
+
+    @Bean(name = RECONCILIATION_SCHEDULER)
+    public ThreadPoolTaskScheduler reconciliationScheduler(MeterRegistry meterRegistry) {
+        return scheduler(RECONCILIATION_SCHEDULER, 1, "reconciliation-", meterRegistry);
+    }
+
+    @Bean(name = CLASSIFICATION_SCHEDULER)
+    public ThreadPoolTaskScheduler classificationScheduler(MeterRegistry meterRegistry) {
+        return scheduler(CLASSIFICATION_SCHEDULER, 1, "classification-", meterRegistry);
+    }
+
+    @Bean(name = HEARTBEAT_SCHEDULER)
+    public ThreadPoolTaskScheduler heartbeatScheduler(@Value("${executors.heartbeat.pool-size:2}") int poolSize,
+                                                      MeterRegistry meterRegistry) {
+        return scheduler(HEARTBEAT_SCHEDULER, poolSize, "websocket-heartbeat-", meterRegistry);
+    }
+
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${executors.mail.pool-size:2}") int poolSize,
+                                               @Value("${executors.mail.queue-capacity:1000}") int queueCapacity,
+                                               MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = executor(MAIL_EXECUTOR, poolSize, queueCapacity, "mail-", meterRegistry);
+        // Mail is best effort; never push SMTP work back onto the request or job thread
+        executor.setRejectedExecutionHandler((task, pool) ->
+                logger.warn("⚠️ Mail queue full ({} pending), dropping email", pool.getQueue().size()));
+        return executor;
+    }
+
+    @Bean(name = AI_EXECUTOR)
+    public ThreadPoolTaskExecutor aiExecutor(@Value("${executors.ai.pool-size:4}") int poolSize,
+                                             @Value("${executors.ai.queue-capacity:50}") int queueCapacity,
+                                             MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = executor(AI_EXECUTOR, poolSize, queueCapacity, "ai-", meterRegistry);
+        // Rejected calls fall back to keyword classification in GeminiAIService
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String name, int poolSize, String threadNamePrefix,
+                                                     MeterRegistry meterRegistry) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setTaskDecorator(new MeteredTaskDecorator(name, false, meterRegistry));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    private static ThreadPoolTaskExecutor executor(String name, int poolSize, int queueCapacity, String threadNamePrefix,
+                                                   MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setTaskDecorator(new CompositeTaskDecorator(List.of(
+                new ContextPropagatingTaskDecorator(), new MeteredTaskDecorator(name, true, meterRegistry))));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ticket.desk_cartel.configs;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache backed by Caffeine through JCache.
+ * Every region is created here with its own size and expiry and handed to Hibernate
+ * as a ready CacheManager, so an entity annotated with an unknown region fails fast
+ * at startup (missing_cache_strategy=fail) instead of getting an unbounded cache.
+ * Hit/miss/put counts per region are published by Hibernate statistics through
+ * the actuator metrics endpoint (hibernate.second.level.cache.*, hibernate.query.cache.*).
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateCacheConfig.class);
+
+    // Region names, referenced from the @Cache annotations on the entities
+    public static final String PRIORITY_REGION = "priority";
+    public static final String CATEGORY_REGION = "category";
+    public static final String USER_REGION = "user";
+
+    // Hibernate's default query cache regions
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${cache.hibernate.reference.ttl-minutes:60}")
+    private long referenceTtlMinutes;
+
+    @Value("${cache.hibernate.entity.max-entries:10000}")
+    private long entityMaxEntries;
+
+    @Value("${cache.hibernate.entity.ttl-minutes:10}")
+    private long entityTtlMinutes;
+
+    @Value("${cache.hibernate.query.max-entries:2000}")
+    private long queryMaxEntries;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        // Priorities and categories are a handful of rows edited by admins only
+        cacheManager.createCache(PRIORITY_REGION, region(1000, referenceTtlMinutes));
+        cacheManager.createCache(CATEGORY_REGION, region(1000, referenceTtlMinutes));
+        cacheManager.createCache(USER_REGION, region(entityMaxEntries, entityTtlMinutes));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryMaxEntries, entityTtlMinutes));
+
+        // One entry per table; must never expire before the query results that depend on it
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<Object, Object>());
+
+        logger.info("✅ Hibernate second-level cache regions created: {}", cacheManager.getCacheNames());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, long ttlMinutes) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        return configuration;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ticket.desk_cartel.configs;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that lets at most eventsPerSecond INFO/DEBUG events per second through
+ * for each logger under the configured names, and drops the rest before they are formatted.
+ * Meant for per-message and per-ticket lines on the chat and assignment paths; WARN and ERROR
+ * always pass. Dropped events are counted as logging.events.suppressed, tagged by logger.
+ * Configured in logback-spring.xml:
+ *
+ * <pre>
+ * &lt;turboFilter class="com.ticket.desk_cartel.configs.LogRateLimitFilter"&gt;
+ *     &lt;loggers&gt;com.ticket.desk_cartel.controllers.ChatController,...&lt;/loggers&gt;
+ *     &lt;eventsPerSecond&gt;20&lt;/eventsPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogRateLimitFilter extends TurboFilter {
+
+    private static final Window UNLIMITED = new Window();
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private List<String> loggers = List.of();
+    private int eventsPerSecond = 20;
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; disabled levels are dropped by logback anyway
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), this::windowFor);
+        if (window == UNLIMITED || window.tryAcquire(System.currentTimeMillis() / 1000, eventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Created by logback before the context starts, so it cannot be given the MeterRegistry;
+        // Boot adds its registry to the global one
+        Metrics.counter("logging.events.suppressed", "logger", logger.getName()).increment();
+        return FilterReply.DENY;
+    }
+
+    private Window windowFor(String loggerName) {
+        boolean limited = loggers.stream()
+                .anyMatch(name -> loggerName.equals(name) || loggerName.startsWith(name + "."));
+        return limited ? new Window() : UNLIMITED;
+    }
+
+    /**
+     * Events let through in the current one-second window of one logger.
+     */
+    private static final class Window {
+
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ticket.desk_cartel.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long tasks wait in an executor's queue and how long they run,
+ * tagged with the pool name (executor.task.wait / executor.task.duration).
+ * Queue depth and pool usage are published separately by the actuator's
+ * executor metrics (executor.queued, executor.active, ...).
+ */
+public class MeteredTaskDecorator implements TaskDecorator {
+
+    private final Timer waitTimer;
+    private final Timer durationTimer;
+
+    /**
+     * @param pool the pool name used as the metric tag
+     * @param recordWait false for schedulers, where a periodic task is decorated once
+     *                   and its submit time says nothing about queueing
+     * @param meterRegistry the registry the timers are registered with
+     */
+    public MeteredTaskDecorator(String pool, boolean recordWait, MeterRegistry meterRegistry) {
+        this.waitTimer = recordWait
+                ? Timer.builder("executor.task.wait").tag("name", pool).register(meterRegistry)
+                : null;
+        this.durationTimer = Timer.builder("executor.task.duration").tag("name", pool).register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            if (waitTimer != null) {
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+            }
+            try {
+                runnable.run();
+            } finally {
+                durationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
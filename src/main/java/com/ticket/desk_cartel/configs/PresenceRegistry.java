@@ -0,0 +1,167 @@
+package com.ticket.desk_cartel.configs;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the WebSocket sessions connected to this node.
+ * Keeps a username -> sessions index and a sessionId -> session index so that
+ * connect, disconnect and lookups are O(1), and a user with several tabs open
+ * stays online until the last session closes.
+ * Iteration methods walk the live maps (weakly consistent) instead of copying them.
+ */
+@Component
+public class PresenceRegistry {
+
+    private final ConcurrentHashMap<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SessionPresence> sessionsById = new ConcurrentHashMap<>();
+
+    public PresenceRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.sessions.active", sessionsById, Map::size)
+                .description("WebSocket sessions connected to this node")
+                .register(meterRegistry);
+        Gauge.builder("websocket.users.online", sessionsByUser, Map::size)
+                .description("Users with at least one session on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a connected session.
+     * @param sessionId The STOMP session id
+     * @param username The authenticated username
+     */
+    public void register(String sessionId, String username) {
+        if (sessionId == null || username == null) {
+            return;
+        }
+
+        SessionPresence previous = sessionsById.put(sessionId, new SessionPresence(sessionId, username));
+        if (previous != null && !previous.getUsername().equals(username)) {
+            removeUserSession(previous.getUsername(), sessionId);
+        }
+
+        sessionsByUser.compute(username, (user, sessions) -> {
+            Set<String> result = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            result.add(sessionId);
+            return result;
+        });
+    }
+
+    /**
+     * Remove a disconnected session.
+     * @param sessionId The STOMP session id
+     * @return The username the session belonged to, or null if it was unknown
+     */
+    public String unregister(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        SessionPresence presence = sessionsById.remove(sessionId);
+        if (presence == null) {
+            return null;
+        }
+
+        removeUserSession(presence.getUsername(), sessionId);
+        return presence.getUsername();
+    }
+
+    /**
+     * Record activity (any inbound frame, including heartbeats) on a session.
+     */
+    public void touch(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        SessionPresence presence = sessionsById.get(sessionId);
+        if (presence != null) {
+            presence.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    public boolean isOnline(String username) {
+        return username != null && sessionsByUser.containsKey(username);
+    }
+
+    /**
+     * @return The session ids of a user (read-only view), empty if offline
+     */
+    public Set<String> getSessions(String username) {
+        Set<String> sessions = username != null ? sessionsByUser.get(username) : null;
+        return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptySet();
+    }
+
+    public SessionPresence getSession(String sessionId) {
+        return sessionId != null ? sessionsById.get(sessionId) : null;
+    }
+
+    /**
+     * @return A read-only live view of the usernames with at least one session
+     */
+    public Set<String> getOnlineUsers() {
+        return Collections.unmodifiableSet(sessionsByUser.keySet());
+    }
+
+    public int getSessionCount() {
+        return sessionsById.size();
+    }
+
+    public int getUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public void forEachUser(Consumer<String> action) {
+        sessionsByUser.keySet().forEach(action);
+    }
+
+    public void forEachSession(Consumer<SessionPresence> action) {
+        sessionsById.values().forEach(action);
+    }
+
+    private void removeUserSession(String username, String sessionId) {
+        sessionsByUser.computeIfPresent(username, (user, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * A single connected session.
+     */
+    public static final class SessionPresence {
+        private final String sessionId;
+        private final String username;
+        private final long connectedAt;
+        private volatile long lastSeen;
+
+        SessionPresence(String sessionId, String username) {
+            this.sessionId = sessionId;
+            this.username = username;
+            this.connectedAt = System.currentTimeMillis();
+            this.lastSeen = connectedAt;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public long getConnectedAt() {
+            return connectedAt;
+        }
+
+        public long getLastSeen() {
+            return lastSeen;
+        }
+    }
+}
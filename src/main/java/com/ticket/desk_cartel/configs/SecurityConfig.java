@@ -50,6 +50,11 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui.html").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
+                        // Health checks and Prometheus scrapes carry no JWT. Actuator is only served on
+                        // management.server.port, which is bound to loopback unless set to an internal address
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Log levels and the other actuator endpoints can be changed or read by admins only
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         
                         // Public category endpoint for ticket creation
                         //.requestMatchers("/api/categories/active").permitAll()
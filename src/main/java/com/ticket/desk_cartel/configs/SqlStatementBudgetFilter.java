@@ -0,0 +1,83 @@
+package com.ticket.desk_cartel.configs;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each HTTP request issues (see SqlStatementTracker) and records them per
+ * endpoint as sql.request.statements and sql.request.time, tagged like http.server.requests.
+ * Logs a warning when a request goes over sql.budget.statements-per-request, or runs one statement
+ * more than sql.budget.repeated-statement times (likely N+1 loading).
+ * Work handed to other threads (mail, AI, schedulers) is not counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql.budget.statements-per-request:25}")
+    private int statementBudget;
+
+    @Value("${sql.budget.repeated-statement:5}")
+    private int repeatedStatementBudget;
+
+    public SqlStatementBudgetFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                record(request, scope);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementTracker.Scope scope) {
+        // Set by Spring MVC once a handler matched; keeps one time series per endpoint, not per id
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.statements());
+        Timer.builder("sql.request.time")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.executionNanos(), TimeUnit.NANOSECONDS);
+
+        if (scope.statements() > statementBudget) {
+            logger.warn("⚠️ {} {} issued {} SQL statements (budget {}), {} ms in JDBC",
+                    method, uri, scope.statements(), statementBudget, TimeUnit.NANOSECONDS.toMillis(scope.executionNanos()));
+        }
+        scope.mostRepeated()
+                .filter(entry -> entry.getValue() > repeatedStatementBudget)
+                .ifPresent(entry -> logger.warn("⚠️ {} {} ran the same statement {} times, possible N+1: {}",
+                        method, uri, entry.getValue(), entry.getKey()));
+    }
+}
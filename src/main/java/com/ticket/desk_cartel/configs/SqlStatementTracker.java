@@ -0,0 +1,127 @@
+package com.ticket.desk_cartel.configs;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts the SQL statements Hibernate issues on the current thread while a {@link Scope} is open.
+ * The statement inspector sees every statement's SQL (parameters are '?', so the N+1 pattern shows
+ * up as the same text repeated) and a session event listener adds up the JDBC execution time.
+ * SqlStatementBudgetFilter opens a scope per HTTP request; tests open one through SqlStatementAssertions.
+ * Outside a scope both hooks do nothing.
+ */
+@Component
+public class SqlStatementTracker implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start counting on this thread. Closing the scope restores the one that was open before, if any.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        // Hibernate creates one listener per session through the no-arg constructor
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ExecutionListener.class.getName());
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.countsBySql.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    /**
+     * Statements seen on one thread between open() and close().
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope previous;
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+        private int statements;
+        private long executionNanos;
+
+        private Scope(Scope previous) {
+            this.previous = previous;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long executionNanos() {
+            return executionNanos;
+        }
+
+        /**
+         * The statement issued most often, with its count; repeated selects are the usual sign of N+1 loading.
+         */
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return countsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                previous.statements += statements;
+                previous.executionNanos += executionNanos;
+                countsBySql.forEach((sql, count) -> previous.countsBySql.merge(sql, count, Integer::sum));
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Adds JDBC execution time to the open scope. Public for Hibernate, which instantiates it.
+     */
+    public static class ExecutionListener implements SessionEventListener {
+
+        private long started;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            started = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            started = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record();
+        }
+
+        private void record() {
+            Scope scope = CURRENT.get();
+            if (scope != null) {
+                scope.executionNanos += System.nanoTime() - started;
+            }
+        }
+    }
+}
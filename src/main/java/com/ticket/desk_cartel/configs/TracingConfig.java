@@ -0,0 +1,24 @@
+package com.ticket.desk_cartel.configs;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Span export without a collector. Spans come from Micrometer observations bridged to
+ * OpenTelemetry: HTTP requests, STOMP handlers and @Observed services, scheduled jobs,
+ * JDBC queries and Gemini calls. Boot adds an OTLP exporter when
+ * management.otlp.tracing.endpoint is set; this one writes each span as an OTLP JSON line,
+ * which logback-spring.xml sends to logs/traces.jsonl.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+    public SpanExporter fileSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
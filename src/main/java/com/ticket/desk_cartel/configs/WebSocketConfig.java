@@ -2,14 +2,20 @@ package com.ticket.desk_cartel.configs;
 
 import com.ticket.desk_cartel.security.JwtUtil;
 import com.ticket.desk_cartel.security.JwtHandshakeInterceptor;
+import com.ticket.desk_cartel.security.TicketSubscriptionInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,10 +29,54 @@ import org.springframework.web.socket.server.support.HttpSessionHandshakeInterce
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtUtil jwtUtil;
+    private final TicketSubscriptionInterceptor ticketSubscriptionInterceptor;
+    private final PresenceRegistry presenceRegistry;
+    private final TaskScheduler heartbeatScheduler;
     private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
 
-    public WebSocketConfig(JwtUtil jwtUtil) {
+    // Relay-mode topics between nodes: user messages for sessions on another node, and the
+    // shared user registry. Closed to clients by TicketSubscriptionInterceptor
+    public static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+    public static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+
+    // "simple" keeps the in-memory broker (single node), "relay" forwards to an external
+    // STOMP broker (RabbitMQ/ActiveMQ) so several nodes can run behind a load balancer
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.virtual-host:/}")
+    private String relayVirtualHost;
+
+    @Value("${chat.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${chat.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${chat.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${chat.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    // Same switch as Tomcat's request threads; when on, the STOMP inbound and outbound
+    // channels dispatch each message on its own virtual thread instead of a bounded pool
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public WebSocketConfig(JwtUtil jwtUtil, TicketSubscriptionInterceptor ticketSubscriptionInterceptor,
+                           PresenceRegistry presenceRegistry,
+                           @Qualifier(ExecutorConfig.HEARTBEAT_SCHEDULER) TaskScheduler heartbeatScheduler) {
         this.jwtUtil = jwtUtil;
+        this.ticketSubscriptionInterceptor = ticketSubscriptionInterceptor;
+        this.presenceRegistry = presenceRegistry;
+        this.heartbeatScheduler = heartbeatScheduler;
     }
 
     @Override
@@ -68,10 +118,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Enable simple in-memory broker for topic and queue destinations with heartbeat
-        registry.enableSimpleBroker("/topic", "/queue")
-            .setHeartbeatValue(new long[] {10000, 10000}) // Set broker heartbeat - server sends every 10s, expects from client every 10s
-            .setTaskScheduler(taskScheduler());
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Relay topic and queue destinations to the external broker. Messages for
+            // users connected to another node are resolved through the broadcast
+            // destinations, and the user registry is shared between nodes.
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setVirtualHost(relayVirtualHost)
+                .setClientLogin(relayClientLogin)
+                .setClientPasscode(relayClientPasscode)
+                .setSystemLogin(relaySystemLogin)
+                .setSystemPasscode(relaySystemPasscode)
+                .setSystemHeartbeatSendInterval(10000)
+                .setSystemHeartbeatReceiveInterval(10000)
+                .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+            logger.info("✅ STOMP broker relay enabled against {}:{}", relayHost, relayPort);
+        } else {
+            // Enable simple in-memory broker for topic and queue destinations with heartbeat
+            registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[] {10000, 10000}) // Set broker heartbeat - server sends every 10s, expects from client every 10s
+                .setTaskScheduler(heartbeatScheduler);
+        }
         
         // Set prefix for client-to-server messages
         registry.setApplicationDestinationPrefixes("/app");
@@ -79,26 +148,34 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Set prefix for user-specific destinations
         registry.setUserDestinationPrefix("/user");
         
+        if (virtualThreads) {
+            // One thread per message no longer keeps a session's messages in order by accident
+            registry.setPreservePublishOrder(true);
+        }
+        
         logger.info("✅ WebSocket message broker configured");
     }
 
-    /**
-     * Configure a task scheduler for broker heartbeats
-     */
-    private org.springframework.scheduling.TaskScheduler taskScheduler() {
-        org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler scheduler = 
-            new org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(1);
-        scheduler.setThreadNamePrefix("websocket-heartbeat-thread-");
-        scheduler.initialize();
-        return scheduler;
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            // Handlers block on JDBC and SMTP; virtual threads release their carrier while waiting
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+        
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                // Any inbound frame (including client heartbeats) counts as activity
+                presenceRegistry.touch(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+                
                 StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
                 if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
                     // Log headers for debugging
@@ -147,7 +224,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 }
                 return message;
             }
-        });
+        }, ticketSubscriptionInterceptor); // Runs after the principal is resolved on CONNECT
     }
 }
 
@@ -3,7 +3,6 @@ package com.ticket.desk_cartel.configs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
@@ -12,16 +11,15 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.HashMap;
 
 @Component
 public class WebSocketEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketEventListener.class);
     
-    // Map to track active WebSocket sessions by username
-    private static final Map<String, String> userSessionMap = new ConcurrentHashMap<>();
+    // Tracks every session of every connected user on this node
+    @Autowired
+    private PresenceRegistry presenceRegistry;
     
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
@@ -48,53 +46,41 @@ public class WebSocketEventListener {
         }
         
         Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
-        logger.info("🌐 Session attributes: {}", sessionAttributes);
-        logger.info("🌐 Message headers: {}", headerAccessor.getMessageHeaders());
+        logger.debug("🌐 Session attributes: {}", sessionAttributes);
         
-        // Check if Principal is set
+        // Prefer the Principal, fall back to the username stored during the handshake
+        String username = null;
         if (headerAccessor.getUser() != null) {
-            String username = headerAccessor.getUser().getName();
-            if (username != null && !username.isEmpty()) {
-                logger.info("🌐 Principal found in header: {}", username);
-                userSessionMap.put(username, sessionId);
-                logger.info("🌐 User connected: {} with session ID: {}", username, sessionId);
-                logger.info("🌐 Active WebSocket sessions: {}", userSessionMap);
-                
-                // Send a test message to the user
-                try {
-                    logger.info("🌐 Attempting to send test message to user: {}", username);
-                    messagingTemplate.convertAndSendToUser(
-                        username,
-                        "/queue/private-messages",
-                        Map.of(
-                            "senderUsername", "SYSTEM",
-                            "messageContent", "Connected successfully! Your private messages will appear here."
-                        )
-                    );
-                    logger.info("🌐 Test message sent successfully");
-                } catch (Exception e) {
-                    logger.error("🌐 Error sending test message", e);
-                }
-            } else {
-                logger.warn("⚠️ Principal username is null or empty");
-            }
+            username = headerAccessor.getUser().getName();
+            logger.info("🌐 Principal found in header: {}", username);
+        } else if (sessionAttributes != null && sessionAttributes.get("username") != null) {
+            username = (String) sessionAttributes.get("username");
+            logger.info("🌐 Username found in session attributes: {}", username);
         }
-
-        // Only try to get username from session attributes if they exist
-        if (sessionAttributes != null) {
-            Object rawUsername = sessionAttributes.get("username");
-            
-            if (rawUsername != null) {
-                String username = (String) rawUsername;
-                userSessionMap.put(username, sessionId);
-                logger.info("🌐 User connected from session attributes: {} with session ID: {}", username, sessionId);
-                logger.info("🌐 Active WebSocket sessions: {}", userSessionMap);
-            } else {
-                logger.warn("⚠️ Connected session without username: {}", sessionId);
-                logger.warn("⚠️ Session attributes may not be properly set during handshake");
-            }
-        } else {
-            logger.warn("⚠️ Session attributes are null for session: {}", sessionId);
+        
+        if (username == null || username.isEmpty()) {
+            logger.warn("⚠️ Connected session without username: {}", sessionId);
+            logger.warn("⚠️ Session attributes may not be properly set during handshake");
+            return;
+        }
+        
+        presenceRegistry.register(sessionId, username);
+        logger.info("🌐 User connected: {} with session ID: {} ({} sessions for this user, {} total)", 
+            username, sessionId, presenceRegistry.getSessions(username).size(), presenceRegistry.getSessionCount());
+        
+        // Send a test message to the user
+        try {
+            messagingTemplate.convertAndSendToUser(
+                username,
+                "/queue/private-messages",
+                Map.of(
+                    "senderUsername", "SYSTEM",
+                    "messageContent", "Connected successfully! Your private messages will appear here."
+                )
+            );
+            logger.debug("🌐 Test message sent successfully");
+        } catch (Exception e) {
+            logger.error("🌐 Error sending test message", e);
         }
     }
     
@@ -105,40 +91,15 @@ public class WebSocketEventListener {
             return;
         }
         
-        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        if (headerAccessor == null) {
-            logger.warn("⚠️ Could not extract StompHeaderAccessor from disconnect event");
-            return;
-        }
-        
-        String sessionId = headerAccessor.getSessionId();
+        String sessionId = event.getSessionId();
         if (sessionId == null) {
             logger.warn("⚠️ Disconnect session ID is null");
             return;
         }
         
-        // Find and remove the username associated with this session
-        userSessionMap.entrySet().removeIf(entry -> sessionId.equals(entry.getValue()));
+        String username = presenceRegistry.unregister(sessionId);
         
-        logger.info("🌐 Session disconnected: {}", sessionId);
-        logger.info("🌐 Remaining active WebSocket sessions: {}", userSessionMap);
-    }
-    
-    // Utility method to get session ID by username
-    public static String getSessionId(String username) {
-        return username != null ? userSessionMap.get(username) : null;
-    }
-    
-    // Utility method to check if a user is connected
-    public static boolean isUserConnected(String username) {
-        return username != null && userSessionMap.containsKey(username);
-    }
-    
-    // Utility method to get all active session information for debugging
-    public static Map<String, Object> getActiveSessionsInfo() {
-        Map<String, Object> sessionsInfo = new HashMap<>();
-        sessionsInfo.put("sessionCount", userSessionMap.size());
-        sessionsInfo.put("activeSessions", new HashMap<>(userSessionMap)); // Create copy to avoid modification issues
-        return sessionsInfo;
+        logger.info("🌐 Session disconnected: {} (user {}), {} sessions remaining", 
+            sessionId, username, presenceRegistry.getSessionCount());
     }
-} 
\ No newline at end of file
+}
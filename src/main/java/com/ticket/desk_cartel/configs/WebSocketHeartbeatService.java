@@ -1,9 +1,9 @@
 package com.ticket.desk_cartel.configs;
 
+import com.ticket.desk_cartel.services.SerializedPayloadSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -22,54 +22,43 @@ public class WebSocketHeartbeatService {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketHeartbeatService.class);
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private SerializedPayloadSender payloadSender;
+    
+    @Autowired
+    private PresenceRegistry presenceRegistry;
     
     /**
      * Send a heartbeat to all connected users every 50 seconds
      * This helps keep connections alive, especially with proxies that might
      * close idle connections.
+     * Runs on every node (no scheduler lease): each node only serves the sessions connected to it.
      */
-    @Scheduled(fixedRate = 50000)
+    @Scheduled(fixedRate = 50000, scheduler = ExecutorConfig.HEARTBEAT_SCHEDULER)
     public void sendHeartbeatToAll() {
-        // Get all currently connected users
-        Map<String, Object> sessionInfo = WebSocketEventListener.getActiveSessionsInfo();
-        Map<String, String> activeSessions = (Map<String, String>) sessionInfo.get("activeSessions");
-        
-        if (activeSessions == null || activeSessions.isEmpty()) {
+        if (presenceRegistry.getUserCount() == 0) {
             logger.debug("No active sessions for heartbeat");
             return;
         }
         
-        logger.debug("Sending heartbeat to {} active users", activeSessions.size());
+        logger.debug("Sending heartbeat to {} active users", presenceRegistry.getUserCount());
         
-        // Send a heartbeat message to each connected user
-        for (String username : activeSessions.keySet()) {
-            try {
-                // Create a lightweight heartbeat message
-                Map<String, Object> heartbeat = new HashMap<>();
-                heartbeat.put("type", "heartbeat");
-                heartbeat.put("timestamp", System.currentTimeMillis());
-                
-                // Send to user's heartbeat channel
-                messagingTemplate.convertAndSendToUser(
-                    username,
-                    "/queue/heartbeat",
-                    heartbeat
-                );
-            } catch (Exception e) {
-                logger.warn("Failed to send heartbeat to user {}: {}", username, e.getMessage());
-            }
-        }
+        // Create a lightweight heartbeat message, serialized once for all users
+        Map<String, Object> heartbeat = new HashMap<>();
+        heartbeat.put("type", "heartbeat");
+        heartbeat.put("timestamp", System.currentTimeMillis());
+        byte[] payload = payloadSender.serialize(heartbeat);
+        
+        // Send to each user's heartbeat channel
+        // Iterates the live registry view; no copy of the session map is made
+        payloadSender.sendToUsers(presenceRegistry.getOnlineUsers(), "/queue/heartbeat", payload);
     }
     
     /**
      * Periodically log connection statistics
      */
-    @Scheduled(fixedRate = 300000) // Every 5 minutes
+    @Scheduled(fixedRate = 300000, scheduler = ExecutorConfig.HEARTBEAT_SCHEDULER) // Every 5 minutes
     public void logConnectionStatistics() {
-        Map<String, Object> sessionInfo = WebSocketEventListener.getActiveSessionsInfo();
-        int sessionCount = (int) sessionInfo.get("sessionCount");
-        
-        logger.info("WebSocket connection statistics: {} active sessions", sessionCount);
+        logger.info("WebSocket connection statistics: {} active sessions for {} users", 
+            presenceRegistry.getSessionCount(), presenceRegistry.getUserCount());
     }
 } 
\ No newline at end of file
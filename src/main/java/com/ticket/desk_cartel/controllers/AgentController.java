@@ -1,5 +1,6 @@
 package com.ticket.desk_cartel.controllers;
 
+import com.ticket.desk_cartel.dto.AgentStatsDTO;
 import com.ticket.desk_cartel.dto.PriorityDTO;
 import com.ticket.desk_cartel.entities.Agent;
 import com.ticket.desk_cartel.entities.AgentLevel;
@@ -7,6 +8,7 @@ import com.ticket.desk_cartel.entities.Priority;
 import com.ticket.desk_cartel.entities.Ticket;
 import com.ticket.desk_cartel.mappers.PriorityMapper;
 import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.services.AgentLeaderboard;
 import com.ticket.desk_cartel.services.AgentService;
 import com.ticket.desk_cartel.services.NotificationService;
 import com.ticket.desk_cartel.services.PriorityService;
@@ -16,7 +18,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,9 @@ public class AgentController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private AgentLeaderboard agentLeaderboard;
+
     @Autowired
     public AgentController(AgentService agentService, TicketService ticketService, PriorityService priorityService, PriorityMapper priorityMapper) {
         this.agentService = agentService;
@@ -129,14 +133,8 @@ public class AgentController {
         }
         
         // For deactivation, verify tickets were actually reassigned
+        // (the reassignment listener has already run when setAgentActiveStatus returns)
         if (!active) {
-            // Give a small delay for ticket reassignment
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
             // Check if tickets were actually reassigned
             List<Ticket> remainingTickets = ticketService.getTicketsByAgent(id);
             int ticketsReassigned = ticketCountBefore - remainingTickets.size();
@@ -176,33 +174,27 @@ public class AgentController {
      */
     @GetMapping("${api.agent.stats}")
     public ResponseEntity<Map<String, Object>> getAgentStats(@PathVariable Long id) {
-        Optional<Agent> agentOpt = agentService.getAgentById(id);
-        if (agentOpt.isEmpty()) {
+        Optional<AgentStatsDTO> agentStats = agentService.getAgentStats(id);
+        if (agentStats.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        Agent agent = agentOpt.get();
-        List<Ticket> agentTickets = ticketService.getTicketsByAgent(id);
-        
-        long completedTickets = agent.getCompletedTickets();
-        long assignedTickets = agentTickets.size();
-        long ongoingTickets = agentTickets.stream()
-                .filter(t -> t.getStatus() == com.ticket.desk_cartel.entities.Status.ONGOING)
-                .count();
+        AgentStatsDTO agent = agentStats.get();
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("agentId", agent.getId());
-        stats.put("name", agent.getUser().getUsername());
-        stats.put("level", agent.getLevel());
-        stats.put("baseCapacity", agent.getBaseCapacity());
-        stats.put("totalCapacity", agent.getTotalCapacity());
-        stats.put("currentWorkload", agent.getCurrentWorkload());
-        stats.put("completedTickets", completedTickets);
-        stats.put("assignedTickets", assignedTickets);
-        stats.put("ongoingTickets", ongoingTickets);
-        stats.put("availableCapacity", agent.getTotalCapacity() - agent.getCurrentWorkload());
-        stats.put("nextLevelAt", agent.getLevel() != AgentLevel.SENIOR 
-                ? AgentLevel.calculateLevel(agent.getCompletedTickets() + 1).getMinTickets()
+        stats.put("agentId", agent.agentId());
+        stats.put("name", agent.name());
+        stats.put("level", agent.level());
+        stats.put("baseCapacity", agent.baseCapacity());
+        stats.put("totalCapacity", agent.totalCapacity());
+        stats.put("currentWorkload", agent.currentWorkload());
+        stats.put("completedTickets", (long) agent.completedTickets());
+        stats.put("assignedTickets", agent.assignedTickets());
+        stats.put("ongoingTickets", agent.ongoingTickets());
+        stats.put("ticketsByStatus", agent.ticketsByStatus());
+        stats.put("availableCapacity", agent.availableCapacity());
+        stats.put("nextLevelAt", agent.level() != AgentLevel.SENIOR 
+                ? AgentLevel.calculateLevel(agent.completedTickets() + 1).getMinTickets()
                 : "Max level reached");
         
         return ResponseEntity.ok(stats);
@@ -211,32 +203,55 @@ public class AgentController {
     /**
      * Get agent leaderboard ranked by performance points.
      * 
-     * @return List of agents sorted by total performance points
+     * @param window all-time (default), weekly or monthly
+     * @param page 0-based page, used with size
+     * @param size rows per page; all agents when omitted
+     * @return agents sorted by performance points in the window, with their rank
      */
     @GetMapping("${api.agent.leader}")
-    public ResponseEntity<List<Map<String, Object>>> getAgentLeaderboard() {
-        List<Agent> allAgents = agentService.getAllAgents();
-        
-        // Sort agents by performance points (highest first)
-        List<Agent> sortedAgents = allAgents.stream()
-                .sorted(Comparator.comparing(Agent::getTotalPerformancePoints).reversed())
-                .toList();
-        
-        // Convert to a simplified format for the leaderboard
-        List<Map<String, Object>> leaderboard = sortedAgents.stream()
-                .map(agent -> {
-                    Map<String, Object> entry = new HashMap<>();
-                    entry.put("agentId", agent.getId());
-                    entry.put("name", agent.getUser().getUsername());
-                    entry.put("level", agent.getLevel());
-                    entry.put("totalPoints", agent.getTotalPerformancePoints());
-                    entry.put("completedTickets", agent.getCompletedTickets());
-                    entry.put("rank", sortedAgents.indexOf(agent) + 1);
-                    return entry;
-                })
-                .toList();
-        
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<List<AgentLeaderboard.Standing>> getAgentLeaderboard(
+            @RequestParam(defaultValue = "all-time") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        AgentLeaderboard.Window leaderboardWindow;
+        try {
+            leaderboardWindow = AgentLeaderboard.Window.of(window);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = size != null ? size : Math.max(1, agentLeaderboard.size(leaderboardWindow));
+        if (page < 0 || pageSize < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(agentLeaderboard.page(leaderboardWindow, page, pageSize));
+    }
+
+    /**
+     * Get one agent's leaderboard rank.
+     * 
+     * @param id Agent ID
+     * @param window all-time (default), weekly or monthly
+     * @return the agent's rank and points, and the number of ranked agents
+     */
+    @GetMapping("${api.agent.rank}")
+    public ResponseEntity<Map<String, Object>> getAgentRank(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "all-time") String window) {
+        AgentLeaderboard.Window leaderboardWindow;
+        try {
+            leaderboardWindow = AgentLeaderboard.Window.of(window);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<AgentLeaderboard.Standing> standing = agentLeaderboard.rankOf(leaderboardWindow, id);
+        if (standing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("agentId", id);
+        result.put("rank", standing.get().rank());
+        result.put("totalPoints", standing.get().totalPoints());
+        result.put("agents", agentLeaderboard.size(leaderboardWindow));
+        return ResponseEntity.ok(result);
     }
 
 
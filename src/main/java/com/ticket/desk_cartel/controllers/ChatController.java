@@ -2,28 +2,40 @@ package com.ticket.desk_cartel.controllers;
 
 import com.ticket.desk_cartel.dto.ChatMessageDTO;
 import com.ticket.desk_cartel.entities.ChatMessage;
+import com.ticket.desk_cartel.services.ChatHistoryCache;
 import com.ticket.desk_cartel.services.ChatService;
+import com.ticket.desk_cartel.services.SerializedPayloadSender;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.ticket.desk_cartel.security.JwtUtil;
-import com.ticket.desk_cartel.configs.WebSocketEventListener;
+import com.ticket.desk_cartel.security.TicketAccessEvaluator;
+import com.ticket.desk_cartel.security.TicketSubscriptionInterceptor;
+import com.ticket.desk_cartel.configs.PresenceRegistry;
 import java.security.Principal;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController  // Use @RestController for both WebSocket and REST API
 @RequestMapping("${api.chat.base-url}")
@@ -35,15 +47,37 @@ public class ChatController {
     private final ChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
     private final JwtUtil jwtUtil;
+    private final TicketAccessEvaluator ticketAccessEvaluator;
+    private final SerializedPayloadSender payloadSender;
+    private final ChatHistoryCache chatHistoryCache;
+    // Cluster-wide in relay mode (shared through the user registry broadcast), local otherwise
+    private final SimpUserRegistry simpUserRegistry;
+    private final PresenceRegistry presenceRegistry;
+    
+    private final Timer ticketBroadcastTimer;
+    private final Timer publicBroadcastTimer;
 
-    public ChatController(ChatService chatService, SimpMessagingTemplate messagingTemplate, JwtUtil jwtUtil) {
+    public ChatController(ChatService chatService, SimpMessagingTemplate messagingTemplate, JwtUtil jwtUtil,
+                          TicketAccessEvaluator ticketAccessEvaluator, SerializedPayloadSender payloadSender,
+                          ChatHistoryCache chatHistoryCache, SimpUserRegistry simpUserRegistry,
+                          PresenceRegistry presenceRegistry, MeterRegistry meterRegistry) {
         this.chatService = chatService;
         this.messagingTemplate = messagingTemplate;
         this.jwtUtil = jwtUtil;
+        this.ticketAccessEvaluator = ticketAccessEvaluator;
+        this.payloadSender = payloadSender;
+        this.chatHistoryCache = chatHistoryCache;
+        this.simpUserRegistry = simpUserRegistry;
+        this.presenceRegistry = presenceRegistry;
+        this.ticketBroadcastTimer = Timer.builder("chat.message.broadcast")
+                .tag("topic", "ticket").register(meterRegistry);
+        this.publicBroadcastTimer = Timer.builder("chat.message.broadcast")
+                .tag("topic", "public").register(meterRegistry);
     }
 
     // 🌍 Chat for Tickets - Only visible to client, agent, and admins
     @MessageMapping("/chat")
+    @Observed(name = "chat.stomp", contextualName = "stomp /chat", lowCardinalityKeyValues = {"destination", "/chat"})
     public void sendMessage(@Payload ChatMessageDTO chatMessageDTO, StompHeaderAccessor accessor, Principal principal) {
         String username;
         
@@ -75,13 +109,24 @@ public class ChatController {
         // Check if this is a ticket chat (should have a ticketId)
         if (chatMessageDTO.getTicketId() != null && !chatMessageDTO.getTicketId().isEmpty()) {
             String ticketId = chatMessageDTO.getTicketId();
-            logger.info("📩 Processing ticket chat message for ticket {}: {}", ticketId, chatMessageDTO);
-            logger.info("📩 Sender: {}, Receiver: {}, Content: {}, ClientMessageId: {}", 
+            logger.debug("📩 Processing ticket chat message for ticket {}: {}", ticketId, chatMessageDTO);
+            logger.debug("📩 Sender: {}, Receiver: {}, Content: {}, ClientMessageId: {}", 
                 chatMessageDTO.getSenderUsername(), 
                 chatMessageDTO.getReceiverUsername(), 
                 chatMessageDTO.getMessageContent(),
                 chatMessageDTO.getClientMessageId());
             
+            // Only the ticket owner, the assigned agent and admins may post in a ticket chat
+            if (!ticketAccessEvaluator.canAccessTicket(username, accessor.getSessionAttributes(), ticketId)) {
+                logger.warn("🚫 {} is not allowed to post in ticket {}", username, ticketId);
+                messagingTemplate.convertAndSendToUser(
+                    username,
+                    "/queue/errors",
+                    Map.of("error", "Not allowed to post in ticket " + ticketId)
+                );
+                return;
+            }
+            
             // Fix special receiver format issue - if starts with TICKET_, change to PUBLIC_CHAT
             if (chatMessageDTO.getReceiverUsername() != null && 
                 chatMessageDTO.getReceiverUsername().startsWith("TICKET_")) {
@@ -113,7 +158,7 @@ public class ChatController {
                 ChatMessage savedMessage = null;
                 try {
                     savedMessage = chatService.saveMessage(chatMessageDTO);
-                    logger.info("📩 Ticket message saved with ID {}: {}", savedMessage.getId(), savedMessage.getMessageContent());
+                    logger.debug("📩 Ticket message saved with ID {}: {}", savedMessage.getId(), savedMessage.getMessageContent());
                 } catch (Exception e) {
                     logger.error("❌ Failed to save ticket message: {}", e.getMessage(), e);
                     
@@ -166,10 +211,11 @@ public class ChatController {
 
             try {
                 ChatMessage savedMessage = chatService.saveMessage(chatMessageDTO);
-                logger.info("📩 General message saved: {}", savedMessage.getMessageContent());
+                logger.debug("📩 General message saved: {}", savedMessage.getMessageContent());
                 
                 // Send to public topic
-                messagingTemplate.convertAndSend("/topic/messages", chatMessageDTO);
+                publicBroadcastTimer.record(() ->
+                    payloadSender.send(payloadSender.serialize(chatMessageDTO), TicketSubscriptionInterceptor.PUBLIC_TOPIC));
                 logger.info("✅ Sent general message to public topic");
                 
             } catch (Exception e) {
@@ -180,100 +226,24 @@ public class ChatController {
     }
 
     /**
-     * Helper method to broadcast a ticket message to all participants
+     * Helper method to broadcast a ticket message to all participants.
+     * The message is serialized once, sent once to the ticket topic and fanned out by
+     * the broker; subscriptions are authorized by TicketSubscriptionInterceptor.
      */
     private void broadcastTicketMessage(ChatMessageDTO chatMessageDTO, String ticketId) {
+        String ticketDestination = TicketSubscriptionInterceptor.ticketTopic(ticketId);
         try {
-            // Print the complete message being sent
-            logger.info("🔎 Broadcasting message for ticket {}: {}", ticketId, chatMessageDTO);
-            logger.info("🔎 Message data - Content: '{}', Sender: {}, Receiver: {}, ClientMsgId: {}", 
-                chatMessageDTO.getMessageContent(),
-                chatMessageDTO.getSenderUsername(),
-                chatMessageDTO.getReceiverUsername(),
-                chatMessageDTO.getClientMessageId());
-            
-            // Get all participants for this ticket conversation
-            Map<String, Object> ticketChatDetails = chatService.getTicketChatDetails(ticketId);
-            List<String> participants = (List<String>) ticketChatDetails.get("participants");
-            
-            // Debug the existing participants
-            logger.info("🔍 Current participants for ticket {}: {}", ticketId, participants);
-            
-            // If no participants found yet (first message), create a new list
-            if (participants == null || participants.isEmpty()) {
-                participants = new ArrayList<>();
-                logger.info("👥 No participants found for ticket {}, creating new list", ticketId);
-            }
-            
-            // Ensure current user is in participants
-            String username = chatMessageDTO.getSenderUsername();
-            if (!participants.contains(username)) {
-                participants.add(username);
-                logger.info("👤 Added sender {} to participants list", username);
-            }
-            
-            // Make sure required users are in participants list (admin and agent)
-            Set<String> requiredParticipants = new HashSet<>();
-            requiredParticipants.add("admin");
-            requiredParticipants.add("neil");  // Admin user specifically 
-            requiredParticipants.add("marie"); // Agent user
-            
-            for (String requiredUser : requiredParticipants) {
-                if (!participants.contains(requiredUser)) {
-                    participants.add(requiredUser);
-                    logger.info("👤 Added required user {} to participants list", requiredUser);
-                }
-            }
-            
-            // Create a ticket-specific topic destination
-            String ticketDestination = "/topic/ticket/" + ticketId;
-            logger.info("📩 Sending ticket message to destination: {}", ticketDestination);
-            
-            // Send message to ticket-specific topic
-            try {
-                messagingTemplate.convertAndSend(
-                    ticketDestination, 
-                    chatMessageDTO
-                );
-                logger.info("✅ Successfully sent message to topic: {}", ticketDestination);
-            } catch (Exception e) {
-                logger.error("❌ Error sending to topic {}: {}", ticketDestination, e.getMessage(), e);
-            }
-            
-            // Log what we're about to do
-            logger.info("📩 About to send ticket message to {} individual participants", participants.size());
-            
-            // Also send individually to each participant to ensure they receive it
-            // (this is a belt-and-suspenders approach)
-            for (String participant : participants) {
-                if (!participant.equals("SYSTEM") && !participant.equals("PUBLIC_CHAT")) {
-                    String userQueueDestination = "/user/" + participant + "/queue/ticket/" + ticketId;
-                    logger.info("📩 Sending ticket message to participant: {} via {}", 
-                        participant, userQueueDestination);
-                    
-                    try {
-                        messagingTemplate.convertAndSendToUser(
-                            participant,
-                            "/queue/ticket/" + ticketId,
-                            chatMessageDTO
-                        );
-                        logger.info("✅ Successfully sent to participant: {}", participant);
-                    } catch (Exception e) {
-                        logger.error("❌ Error sending to participant {}: {}", participant, e.getMessage(), e);
-                    }
-                }
-            }
-            
-            // Log success
-            logger.info("✅ Sent ticket message to {} participants for ticket {}", 
-                participants.size(), ticketId);
+            ticketBroadcastTimer.record(() ->
+                payloadSender.send(payloadSender.serialize(chatMessageDTO), ticketDestination));
+            logger.info("✅ Sent ticket message from {} to topic: {}", chatMessageDTO.getSenderUsername(), ticketDestination);
         } catch (Exception e) {
-            logger.error("❌ Error broadcasting ticket message: {}", e.getMessage(), e);
+            logger.error("❌ Error broadcasting ticket message to {}: {}", ticketDestination, e.getMessage(), e);
         }
     }
 
     // 🔒 Private Chat (Direct Messaging)
     @MessageMapping("/private-chat")
+    @Observed(name = "chat.stomp", contextualName = "stomp /private-chat", lowCardinalityKeyValues = {"destination", "/private-chat"})
     public void sendPrivateMessage(@Payload ChatMessageDTO chatMessageDTO, StompHeaderAccessor accessor, Principal principal) {
         String username;
         
@@ -296,12 +266,12 @@ public class ChatController {
         logger.info("📨 Processing private message from {} to {}", username, chatMessageDTO.getReceiverUsername());
         
         // Debug session attributes
-        logger.info("📨 WebSocket session ID: {}", accessor.getSessionId());
-        logger.info("📨 Session attributes: {}", accessor.getSessionAttributes());
+        logger.debug("📨 WebSocket session ID: {}", accessor.getSessionId());
+        logger.debug("📨 Session attributes: {}", accessor.getSessionAttributes());
         
-        // Check if recipient is connected
+        // Check if recipient is connected to any node
         String receiverUsername = chatMessageDTO.getReceiverUsername();
-        boolean isReceiverOnline = WebSocketEventListener.isUserConnected(receiverUsername);
+        boolean isReceiverOnline = receiverUsername != null && simpUserRegistry.getUser(receiverUsername) != null;
         logger.info("📨 Is recipient {} online? {}", receiverUsername, isReceiverOnline);
 
         try {
@@ -313,10 +283,10 @@ public class ChatController {
             
             // Debug destination construction
             String destination = "/user/" + chatMessageDTO.getReceiverUsername() + "/queue/private-messages";
-            logger.info("📨 Sending private message to destination: {}", destination);
+            logger.debug("📨 Sending private message to destination: {}", destination);
             
             // Debug actual payload being sent
-            logger.info("📨 Private message payload: {}", chatMessageDTO);
+            logger.debug("📨 Private message payload: {}", chatMessageDTO);
             
             // Send message to user
             messagingTemplate.convertAndSendToUser(
@@ -400,6 +370,7 @@ public class ChatController {
      * Load chat history
      */
     @MessageMapping("/load-history")
+    @Observed(name = "chat.stomp", contextualName = "stomp /load-history", lowCardinalityKeyValues = {"destination", "/load-history"})
     public void loadChatHistory(@Payload Map<String, Object> payload, StompHeaderAccessor accessor, Principal principal) {
         String username;
         Object ticketIdObj = payload != null ? payload.get("ticketId") : null;
@@ -415,29 +386,15 @@ public class ChatController {
             
         // Use a static Set to track recently processed request IDs
         if (requestId != null) {
-            // Use a synchronized block to prevent concurrent modification
-            synchronized (PROCESSED_REQUEST_IDS) {
-                if (PROCESSED_REQUEST_IDS.contains(requestId)) {
-                    logger.info("⚠️ Duplicate history request detected with ID {}, skipping", requestId);
-                    return;
-                }
-                
-                // Add to processed set and schedule removal after 10 seconds
-                PROCESSED_REQUEST_IDS.add(requestId);
-                
-                // Clean up old request IDs periodically to prevent memory leaks
-                new java.util.Timer().schedule(
-                    new java.util.TimerTask() {
-                        @Override
-                        public void run() {
-                            synchronized (PROCESSED_REQUEST_IDS) {
-                                PROCESSED_REQUEST_IDS.remove(requestId);
-                            }
-                        }
-                    }, 
-                    10000 // 10 seconds
-                );
+            // add() is atomic on the concurrent set, so no lock is held (and no virtual thread pinned)
+            if (!PROCESSED_REQUEST_IDS.add(requestId)) {
+                logger.info("⚠️ Duplicate history request detected with ID {}, skipping", requestId);
+                return;
             }
+            
+            // Forget the request ID after 10 seconds to prevent memory leaks
+            CompletableFuture.delayedExecutor(10, TimeUnit.SECONDS)
+                    .execute(() -> PROCESSED_REQUEST_IDS.remove(requestId));
         }
         
         // Get username (from Principal or session)
@@ -467,84 +424,27 @@ public class ChatController {
             if (ticketId != null && !ticketId.isEmpty()) {
                 logger.info("📄 Getting messages for ticket ID: {}", ticketId);
                 
-                // TODO: Add role-based validation here (client/agent assigned to ticket or admin)
-                
-                // Get ticket chat details with participant info using the new method
-                Map<String, Object> ticketChatDetails = chatService.getTicketChatDetails(ticketId);
-                
-                // Send ticket-specific chat history with additional metadata
-                Map<String, Object> response = Map.of(
-                    "type", "ticket",
-                    "ticketId", ticketId,
-                    "messages", ticketChatDetails.get("messages"),
-                    "participants", ticketChatDetails.get("participants"),
-                    "clientUsername", ticketChatDetails.containsKey("clientUsername") ? 
-                                    ticketChatDetails.get("clientUsername") : "",
-                    "agentUsername", ticketChatDetails.containsKey("agentUsername") ? 
-                                    ticketChatDetails.get("agentUsername") : "",
-                    "messageCount", ticketChatDetails.get("messageCount"),
-                    "requestId", requestId != null ? requestId : "" // Add requestId to response for tracking
-                );
-                
-                // Debug what we're about to send
-                logger.info("🔍 SENDING HISTORY: type=ticket, ticketId={}, messageCount={}, to user={}", 
-                    ticketId, ticketChatDetails.get("messageCount"), username);
-                
-                // Debug the exact destination we're sending to
-                String destination = "/user/" + username + "/queue/chat-history";
-                logger.info("📨 Sending to destination: {}", destination);
-                
-                if (ticketChatDetails.get("messages") != null) {
-                    List<?> messages = (List<?>) ticketChatDetails.get("messages");
-                    if (!messages.isEmpty()) {
-                        logger.info("📝 First message sample: {}", messages.get(0));
-                        if (messages.size() > 1) {
-                            logger.info("📝 Last message sample: {}", messages.get(messages.size() - 1));
-                        }
-                    }
-                }
-                
-                try {
-                    // Send using the standard simpMessagingTemplate approach
+                // Only the ticket owner, the assigned agent and admins may read the ticket chat
+                if (!ticketAccessEvaluator.canAccessTicket(username, accessor.getSessionAttributes(), ticketId)) {
+                    logger.warn("🚫 {} is not allowed to load history of ticket {}", username, ticketId);
                     messagingTemplate.convertAndSendToUser(
                         username,
-                        "/queue/chat-history",
-                        response
+                        "/queue/errors",
+                        Map.of("error", "Not allowed to load chat history of ticket " + ticketId)
                     );
-                    
-                    logger.info("✅ Sent ticket chat details via convertAndSendToUser");
-                    
-                    // Also try sending directly to the full destination path as a fallback
-                    // This ensures compatibility with different STOMP client implementations
-                    messagingTemplate.convertAndSend(
-                        "/topic/chat-history/" + ticketId,
-                        response
-                    );
-                    
-                    logger.info("✅ Also sent ticket chat details via direct topic");
-                    
-                    // Add a third fallback using session ID-based addressing, which is most reliable
-                    // when there are connection issues
-                    String sessionId = accessor.getSessionId();
-                    if (sessionId != null) {
-                        messagingTemplate.convertAndSendToUser(
-                            sessionId,
-                            "/queue/chat-history",
-                            response
-                        );
-                        logger.info("✅ Also sent ticket chat history via session ID: {}", sessionId);
-                        
-                        // Try an additional direct queue destination as a last resort
-                        messagingTemplate.convertAndSend(
-                            "/queue/chat-history-user" + sessionId,
-                            response
-                        );
-                        logger.info("✅ Also sent ticket chat history via direct queue with session ID");
-                    }
-                } catch (Exception e) {
-                    logger.error("❌ Error sending chat history: {}", e.getMessage(), e);
+                    return;
                 }
                 
+                // The serialized history is shared by every user loading this ticket until
+                // the next message is saved; only the requestId is added per request
+                byte[] frame = chatHistoryCache.getHistoryFrame(ticketId, requestId, () -> buildTicketHistory(ticketId));
+                
+                logger.info("🔍 SENDING HISTORY: type=ticket, ticketId={}, {} bytes, to user={}", 
+                    ticketId, frame.length, username);
+                
+                // History is private to the requester; live messages arrive on the ticket topic
+                payloadSender.sendToUser(username, "/queue/chat-history", frame);
+                
                 logger.info("✅ Sent ticket chat details for ticket ID {} to {}", ticketId, username);
             } else {
                 // This is a request for general chat history
@@ -637,6 +537,23 @@ public class ChatController {
         }
     }
 
+    /**
+     * Build the ticket history frame sent on /queue/chat-history (without requestId)
+     */
+    private Map<String, Object> buildTicketHistory(String ticketId) {
+        Map<String, Object> ticketChatDetails = chatService.getTicketChatDetails(ticketId);
+        
+        Map<String, Object> history = new LinkedHashMap<>();
+        history.put("type", "ticket");
+        history.put("ticketId", ticketId);
+        history.put("messages", ticketChatDetails.get("messages"));
+        history.put("participants", ticketChatDetails.get("participants"));
+        history.put("clientUsername", ticketChatDetails.getOrDefault("clientUsername", ""));
+        history.put("agentUsername", ticketChatDetails.getOrDefault("agentUsername", ""));
+        history.put("messageCount", ticketChatDetails.get("messageCount"));
+        return history;
+    }
+
     // 🔑 Test Endpoint to generate a JWT for WebSocket testing
     @GetMapping("/test-token/{username}")
     public ResponseEntity<String> generateTestToken(@PathVariable String username) {
@@ -655,7 +572,14 @@ public class ChatController {
     public ResponseEntity<Map<String, Object>> getActiveSessions() {
         try {
             Map<String, Object> debugInfo = new HashMap<>();
-            debugInfo.put("activeSessions", WebSocketEventListener.getActiveSessionsInfo());
+            Map<String, Object> sessionsInfo = new HashMap<>();
+            sessionsInfo.put("sessionCount", presenceRegistry.getSessionCount());
+            sessionsInfo.put("userCount", presenceRegistry.getUserCount());
+            Map<String, Object> activeSessions = new HashMap<>();
+            presenceRegistry.forEachUser(user -> activeSessions.put(user, presenceRegistry.getSessions(user)));
+            sessionsInfo.put("activeSessions", activeSessions);
+            debugInfo.put("activeSessions", sessionsInfo);
+            debugInfo.put("clusterUserCount", simpUserRegistry.getUserCount());
             debugInfo.put("timestamp", System.currentTimeMillis());
             return ResponseEntity.ok(debugInfo);
         } catch (Exception e) {
@@ -752,5 +676,5 @@ public class ChatController {
     }
 
     // Add a static set to track processed request IDs to prevent duplicate processing
-    private static final Set<String> PROCESSED_REQUEST_IDS = Collections.synchronizedSet(new HashSet<>());
+    private static final Set<String> PROCESSED_REQUEST_IDS = ConcurrentHashMap.newKeySet();
 }
@@ -3,8 +3,7 @@ package com.ticket.desk_cartel.controllers;
 import com.ticket.desk_cartel.entities.Category;
 import com.ticket.desk_cartel.entities.Priority;
 import com.ticket.desk_cartel.entities.Status;
-import com.ticket.desk_cartel.repositories.CategoryRepository;
-import com.ticket.desk_cartel.repositories.PriorityRepository;
+import com.ticket.desk_cartel.services.ReferenceDataCache;
 import com.ticket.desk_cartel.services.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,17 +32,14 @@ public class ReportController {
     private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
     
     private final ReportService reportService;
-    private final CategoryRepository categoryRepository;
-    private final PriorityRepository priorityRepository;
+    private final ReferenceDataCache referenceDataCache;
     
     @Autowired
     public ReportController(
             ReportService reportService,
-            CategoryRepository categoryRepository,
-            PriorityRepository priorityRepository) {
+            ReferenceDataCache referenceDataCache) {
         this.reportService = reportService;
-        this.categoryRepository = categoryRepository;
-        this.priorityRepository = priorityRepository;
+        this.referenceDataCache = referenceDataCache;
     }
     
     /**
@@ -69,9 +65,9 @@ public class ReportController {
         
         try {
             Category category = categoryId != null ? 
-                    categoryRepository.findById(categoryId).orElse(null) : null;
+                    referenceDataCache.findCategoryById(categoryId).orElse(null) : null;
             Priority priority = priorityId != null ? 
-                    priorityRepository.findById(priorityId).orElse(null) : null;
+                    referenceDataCache.findPriorityById(priorityId).orElse(null) : null;
             
             byte[] pdfContent = reportService.generateTicketsReport(category, priority, status);
             
@@ -116,9 +112,9 @@ public class ReportController {
         
         try {
             Category category = categoryId != null ? 
-                    categoryRepository.findById(categoryId).orElse(null) : null;
+                    referenceDataCache.findCategoryById(categoryId).orElse(null) : null;
             Priority priority = priorityId != null ? 
-                    priorityRepository.findById(priorityId).orElse(null) : null;
+                    referenceDataCache.findPriorityById(priorityId).orElse(null) : null;
             
             Map<String, Object> stats = reportService.calculateAverageCompletionTime(
                     category, priority, startDate, endDate);
@@ -159,9 +155,9 @@ public class ReportController {
         
         try {
             Category category = categoryId != null ? 
-                    categoryRepository.findById(categoryId).orElse(null) : null;
+                    referenceDataCache.findCategoryById(categoryId).orElse(null) : null;
             Priority priority = priorityId != null ? 
-                    priorityRepository.findById(priorityId).orElse(null) : null;
+                    referenceDataCache.findPriorityById(priorityId).orElse(null) : null;
             
             byte[] pdfContent = reportService.generateCompletionTimeReport(
                     category, priority, startDate, endDate);
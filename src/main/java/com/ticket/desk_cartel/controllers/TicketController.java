@@ -6,7 +6,7 @@ import com.ticket.desk_cartel.entities.*;
 import com.ticket.desk_cartel.services.AgentService;
 import com.ticket.desk_cartel.services.TicketService;
 import com.ticket.desk_cartel.services.PriorityService;
-import com.ticket.desk_cartel.repositories.CategoryRepository;
+import com.ticket.desk_cartel.services.ReferenceDataCache;
 import com.ticket.desk_cartel.services.VerificationTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -30,14 +30,14 @@ public class TicketController {
     private final TicketService ticketService;
     private final AgentService agentService;
     private final PriorityService priorityService;
-    private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public TicketController(TicketService ticketService,VerificationTokenService verificationTokenService,AgentService agentService, PriorityService priorityService, CategoryRepository categoryRepository) {
+    public TicketController(TicketService ticketService,VerificationTokenService verificationTokenService,AgentService agentService, PriorityService priorityService, ReferenceDataCache referenceDataCache) {
         this.ticketService = ticketService;
         this.agentService = agentService;
         this.priorityService = priorityService;
-        this.categoryRepository = categoryRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -109,7 +109,7 @@ public class TicketController {
             ) {
         // Convert IDs to objects
         Category category = (categoryId != null) ? 
-            categoryRepository.findById(categoryId).orElse(null) : null;
+            referenceDataCache.findCategoryById(categoryId).orElse(null) : null;
         
         Priority priority = (priorityId != null) ?
             priorityService.getPriorityById(priorityId) : null;
@@ -166,7 +166,7 @@ public class TicketController {
         // Get the category from database
         Category category = null;
         try {
-            category = categoryRepository.findById(ticketDTO.getCategoryId())
+            category = referenceDataCache.findCategoryById(ticketDTO.getCategoryId())
                 .orElseThrow(() -> new Exception("Category not found"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
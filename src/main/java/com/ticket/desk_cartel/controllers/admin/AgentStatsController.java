@@ -0,0 +1,38 @@
+package com.ticket.desk_cartel.controllers.admin;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ticket.desk_cartel.dto.AgentStatsDTO;
+import com.ticket.desk_cartel.services.AgentService;
+
+import java.util.List;
+
+/**
+ * REST controller for the admin agent overview.
+ * All endpoints require ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin/agents")
+@PreAuthorize("hasRole('ADMIN')")
+public class AgentStatsController {
+
+    private final AgentService agentService;
+
+    public AgentStatsController(AgentService agentService) {
+        this.agentService = agentService;
+    }
+
+    /**
+     * Get capacity and ticket counts per status for every agent, read with one grouped query.
+     *
+     * @return stats of all agents
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<AgentStatsDTO>> getAllAgentStats() {
+        return ResponseEntity.ok(agentService.getAllAgentStats());
+    }
+}
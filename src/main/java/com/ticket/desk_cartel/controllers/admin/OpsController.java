@@ -0,0 +1,39 @@
+package com.ticket.desk_cartel.controllers.admin;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ticket.desk_cartel.dto.OpsSnapshotDTO;
+import com.ticket.desk_cartel.services.OpsSnapshotService;
+
+/**
+ * REST controller for the admin ops dashboard.
+ * The snapshot is built from in-memory counters, so it is cheap to poll; changes are
+ * also pushed to the STOMP topic /topic/admin.ops.
+ * All endpoints require ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin/ops")
+@PreAuthorize("hasRole('ADMIN')")
+public class OpsController {
+
+    private final OpsSnapshotService opsSnapshotService;
+
+    public OpsController(OpsSnapshotService opsSnapshotService) {
+        this.opsSnapshotService = opsSnapshotService;
+    }
+
+    /**
+     * Get ticket counts, waiting tickets per priority, agent load per level,
+     * executor queues and WebSocket sessions.
+     *
+     * @return the current snapshot of this node
+     */
+    @GetMapping
+    public ResponseEntity<OpsSnapshotDTO> getSnapshot() {
+        return ResponseEntity.ok(opsSnapshotService.snapshot());
+    }
+}
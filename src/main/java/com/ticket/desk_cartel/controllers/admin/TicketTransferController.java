@@ -0,0 +1,74 @@
+package com.ticket.desk_cartel.controllers.admin;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ticket.desk_cartel.dto.TicketImportResultDTO;
+import com.ticket.desk_cartel.services.TicketTransferService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk ticket import and export (helpdesk migrations).
+ * Request and response bodies are streamed, never held in memory.
+ * All endpoints require ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin/tickets")
+@PreAuthorize("hasRole('ADMIN')")
+public class TicketTransferController {
+
+    private final TicketTransferService ticketTransferService;
+
+    public TicketTransferController(TicketTransferService ticketTransferService) {
+        this.ticketTransferService = ticketTransferService;
+    }
+
+    /**
+     * Import tickets without emails, AI calls or assignment attempts per ticket;
+     * classification and assignment are left to their scheduled jobs.
+     *
+     * @param format csv (default, with header) or ndjson
+     * @param body rows with ownerEmail, title, description, category, priority (optional) and createdAt (optional)
+     * @return imported and rejected row counts
+     */
+    @PostMapping("/import")
+    public ResponseEntity<TicketImportResultDTO> importTickets(@RequestParam(defaultValue = "csv") String format,
+                                                               InputStream body) throws IOException {
+        TicketTransferService.Format transferFormat;
+        try {
+            transferFormat = TicketTransferService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ticketTransferService.importTickets(body, transferFormat));
+    }
+
+    /**
+     * Export every ticket with its owner, category, priority and agent.
+     *
+     * @param format csv (default, with header) or ndjson
+     */
+    @GetMapping("/export")
+    public void exportTickets(@RequestParam(defaultValue = "csv") String format,
+                              HttpServletResponse response) throws IOException {
+        TicketTransferService.Format transferFormat;
+        try {
+            transferFormat = TicketTransferService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(transferFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tickets." + transferFormat.label());
+        ticketTransferService.exportTickets(response.getOutputStream(), transferFormat);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ticket.desk_cartel.dto;
+
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Status;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Capacity of one agent and the tickets assigned to it, built from aggregate queries.
+ */
+@Schema(description = "Agent capacity and ticket counts")
+public record AgentStatsDTO(
+        Long agentId,
+        String name,
+        AgentLevel level,
+        int baseCapacity,
+        int totalCapacity,
+        int currentWorkload,
+        int availableCapacity,
+        int completedTickets,
+        @Schema(description = "Tickets ever assigned to the agent, in any status")
+        long assignedTickets,
+        long ongoingTickets,
+        Map<Status, Long> ticketsByStatus) {
+
+    public static AgentStatsDTO of(Long agentId, String name, AgentLevel level, int baseCapacity, int totalCapacity,
+                                   int currentWorkload, int completedTickets, Map<Status, Long> ticketsByStatus) {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, ticketsByStatus.getOrDefault(status, 0L));
+        }
+        long assigned = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new AgentStatsDTO(agentId, name, level, baseCapacity, totalCapacity, currentWorkload,
+                totalCapacity - currentWorkload, completedTickets, assigned, counts.get(Status.ONGOING), counts);
+    }
+}
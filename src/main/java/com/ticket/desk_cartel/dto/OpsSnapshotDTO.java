@@ -0,0 +1,38 @@
+package com.ticket.desk_cartel.dto;
+
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Status;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Current load of the system as seen by one node, built from in-memory counters.
+ */
+@Schema(description = "Operations snapshot: ticket, queue, agent and session counts")
+public record OpsSnapshotDTO(
+        Instant generatedAt,
+        @Schema(description = "Node that built the snapshot; queues and sessions are per node")
+        String node,
+        Map<Status, Long> ticketsByStatus,
+        @Schema(description = "Tickets waiting for an agent, per priority name")
+        Map<String, Integer> pendingByPriority,
+        Map<AgentLevel, AgentLevelLoad> agentsByLevel,
+        @Schema(description = "Mail and AI executor queues")
+        Map<String, ExecutorLoad> executors,
+        int websocketSessions,
+        int onlineUsers) {
+
+    /**
+     * Active agents of one level.
+     */
+    public record AgentLevelLoad(long agents, long workload, long capacity, double utilization) {
+    }
+
+    /**
+     * Tasks waiting in and running on one executor.
+     */
+    public record ExecutorLoad(int queued, int active) {
+    }
+}
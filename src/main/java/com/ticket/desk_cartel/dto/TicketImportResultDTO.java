@@ -0,0 +1,18 @@
+package com.ticket.desk_cartel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ticket import.
+ */
+@Schema(description = "Bulk ticket import result")
+public record TicketImportResultDTO(
+        int imported,
+        int rejected,
+        @Schema(description = "Imported tickets without a priority, classified by the next classification passes")
+        int awaitingClassification,
+        @Schema(description = "Why rows were rejected, by line (first 100)")
+        List<String> errors) {
+}
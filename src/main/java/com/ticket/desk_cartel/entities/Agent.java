@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "agents")
+@Table(name = "agents", indexes = @Index(name = "idx_agents_is_active", columnList = "isActive"))
+// Not in the second-level cache: workload and version change through bulk UPDATEs
+// (AgentRepositoryCustomImpl), which fire no entity events and evict the whole region
 public class Agent {
 
     @Id
@@ -61,6 +63,11 @@ public class Agent {
     @Column(nullable = false)
     private boolean isActive = true;
 
+    // Optimistic lock for read-modify-write updates; workload itself is changed
+    // through AgentRepository.tryReserveWorkload/adjustWorkload
+    @Version
+    private long version;
+
     /**
      * Creates a new agent with the specified level.
      * The capacity is automatically set based on the level.
@@ -119,6 +126,8 @@ public class Agent {
     
     /**
      * Increases the current workload by the given amount.
+     * In-memory only; services use AgentRepository.tryReserveWorkload to change
+     * the stored workload atomically.
      * 
      * @param weight the amount to increase the workload by
      */
@@ -1,11 +1,14 @@
 package com.ticket.desk_cartel.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.ticket.desk_cartel.configs.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -13,6 +16,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "category")
+// Admin-edited reference data, a non-strict strategy is enough
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = HibernateCacheConfig.CATEGORY_REGION)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -8,14 +8,20 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.ticket.desk_cartel.configs.HibernateCacheConfig;
 
 /**
  * Entity representing the priority levels of tickets.
  * Each priority has an associated weight (workload impact) and time limit in hours.
  * Priority levels can be configured by administrators.
+ * Cached in the second-level cache; edits are rare, so a non-strict strategy is enough.
  */
 @Entity
 @Table(name = "priority_levels")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = HibernateCacheConfig.PRIORITY_REGION)
 public class Priority {
 
     @Id
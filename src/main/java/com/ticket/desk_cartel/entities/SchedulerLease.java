@@ -0,0 +1,37 @@
+package com.ticket.desk_cartel.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lease on a periodic job, so that each job runs on a single node at a time.
+ * The fencing token is incremented on every successful acquisition; a node that
+ * lost its lease (e.g. after a long GC pause) holds an outdated token and stops.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    // Node currently (or last) holding the lease
+    @Column(length = 255)
+    private String owner;
+
+    private LocalDateTime lockedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private long fencingToken;
+}
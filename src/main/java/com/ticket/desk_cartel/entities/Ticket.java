@@ -12,13 +12,22 @@ import java.util.List;
 
 @Setter
 @Getter
-@Entity@Table(name = "ticket")
+@Entity@Table(name = "ticket", indexes = {
+        // Open tickets per agent (reassignment, reconciliation, workload checks)
+        @Index(name = "idx_ticket_agent_status", columnList = "agentId, status"),
+        // Pending tickets reloaded by the assignment job
+        @Index(name = "idx_ticket_status", columnList = "status")
+})
 public class Ticket {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long ticketId;
 
+    // Optimistic lock: two nodes dispatching the same waiting ticket cannot both assign it
+    @Version
+    private long version;
+
     @Column
     private String title;
 
@@ -38,6 +47,10 @@ public class Ticket {
     @Column
     private int points;
 
+    // Start of the SLA clock, used to order tickets waiting for an agent
+    @Column
+    private LocalDateTime date_created;
+
     @Column
     private LocalDateTime date_started;
 
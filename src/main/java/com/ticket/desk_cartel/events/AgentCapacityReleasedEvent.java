@@ -0,0 +1,18 @@
+package com.ticket.desk_cartel.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when workload is taken off an agent (ticket completed, reassigned or
+ * moved), so that waiting tickets can be dispatched once the change is committed
+ * instead of on the next assignment run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentCapacityReleasedEvent {
+
+    private Long agentId;
+}
@@ -0,0 +1,18 @@
+package com.ticket.desk_cartel.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when an agent is deactivated (or found inactive with open tickets),
+ * so that the agent's open tickets are taken off them and reassigned once the
+ * deactivation has been committed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentDeactivatedEvent {
+
+    private Long agentId;
+}
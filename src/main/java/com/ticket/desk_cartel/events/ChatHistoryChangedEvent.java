@@ -0,0 +1,19 @@
+package com.ticket.desk_cartel.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when a chat message is saved so that every node drops its cached
+ * history of that ticket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryChangedEvent implements ClusterEvent {
+
+    private String ticketId;
+
+    private String originNodeId;
+}
@@ -0,0 +1,10 @@
+package com.ticket.desk_cartel.events;
+
+/**
+ * An event broadcast to the other nodes by ClusterEventBroadcaster.
+ */
+public interface ClusterEvent {
+
+    // Node that made the change, used to ignore our own broadcasts
+    String getOriginNodeId();
+}
@@ -0,0 +1,22 @@
+package com.ticket.desk_cartel.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published after a cached entity (user) is updated or deleted so that every
+ * node drops its second-level cache entry for that row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChangedEvent implements ClusterEvent {
+
+    // Hibernate entity name, i.e. the fully qualified class name
+    private String entityName;
+
+    private Long id;
+
+    private String originNodeId;
+}
@@ -0,0 +1,22 @@
+package com.ticket.desk_cartel.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when priorities or categories change so that every node drops its
+ * cached copy of that reference data.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceDataChangedEvent implements ClusterEvent {
+
+    public enum Type { PRIORITY, CATEGORY }
+
+    private Type type;
+
+    // Node that made the change, used to ignore our own broadcasts
+    private String originNodeId;
+}
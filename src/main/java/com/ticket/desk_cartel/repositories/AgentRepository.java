@@ -12,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AgentRepository extends JpaRepository<Agent, Long> {
+public interface AgentRepository extends JpaRepository<Agent, Long>, AgentRepositoryCustom {
 
     Optional<Agent> findByUser(User user);
     
@@ -31,6 +31,23 @@ public interface AgentRepository extends JpaRepository<Agent, Long> {
     // Alternative method using Spring Data naming convention
     List<Agent> findByCurrentWorkloadLessThanAndIsActiveTrue(int totalCapacity);
 
+    // Leaderboard rows: id, username, level, completed tickets, total points (AgentLeaderboard)
+    @Query("SELECT a.id, u.username, a.level, a.completedTickets, a.totalPerformancePoints FROM Agent a JOIN a.user u")
+    List<Object[]> summarizeForLeaderboard();
+
+    // Agent stats, one row per agent and ticket status: id, username, level, base capacity, total capacity,
+    // workload, completed tickets, status (null for an agent without tickets), ticket count
+    @Query("SELECT a.id, u.username, a.level, a.baseCapacity, a.totalCapacity, a.currentWorkload, a.completedTickets, " +
+           "t.status, COUNT(t) FROM Agent a JOIN a.user u LEFT JOIN Ticket t ON t.assignedTicket = a " +
+           "GROUP BY a.id, u.username, a.level, a.baseCapacity, a.totalCapacity, a.currentWorkload, a.completedTickets, t.status " +
+           "ORDER BY a.id")
+    List<Object[]> summarizeTicketStatsByAgent();
+
+    // Per level: active agents, their summed workload and summed capacity
+    @Query("SELECT a.level, COUNT(a), COALESCE(SUM(a.currentWorkload), 0), COALESCE(SUM(a.totalCapacity), 0) " +
+           "FROM Agent a WHERE a.isActive = true GROUP BY a.level")
+    List<Object[]> summarizeActiveCapacityByLevel();
+
     // Find all inactive agents
     @Query("SELECT a FROM Agent a WHERE a.isActive = false")
     List<Agent> findByIsActiveFalse();
@@ -0,0 +1,32 @@
+package com.ticket.desk_cartel.repositories;
+
+import com.ticket.desk_cartel.entities.Agent;
+
+/**
+ * Atomic workload accounting for agents.
+ * Workload changes are applied with a single conditional UPDATE in the database
+ * instead of read-modify-write on the entity, so concurrent assignments cannot
+ * overbook an agent or lose an update.
+ */
+public interface AgentRepositoryCustom {
+
+    /**
+     * Reserve capacity on an agent, only if the agent is active and the new
+     * workload stays within its total capacity.
+     *
+     * @param agent the agent to reserve on; refreshed from the database when managed
+     * @param weight the workload to add
+     * @return true if the reservation was applied, false if the agent is full or inactive
+     */
+    boolean tryReserveWorkload(Agent agent, int weight);
+
+    /**
+     * Add or remove workload without a capacity check (releases and admin overrides).
+     * The result never goes below zero. Removing workload publishes an
+     * AgentCapacityReleasedEvent so waiting tickets can be dispatched.
+     *
+     * @param agent the agent to adjust; refreshed from the database when managed
+     * @param delta the workload to add (positive) or remove (negative)
+     */
+    void adjustWorkload(Agent agent, int delta);
+}
@@ -0,0 +1,66 @@
+package com.ticket.desk_cartel.repositories;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.events.AgentCapacityReleasedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of {@link AgentRepositoryCustom}, picked up by Spring Data as a
+ * fragment of {@link AgentRepository}.
+ */
+public class AgentRepositoryCustomImpl implements AgentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public boolean tryReserveWorkload(Agent agent, int weight) {
+        int updated = entityManager.createQuery(
+                "UPDATE Agent a SET a.currentWorkload = a.currentWorkload + :weight, " +
+                "a.version = a.version + 1, a.updatedAt = :now " +
+                "WHERE a.id = :id AND a.isActive = true " +
+                "AND a.currentWorkload + :weight <= a.totalCapacity")
+            .setParameter("weight", weight)
+            .setParameter("now", LocalDateTime.now())
+            .setParameter("id", agent.getId())
+            .executeUpdate();
+        refresh(agent);
+        return updated == 1;
+    }
+
+    @Override
+    @Transactional
+    public void adjustWorkload(Agent agent, int delta) {
+        entityManager.createQuery(
+                "UPDATE Agent a SET a.currentWorkload = " +
+                "CASE WHEN a.currentWorkload + :delta < 0 THEN 0 ELSE a.currentWorkload + :delta END, " +
+                "a.version = a.version + 1, a.updatedAt = :now " +
+                "WHERE a.id = :id")
+            .setParameter("delta", delta)
+            .setParameter("now", LocalDateTime.now())
+            .setParameter("id", agent.getId())
+            .executeUpdate();
+        refresh(agent);
+
+        if (delta < 0) {
+            eventPublisher.publishEvent(new AgentCapacityReleasedEvent(agent.getId()));
+        }
+    }
+
+    // Bulk updates bypass the persistence context, reload so the caller sees the new workload and version
+    private void refresh(Agent agent) {
+        if (entityManager.contains(agent)) {
+            entityManager.refresh(agent);
+        }
+    }
+}
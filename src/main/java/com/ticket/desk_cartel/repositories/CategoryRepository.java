@@ -1,12 +1,15 @@
 package com.ticket.desk_cartel.repositories;
 
 import com.ticket.desk_cartel.entities.Category;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Category> findByName(String name);
     
     // Method to find all active categories
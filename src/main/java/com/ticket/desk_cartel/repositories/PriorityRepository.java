@@ -1,6 +1,8 @@
 package com.ticket.desk_cartel.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.ticket.desk_cartel.entities.Priority;
@@ -19,6 +21,7 @@ public interface PriorityRepository extends JpaRepository<Priority, Long> {
      * @param name the priority name to search for
      * @return an Optional containing the found Priority or empty if not found
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Priority> findByName(String name);
     
     /**
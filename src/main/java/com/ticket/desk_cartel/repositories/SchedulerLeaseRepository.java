@@ -0,0 +1,44 @@
+package com.ticket.desk_cartel.repositories;
+
+import com.ticket.desk_cartel.entities.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Lease rows for SchedulerLeaseService. All times come from the database clock
+ * (NOW(3)) so clock skew between nodes cannot make two nodes hold the same lease.
+ */
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_lease (name, locked_until, fencing_token) VALUES (:name, NOW(3), 0)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    // Take the lease if it has expired (or we already hold it), bumping the fencing token
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET owner = :owner, locked_at = NOW(3), " +
+                   "locked_until = TIMESTAMPADD(MICROSECOND, :leaseMillis * 1000, NOW(3)), " +
+                   "fencing_token = fencing_token + 1 " +
+                   "WHERE name = :name AND (locked_until <= NOW(3) OR owner = :owner)",
+           nativeQuery = true)
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    @Query(value = "SELECT fencing_token FROM scheduler_lease WHERE name = :name", nativeQuery = true)
+    long findFencingToken(@Param("name") String name);
+
+    // Keep the lease for at least minMillis after it was taken, so a fast job is not re-run by another node
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET locked_until = " +
+                   "GREATEST(NOW(3), TIMESTAMPADD(MICROSECOND, :minMillis * 1000, locked_at)) " +
+                   "WHERE name = :name AND fencing_token = :token",
+           nativeQuery = true)
+    int release(@Param("name") String name, @Param("token") long token, @Param("minMillis") long minMillis);
+
+    @Query(value = "SELECT COUNT(*) FROM scheduler_lease " +
+                   "WHERE name = :name AND fencing_token = :token AND locked_until > NOW(3)",
+           nativeQuery = true)
+    long countValid(@Param("name") String name, @Param("token") long token);
+}
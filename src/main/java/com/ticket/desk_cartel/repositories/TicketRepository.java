@@ -4,19 +4,43 @@ import com.ticket.desk_cartel.entities.Category;
 import com.ticket.desk_cartel.entities.Priority;
 import com.ticket.desk_cartel.entities.Status;
 import com.ticket.desk_cartel.entities.Ticket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.ticket.desk_cartel.entities.Agent;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // Ticket lists load the eager owner, agent (and its user), priority and category in the same
+    // select; otherwise each distinct one is fetched by a select of its own (TicketQueryBudgetTest)
+    @Override
+    @EntityGraph(attributePaths = {"ticketOwner", "assignedTicket.user", "priority", "category"})
+    List<Ticket> findAll();
 
+    @Override
+    @EntityGraph(attributePaths = {"ticketOwner", "assignedTicket.user", "priority", "category"})
+    List<Ticket> findAll(Sort sort);
+
+    @EntityGraph(attributePaths = {"ticketOwner", "assignedTicket.user", "priority", "category"})
     List<Ticket> findByTicketOwner_Id(Long userId);
+    @EntityGraph(attributePaths = {"ticketOwner", "assignedTicket.user", "priority", "category"})
     List<Ticket> findByAssignedTicket_Id(Long assignedAgent);
 
+    // Open tickets of an agent, served by the (agentId, status) index
+    List<Ticket> findByAssignedTicket_IdAndStatusNot(Long assignedAgent, Status status);
+    boolean existsByAssignedTicket_IdAndStatusNot(Long assignedAgent, Status status);
+
+    // Inactive agents that still hold open tickets, used by the reconciliation job
+    @Query("SELECT DISTINCT a.id FROM Ticket t JOIN t.assignedTicket a " +
+           "WHERE a.isActive = false AND t.status <> com.ticket.desk_cartel.entities.Status.COMPLETED")
+    List<Long> findInactiveAgentIdsWithOpenTickets();
+
     //Filters for ticket
     List<Ticket> findByCategoryAndPriorityAndStatus(Category category, Priority priority, Status status);
     List<Ticket> findByCategoryAndPriority(Category category, Priority priority);
@@ -26,6 +50,43 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findByPriority(Priority priority);
     List<Ticket> findByStatus(Status status);
 
+    // Imported tickets still waiting for classification (TicketClassificationScheduler)
+    List<Ticket> findByStatusAndPriority_Name(Status status, String priorityName, Pageable pageable);
+
+    // Tickets of one id shard, used when the assignment job is split across nodes
+    @Query("SELECT t FROM Ticket t WHERE t.status = :status AND MOD(t.ticketId, :shards) = :shard")
+    List<Ticket> findByStatusInShard(@Param("status") Status status, @Param("shards") int shards, @Param("shard") int shard);
+
+    // Completed tickets per agent and category: count, points earned, base points (AgentProfileCache)
+    @Query("SELECT t.assignedTicket.id, t.category.categoryId, COUNT(t), COALESCE(SUM(t.points), 0), " +
+           "COALESCE(SUM(t.priority.weight * t.category.points), 0) " +
+           "FROM Ticket t WHERE t.status = :status AND t.assignedTicket IS NOT NULL " +
+           "GROUP BY t.assignedTicket.id, t.category.categoryId")
+    List<Object[]> summarizeByAgentAndCategory(@Param("status") Status status);
+
+    // Ticket chat access checks (owner or assigned agent)
+    boolean existsByTicketIdAndTicketOwner_Username(Long ticketId, String username);
+    boolean existsByTicketIdAndAssignedTicket_User_Username(Long ticketId, String username);
+
+    // Points earned per agent on tickets completed since a date (weekly and monthly leaderboards)
+    @Query("SELECT t.assignedTicket.id, COALESCE(SUM(t.points), 0) FROM Ticket t " +
+           "WHERE t.status = :status AND t.completion_date >= :since GROUP BY t.assignedTicket.id")
+    List<Object[]> sumPointsByAgentSince(@Param("status") Status status, @Param("since") LocalDateTime since);
+
+    // Points one agent earned on tickets completed since a date, read from idx_ticket_agent_status
+    @Query("SELECT COALESCE(SUM(t.points), 0) FROM Ticket t " +
+           "WHERE t.assignedTicket.id = :agentId AND t.status = :status AND t.completion_date >= :since")
+    long sumPointsOfAgentSince(@Param("agentId") Long agentId, @Param("status") Status status,
+                               @Param("since") LocalDateTime since);
+
+    // Tickets per status, read from idx_ticket_status (TicketStatusCounters)
+    @Query("SELECT t.status, COUNT(t) FROM Ticket t GROUP BY t.status")
+    List<Object[]> countByStatus();
+
+    // Tickets of one agent per status (agent stats), read from idx_ticket_agent_status
+    @Query("SELECT t.status, COUNT(t) FROM Ticket t WHERE t.assignedTicket.id = :agentId GROUP BY t.status")
+    List<Object[]> countByStatusForAgent(@Param("agentId") Long agentId);
+
     // ✅ New method: Count ongoing tickets for an agent
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.assignedTicket = :agent AND t.status NOT IN ('RESOLVED', 'CLOSED')")
     int countOngoingTickets(@Param("agent") Agent agent);
@@ -2,7 +2,11 @@ package com.ticket.desk_cartel.repositories;
 
 
 import com.ticket.desk_cartel.entities.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,14 +15,21 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Cached query: the id list is cached and the user itself comes from the entity region
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findByUsername(String username);
 
+    // Id-only lookup used by the identity cache, avoids loading the full user row
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     Optional<User> findByEmail(String email);
 
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
+    // Not cached: the query cache is node-local, so a deactivated user could still log in elsewhere
     Optional<User> findByUsernameAndIsActiveTrue(String username);
 
     Optional<User> findByEmailAndIsVerifiedTrue(String email);
@@ -0,0 +1,100 @@
+package com.ticket.desk_cartel.security;
+
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Decides whether a user may see the chat of a ticket.
+ * Access is granted to the ticket owner, the assigned agent and admins.
+ */
+@Component
+public class TicketAccessEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketAccessEvaluator.class);
+
+    private final TicketRepository ticketRepository;
+    private final JwtUtil jwtUtil;
+
+    public TicketAccessEvaluator(TicketRepository ticketRepository, JwtUtil jwtUtil) {
+        this.ticketRepository = ticketRepository;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Check access for a WebSocket session, reading the role from the JWT stored
+     * in the session attributes by JwtHandshakeInterceptor.
+     * @param username The authenticated username
+     * @param sessionAttributes The STOMP session attributes (may be null)
+     * @param ticketId The ticket id as sent by the client
+     * @return true if the user may read and post in the ticket chat
+     */
+    public boolean canAccessTicket(String username, Map<String, Object> sessionAttributes, String ticketId) {
+        Long id = parseTicketId(ticketId);
+        if (id == null) {
+            return false;
+        }
+        return canAccessTicket(username, resolveRole(sessionAttributes), id);
+    }
+
+    /**
+     * Check access for a user with a known role.
+     * @param username The authenticated username
+     * @param role The role claim of the user (may be null)
+     * @param ticketId The ticket id
+     * @return true if the user is an admin, the ticket owner or the assigned agent
+     */
+    public boolean canAccessTicket(String username, String role, Long ticketId) {
+        if (username == null || ticketId == null) {
+            return false;
+        }
+
+        if ("ADMIN".equalsIgnoreCase(role)) {
+            return true;
+        }
+
+        boolean allowed = ticketRepository.existsByTicketIdAndTicketOwner_Username(ticketId, username)
+                || ticketRepository.existsByTicketIdAndAssignedTicket_User_Username(ticketId, username);
+
+        if (!allowed) {
+            logger.warn("🚫 User {} (role {}) has no access to ticket {}", username, role, ticketId);
+        }
+        return allowed;
+    }
+
+    /**
+     * Check whether a WebSocket session belongs to an admin, from the JWT in its session attributes.
+     */
+    public boolean isAdmin(Map<String, Object> sessionAttributes) {
+        return "ADMIN".equalsIgnoreCase(resolveRole(sessionAttributes));
+    }
+
+    /**
+     * Parse a ticket id sent by a client, returning null if it is not a number.
+     */
+    public static Long parseTicketId(String ticketId) {
+        if (ticketId == null || ticketId.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(ticketId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String resolveRole(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null || !(sessionAttributes.get("token") instanceof String token)) {
+            return null;
+        }
+        try {
+            return jwtUtil.extractRole(token);
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not read role from session token: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ticket.desk_cartel.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Authorizes STOMP SUBSCRIBE and SEND frames.
+ * Clients may only subscribe to the destinations the server publishes to them:
+ * ticket chats (/topic/ticket.{id}) for the ticket owner, the assigned agent and admins,
+ * admin topics (/topic/admin.*, e.g. the ops snapshot) for admins, the public chat topic
+ * and their own user queues (/user/queue/*). Anything else, including the node-to-node
+ * topics, gets a STOMP ERROR frame. Once subscribed, a ticket message is sent once
+ * to the topic and fanned out by the broker.
+ * The brokers match subscriptions as patterns, so destinations with wildcards are
+ * rejected; otherwise /topic/# or /topic/** would receive every ticket's chat.
+ * Clients may only SEND to /app destinations: broker and user destinations are written
+ * by the server alone.
+ */
+@Component
+public class TicketSubscriptionInterceptor implements ChannelInterceptor {
+
+    public static final String TICKET_TOPIC_PREFIX = "/topic/ticket.";
+    public static final String ADMIN_TOPIC_PREFIX = "/topic/admin.";
+    public static final String PUBLIC_TOPIC = "/topic/messages";
+
+    private static final String APP_PREFIX = "/app/";
+    private static final Pattern TICKET_TOPIC = Pattern.compile(Pattern.quote(TICKET_TOPIC_PREFIX) + "\\d+");
+    private static final Pattern ADMIN_TOPIC = Pattern.compile(Pattern.quote(ADMIN_TOPIC_PREFIX) + "[A-Za-z0-9-]+");
+    private static final Pattern USER_QUEUE = Pattern.compile("/user/queue/[A-Za-z0-9-]+");
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSubscriptionInterceptor.class);
+
+    private final TicketAccessEvaluator ticketAccessEvaluator;
+
+    public TicketSubscriptionInterceptor(TicketAccessEvaluator ticketAccessEvaluator) {
+        this.ticketAccessEvaluator = ticketAccessEvaluator;
+    }
+
+    /**
+     * Build the topic destination for a ticket chat.
+     */
+    public static String ticketTopic(String ticketId) {
+        return TICKET_TOPIC_PREFIX + ticketId;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.SEND.equals(accessor.getCommand())) {
+            checkSend(accessor);
+            return message;
+        }
+        if (!StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        String username = resolveUsername(accessor);
+        if (destination == null) {
+            throw new AccessDeniedException("Subscription without a destination");
+        }
+        if (isPattern(destination)) {
+            logger.warn("🚫 Rejected pattern subscription of {} to {}", username, destination);
+            throw new AccessDeniedException("Pattern subscriptions are not allowed: " + destination);
+        }
+
+        if (TICKET_TOPIC.matcher(destination).matches()) {
+            String ticketId = destination.substring(TICKET_TOPIC_PREFIX.length());
+            if (!ticketAccessEvaluator.canAccessTicket(username, accessor.getSessionAttributes(), ticketId)) {
+                logger.warn("🚫 Rejected subscription of {} to {}", username, destination);
+                throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+            }
+        } else if (ADMIN_TOPIC.matcher(destination).matches()) {
+            if (!ticketAccessEvaluator.isAdmin(accessor.getSessionAttributes())) {
+                logger.warn("🚫 Rejected subscription of {} to {}", username, destination);
+                throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+            }
+        } else if (!PUBLIC_TOPIC.equals(destination) && !USER_QUEUE.matcher(destination).matches()) {
+            logger.warn("🚫 Rejected subscription of {} to unknown destination {}", username, destination);
+            throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+        }
+
+        logger.debug("✅ {} subscribed to {}", username, destination);
+        return message;
+    }
+
+    private void checkSend(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            logger.warn("🚫 Rejected SEND of {} to {}", resolveUsername(accessor), destination);
+            throw new AccessDeniedException("Not allowed to send to " + destination);
+        }
+    }
+
+    // AntPathMatcher (simple broker) and RabbitMQ / ActiveMQ wildcards (relay) treat these as patterns
+    private static boolean isPattern(String destination) {
+        return destination.chars().anyMatch(c -> c == '*' || c == '?' || c == '{' || c == '#' || c == '>');
+    }
+
+    private String resolveUsername(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        if (user != null) {
+            return user.getName();
+        }
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        return sessionAttributes != null ? (String) sessionAttributes.get("username") : null;
+    }
+}
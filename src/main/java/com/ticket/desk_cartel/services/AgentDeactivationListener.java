@@ -0,0 +1,52 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.events.AgentDeactivatedEvent;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Reassigns the open tickets of an agent as soon as the agent is deactivated.
+ * Runs after the deactivation commits, in its own transaction, so the agent is
+ * already excluded from the candidate agents when its tickets are reassigned.
+ */
+@Component
+public class AgentDeactivationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentDeactivationListener.class);
+
+    private final AgentRepository agentRepository;
+    private final AgentService agentService;
+
+    public AgentDeactivationListener(AgentRepository agentRepository, AgentService agentService) {
+        this.agentRepository = agentRepository;
+        this.agentService = agentService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAgentDeactivated(AgentDeactivatedEvent event) {
+        Optional<Agent> agentOpt = agentRepository.findById(event.getAgentId());
+        if (agentOpt.isEmpty()) {
+            logger.warn("Deactivated agent {} no longer exists", event.getAgentId());
+            return;
+        }
+
+        Agent agent = agentOpt.get();
+        if (agent.isActive()) {
+            logger.info("Agent {} was reactivated before its tickets were reassigned, skipping", agent.getId());
+            return;
+        }
+
+        logger.info("Agent {} deactivated, reassigning open tickets", agent.getId());
+        agentService.reassignAgentTickets(agent);
+    }
+}
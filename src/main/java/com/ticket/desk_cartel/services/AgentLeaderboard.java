@@ -0,0 +1,311 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agents ranked by performance points: all time, this week (from Monday) and this month.
+ * Each board is an OrderStatisticTree, so a page of the leaderboard or one agent's rank
+ * costs O(log n) per entry instead of sorting every agent on every request.
+ * Built with one agent query and two ticket aggregates, and rebuilt periodically to pick
+ * up other nodes; every completion then updates the boards in place. The weekly and monthly
+ * totals of the agent are re-read rather than incremented, so a rebuild that already saw the
+ * completion cannot count it twice. A new week or month starts from zero without reading tickets.
+ */
+@Component
+public class AgentLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentLeaderboard.class);
+
+    // Most points first; equal points by agent id so every agent has its own rank
+    private static final Comparator<Score> BY_POINTS = Comparator.comparingLong(Score::points).reversed()
+            .thenComparing(Score::agentId);
+
+    public enum Window {
+        ALL_TIME("all-time"),
+        WEEKLY("weekly"),
+        MONTHLY("monthly");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        public static Window of(String label) {
+            return Arrays.stream(values()).filter(window -> window.label.equalsIgnoreCase(label)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown leaderboard window: " + label));
+        }
+
+        // First day of the period containing the date, null for all time
+        LocalDate start(LocalDate date) {
+            return switch (this) {
+                case ALL_TIME -> null;
+                case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTHLY -> date.withDayOfMonth(1);
+            };
+        }
+    }
+
+    /**
+     * One leaderboard row.
+     *
+     * @param rank 1-based position
+     * @param totalPoints points in the window
+     * @param completedTickets completed tickets of all time
+     */
+    public record Standing(int rank, Long agentId, String name, AgentLevel level, long totalPoints, int completedTickets) {
+    }
+
+    private record Score(Long agentId, long points) {
+    }
+
+    private record AgentInfo(String name, AgentLevel level, int completedTickets) {
+    }
+
+    private static final class Board {
+        final LocalDate periodStart;
+        final Map<Long, Long> points = new HashMap<>();
+        final OrderStatisticTree<Score> ranking = new OrderStatisticTree<>(BY_POINTS);
+
+        Board(LocalDate periodStart) {
+            this.periodStart = periodStart;
+        }
+
+        void set(Long agentId, long value) {
+            Long previous = points.put(agentId, value);
+            if (previous != null) {
+                ranking.remove(new Score(agentId, previous));
+            }
+            ranking.add(new Score(agentId, value));
+        }
+
+        void add(Long agentId, long delta) {
+            set(agentId, points.getOrDefault(agentId, 0L) + delta);
+        }
+    }
+
+    private final AgentRepository agentRepository;
+    private final TicketRepository ticketRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; null until first use
+    private Map<Long, AgentInfo> agents;
+    private Map<Window, Board> boards;
+
+    public AgentLeaderboard(AgentRepository agentRepository, TicketRepository ticketRepository) {
+        this.agentRepository = agentRepository;
+        this.ticketRepository = ticketRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            logger.info("✅ Leaderboard loaded for {} agents", agents.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild from the database, picking up completions made on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-ms:600000}",
+            initialDelayString = "${leaderboard.refresh-ms:600000}",
+            scheduler = ExecutorConfig.RECONCILIATION_SCHEDULER)
+    public void refresh() {
+        lock.lock();
+        try {
+            load();
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Leaderboard rebuilt");
+    }
+
+    /**
+     * @param page 0-based page
+     * @param size rows per page
+     * @return the rows of the page, best first
+     */
+    public List<Standing> page(Window window, int page, int size) {
+        lock.lock();
+        try {
+            Board board = board(window);
+            int from = (int) Math.min((long) page * size, board.ranking.size());
+            int to = (int) Math.min((long) from + size, board.ranking.size());
+            List<Standing> standings = new ArrayList<>(to - from);
+            for (int index = from; index < to; index++) {
+                standings.add(standing(index, board.ranking.get(index)));
+            }
+            return standings;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the agent's row, empty if the agent is unknown
+     */
+    public Optional<Standing> rankOf(Window window, Long agentId) {
+        lock.lock();
+        try {
+            Board board = board(window);
+            Long points = board.points.get(agentId);
+            if (points == null) {
+                return Optional.empty();
+            }
+            Score score = new Score(agentId, points);
+            return Optional.of(standing(board.ranking.indexOf(score), score));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of ranked agents
+     */
+    public int size(Window window) {
+        lock.lock();
+        try {
+            return board(window).ranking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a new agent with its current points, after commit when in a transaction.
+     */
+    public void register(Agent agent) {
+        if (agent.getId() == null) {
+            return;
+        }
+        AgentInfo info = infoOf(agent);
+        AfterCommit.run(() -> update(agent.getId(), info, agent.getTotalPerformancePoints(), null));
+    }
+
+    /**
+     * Move a completed ticket's agent on every board, after commit when in a transaction.
+     * Expects the agent's totals to already include the ticket (Agent.addCompletedTicketWithPoints).
+     */
+    public void recordCompletion(Ticket ticket) {
+        Agent agent = ticket.getAssignedTicket();
+        if (agent == null || agent.getId() == null) {
+            return;
+        }
+        AgentInfo info = infoOf(agent);
+        long totalPoints = agent.getTotalPerformancePoints();
+        LocalDate completedOn = ticket.getCompletion_date() != null
+                ? ticket.getCompletion_date().toLocalDate() : LocalDate.now();
+        AfterCommit.run(() -> update(agent.getId(), info, totalPoints, completedOn));
+    }
+
+    // Runs after commit, so the window totals read here include the completed ticket
+    private void update(Long agentId, AgentInfo info, long totalPoints, LocalDate completedOn) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            agents.put(agentId, info);
+            for (Window window : Window.values()) {
+                Board board = board(window);
+                if (window == Window.ALL_TIME) {
+                    board.set(agentId, totalPoints);
+                } else if (completedOn != null && !completedOn.isBefore(board.periodStart)) {
+                    board.set(agentId, ticketRepository.sumPointsOfAgentSince(
+                            agentId, Status.COMPLETED, board.periodStart.atStartOfDay()));
+                } else {
+                    board.add(agentId, 0);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held; starts a new week or month when the period has changed
+    private Board board(Window window) {
+        ensureLoaded();
+        Board board = boards.get(window);
+        LocalDate periodStart = window.start(LocalDate.now());
+        if (periodStart != null && !periodStart.equals(board.periodStart)) {
+            board = new Board(periodStart);
+            for (Long agentId : agents.keySet()) {
+                board.set(agentId, 0);
+            }
+            boards.put(window, board);
+        }
+        return board;
+    }
+
+    private void ensureLoaded() {
+        if (boards == null) {
+            load();
+        }
+    }
+
+    private void load() {
+        LocalDate today = LocalDate.now();
+        Map<Long, AgentInfo> loadedAgents = new HashMap<>();
+        Map<Window, Board> loadedBoards = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            loadedBoards.put(window, new Board(window.start(today)));
+        }
+
+        for (Object[] row : agentRepository.summarizeForLeaderboard()) {
+            Long agentId = ((Number) row[0]).longValue();
+            loadedAgents.put(agentId, new AgentInfo((String) row[1], (AgentLevel) row[2], ((Number) row[3]).intValue()));
+            loadedBoards.get(Window.ALL_TIME).set(agentId, ((Number) row[4]).longValue());
+            loadedBoards.get(Window.WEEKLY).set(agentId, 0);
+            loadedBoards.get(Window.MONTHLY).set(agentId, 0);
+        }
+        for (Window window : List.of(Window.WEEKLY, Window.MONTHLY)) {
+            Board board = loadedBoards.get(window);
+            LocalDateTime since = board.periodStart.atStartOfDay();
+            for (Object[] row : ticketRepository.sumPointsByAgentSince(Status.COMPLETED, since)) {
+                if (row[0] != null) {
+                    board.set(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+                }
+            }
+        }
+        agents = loadedAgents;
+        boards = loadedBoards;
+    }
+
+    private Standing standing(int index, Score score) {
+        AgentInfo info = agents.getOrDefault(score.agentId(), new AgentInfo(null, null, 0));
+        return new Standing(index + 1, score.agentId(), info.name(), info.level(), score.points(), info.completedTickets());
+    }
+
+    private static AgentInfo infoOf(Agent agent) {
+        String name = agent.getUser() != null ? agent.getUser().getUsername() : null;
+        return new AgentInfo(name, agent.getLevel(), agent.getCompletedTickets());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ranks the agents that have room for a ticket by a weighted sum of all AgentScorer beans
+ * (by default category affinity, level and load).
+ * Scoring only reads the candidates and their AgentProfileCache profiles, so ranking
+ * stays in memory whatever the number of agents.
+ */
+@Component
+public class AgentMatchingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentMatchingEngine.class);
+
+    private final List<AgentScorer> scorers;
+    private final AgentProfileCache profileCache;
+
+    public AgentMatchingEngine(List<AgentScorer> scorers, AgentProfileCache profileCache) {
+        this.scorers = List.copyOf(scorers);
+        this.profileCache = profileCache;
+    }
+
+    /**
+     * Order candidate agents for a ticket, best match first.
+     *
+     * @param candidates agents with enough capacity for the ticket
+     * @param ticket the ticket to assign
+     * @return the candidates, best match first
+     */
+    public List<Agent> rank(List<Agent> candidates, Ticket ticket) {
+        List<ScoredAgent> scored = new ArrayList<>(candidates.size());
+        for (Agent agent : candidates) {
+            scored.add(new ScoredAgent(agent, score(agent, ticket)));
+        }
+        scored.sort(Comparator.comparingDouble(ScoredAgent::score).reversed());
+
+        if (logger.isDebugEnabled() && !scored.isEmpty()) {
+            logger.debug("Best match for ticket {}: agent {} (score {})", ticket.getTicketId(),
+                    scored.get(0).agent().getId(), String.format("%.3f", scored.get(0).score()));
+        }
+
+        List<Agent> ranked = new ArrayList<>(scored.size());
+        for (ScoredAgent scoredAgent : scored) {
+            ranked.add(scoredAgent.agent());
+        }
+        return ranked;
+    }
+
+    /**
+     * Combined score of one agent for a ticket.
+     */
+    public double score(Agent agent, Ticket ticket) {
+        AgentProfileCache.AgentProfile profile = profileCache.getProfile(agent.getId());
+        double total = 0;
+        for (AgentScorer scorer : scorers) {
+            total += scorer.weight() * scorer.score(agent, profile, ticket);
+        }
+        return total;
+    }
+
+    /**
+     * Feed a completed ticket into the agent profiles.
+     */
+    public void recordCompletion(Ticket ticket) {
+        profileCache.recordCompletion(ticket);
+    }
+
+    private record ScoredAgent(Agent agent, double score) {
+    }
+}
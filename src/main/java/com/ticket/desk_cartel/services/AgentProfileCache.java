@@ -0,0 +1,173 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory history of every agent's completed tickets per category, used by the
+ * AgentScorer beans. It is built with one aggregate query on first use, warmed at startup
+ * and rebuilt periodically. Each completion updates it in place, so scoring never
+ * touches the database.
+ */
+@Component
+public class AgentProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentProfileCache.class);
+
+    private final TicketRepository ticketRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Map<Long, AgentProfile> profiles;
+
+    public AgentProfileCache(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        logger.info("✅ Agent profiles loaded for {} agents", profiles().size());
+    }
+
+    /**
+     * Rebuild from the database, picking up completions made on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${matching.profiles.refresh-ms:3600000}",
+            initialDelayString = "${matching.profiles.refresh-ms:3600000}",
+            scheduler = ExecutorConfig.RECONCILIATION_SCHEDULER)
+    public void refresh() {
+        Map<Long, AgentProfile> loaded = load();
+        lock.lock();
+        try {
+            profiles = loaded;
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Agent profiles rebuilt for {} agents", loaded.size());
+    }
+
+    /**
+     * @return the agent's profile, empty if the agent has not completed any ticket
+     */
+    public AgentProfile getProfile(Long agentId) {
+        if (agentId == null) {
+            return AgentProfile.EMPTY;
+        }
+        return profiles().getOrDefault(agentId, AgentProfile.EMPTY);
+    }
+
+    /**
+     * Add a completed ticket to its agent's profile, after commit when in a transaction.
+     */
+    public void recordCompletion(Ticket ticket) {
+        if (ticket.getAssignedTicket() == null || ticket.getCategory() == null || ticket.getPriority() == null) {
+            return;
+        }
+        Long agentId = ticket.getAssignedTicket().getId();
+        long categoryId = ticket.getCategory().getCategoryId();
+        long points = ticket.getPoints();
+        long basePoints = (long) ticket.getPriority().getWeight() * ticket.getCategory().getPoints();
+
+        AfterCommit.run(() -> record(agentId, categoryId, points, basePoints));
+    }
+
+    private void record(Long agentId, long categoryId, long points, long basePoints) {
+        profiles().compute(agentId, (id, profile) ->
+                (profile != null ? profile : AgentProfile.EMPTY).withCompletion(categoryId, points, basePoints));
+    }
+
+    private Map<Long, AgentProfile> profiles() {
+        Map<Long, AgentProfile> current = profiles;
+        if (current == null) {
+            lock.lock();
+            try {
+                current = profiles;
+                if (current == null) {
+                    current = load();
+                    profiles = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Map<Long, AgentProfile> load() {
+        Map<Long, Map<Long, CategoryStats>> byAgent = new HashMap<>();
+        List<Object[]> rows = ticketRepository.summarizeByAgentAndCategory(Status.COMPLETED);
+        for (Object[] row : rows) {
+            Long agentId = ((Number) row[0]).longValue();
+            long categoryId = ((Number) row[1]).longValue();
+            CategoryStats stats = new CategoryStats(((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+            byAgent.computeIfAbsent(agentId, id -> new HashMap<>()).put(categoryId, stats);
+        }
+
+        Map<Long, AgentProfile> loaded = new ConcurrentHashMap<>();
+        byAgent.forEach((agentId, categories) -> loaded.put(agentId, new AgentProfile(Map.copyOf(categories))));
+        return loaded;
+    }
+
+    /**
+     * Completed tickets of one agent in one category.
+     *
+     * @param completed number of completed tickets
+     * @param points performance points earned on them
+     * @param basePoints priority weight x category points summed over them
+     */
+    public record CategoryStats(long completed, long points, long basePoints) {
+
+        /**
+         * @return points earned per base point, 1.0 for on-time work and 1.0 when unknown
+         */
+        public double efficiency() {
+            return basePoints > 0 ? (double) points / basePoints : 1.0;
+        }
+
+        CategoryStats plus(long points, long basePoints) {
+            return new CategoryStats(completed + 1, this.points + points, this.basePoints + basePoints);
+        }
+    }
+
+    /**
+     * Immutable per-agent feature set, replaced as a whole on every update.
+     */
+    public static final class AgentProfile {
+
+        public static final AgentProfile EMPTY = new AgentProfile(Map.of());
+
+        private final Map<Long, CategoryStats> byCategory;
+
+        private AgentProfile(Map<Long, CategoryStats> byCategory) {
+            this.byCategory = byCategory;
+        }
+
+        /**
+         * @return the agent's stats in the category, null if the agent never completed one
+         */
+        public CategoryStats forCategory(long categoryId) {
+            return byCategory.get(categoryId);
+        }
+
+        private AgentProfile withCompletion(long categoryId, long points, long basePoints) {
+            Map<Long, CategoryStats> updated = new HashMap<>(byCategory);
+            updated.merge(categoryId, new CategoryStats(1, points, basePoints),
+                    (existing, added) -> existing.plus(points, basePoints));
+            return new AgentProfile(Map.copyOf(updated));
+        }
+    }
+}
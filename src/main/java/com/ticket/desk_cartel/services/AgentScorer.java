@@ -0,0 +1,28 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Ticket;
+
+/**
+ * One criterion used by AgentMatchingEngine to rank the agents that can take a ticket.
+ * Every AgentScorer bean takes part in the ranking. To add a criterion, add a bean.
+ */
+public interface AgentScorer {
+
+    /**
+     * Score how well an agent fits a ticket on this criterion.
+     * Called for every candidate agent, so it must only use the given arguments
+     * and in-memory data.
+     *
+     * @param agent the candidate agent, with its current workload
+     * @param profile the agent's precomputed history
+     * @param ticket the ticket to assign
+     * @return a score between 0 (worst) and 1 (best)
+     */
+    double score(Agent agent, AgentProfileCache.AgentProfile profile, Ticket ticket);
+
+    /**
+     * @return the weight of this criterion in the combined score
+     */
+    double weight();
+}
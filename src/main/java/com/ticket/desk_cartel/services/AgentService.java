@@ -1,13 +1,17 @@
 package com.ticket.desk_cartel.services;
 
+import com.ticket.desk_cartel.dto.AgentStatsDTO;
 import com.ticket.desk_cartel.entities.*;
+import com.ticket.desk_cartel.events.AgentDeactivatedEvent;
 import com.ticket.desk_cartel.repositories.AgentRepository;
 import com.ticket.desk_cartel.repositories.NotificationRepository;
 import com.ticket.desk_cartel.repositories.TicketRepository;
 import com.ticket.desk_cartel.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +20,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 import java.time.LocalDateTime;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -37,6 +44,22 @@ public class AgentService {
     @Autowired
     public NotificationService notificationService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PendingAssignmentQueue pendingAssignmentQueue;
+    
+    @Autowired
+    private AgentMatchingEngine matchingEngine;
+    
+    @Autowired
+    private AgentLeaderboard agentLeaderboard;
+    
+    // Cached chat histories carry the ticket's agent, so they are dropped when it changes
+    @Autowired
+    private ChatHistoryCache chatHistoryCache;
+    
     @Autowired
     public AgentService(
             AgentRepository agentRepository,
@@ -78,7 +101,9 @@ public class AgentService {
         
         // Create new agent with JUNIOR level
         Agent agent = new Agent(user, AgentLevel.JUNIOR);
-        return agentRepository.save(agent);
+        Agent savedAgent = agentRepository.save(agent);
+        agentLeaderboard.register(savedAgent);
+        return savedAgent;
     }
     
     /**
@@ -88,9 +113,40 @@ public class AgentService {
      * @return the best agent or empty if no suitable agent found
      */
     public Optional<Agent> findBestAgentForTicket(Priority priority) {
+        return findCandidateAgentsForTicket(priority).stream().findFirst();
+    }
+    
+    /**
+     * Find all active agents that can take a ticket of the given priority,
+     * best candidate first (lowest workload percentage).
+     * 
+     * @param priority the priority of the ticket
+     * @return the candidate agents, empty if none has enough capacity
+     */
+    public List<Agent> findCandidateAgentsForTicket(Priority priority) {
+        // Order by current workload percentage
+        // This helps distribute work more evenly
+        return findAgentsWithCapacityFor(priority).stream()
+                .sorted(Comparator.comparing(agent -> 
+                        (double) agent.getCurrentWorkload() / agent.getTotalCapacity()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Find all active agents that can take a ticket, best match first as ranked by
+     * the AgentMatchingEngine (category history, level and load).
+     * 
+     * @param ticket the ticket to assign
+     * @return the candidate agents, empty if none has enough capacity
+     */
+    public List<Agent> findCandidateAgentsForTicket(Ticket ticket) {
+        return matchingEngine.rank(findAgentsWithCapacityFor(ticket.getPriority()), ticket);
+    }
+    
+    private List<Agent> findAgentsWithCapacityFor(Priority priority) {
         if (priority == null) {
             logger.warn("Cannot find agent for null priority");
-            return Optional.empty();
+            return List.of();
         }
         
         // Get weight of ticket
@@ -104,25 +160,23 @@ public class AgentService {
         
         if (availableAgents.isEmpty()) {
             logger.warn("No available agents with enough capacity for ticket with weight: {}", ticketWeight);
-            return Optional.empty();
+            return List.of();
         }
         
         logger.info("Found {} agents with sufficient capacity", availableAgents.size());
-        
-        // Find the best agent based on current workload percentage
-        // This helps distribute work more evenly
-        return availableAgents.stream()
-                .min(Comparator.comparing(agent -> 
-                        (double) agent.getCurrentWorkload() / agent.getTotalCapacity()));
+        return availableAgents;
     }
     
     /**
      * Assign a ticket to an agent.
+     * A ticket that cannot be assigned is put in the PendingAssignmentQueue and
+     * taken out again once it has an agent.
      * 
      * @param ticketId the ID of the ticket to assign
      * @return the updated ticket with agent assigned or null if not possible
      */
     @Transactional
+    @Observed(name = "tickets.assign")
     public Ticket assignTicketToAgent(Long ticketId) {
         // Find the ticket
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
@@ -133,6 +187,13 @@ public class AgentService {
         
         Ticket ticket = ticketOpt.get();
         
+        // A stale queue entry may point at a ticket that was finished in the meantime
+        if (ticket.getStatus() == Status.COMPLETED) {
+            logger.info("Ticket {} is already completed, nothing to assign", ticketId);
+            pendingAssignmentQueue.remove(ticketId);
+            return ticket;
+        }
+        
         // Skip if ticket already has an agent
         if (ticket.getAssignedTicket() != null) {
             // Check if the assigned agent is still active
@@ -144,59 +205,63 @@ public class AgentService {
                 ticket.setAssignedTicket(null);
                 ticket.setStatus(Status.NO_AGENT_AVAILABLE);
                 ticketRepository.save(ticket);
+                chatHistoryCache.invalidate(String.valueOf(ticketId));
                 
                 // Reset agent's workload for this ticket
                 if (inactiveAgent != null) {
-                    inactiveAgent.reduceWorkload(ticket.getPriority().getWeight());
-                    agentRepository.save(inactiveAgent);
+                    agentRepository.adjustWorkload(inactiveAgent, -ticket.getPriority().getWeight());
                 }
             } else {
                 // Agent is active, so ticket is already properly assigned
                 logger.info("Ticket {} already assigned to active agent {}", 
                         ticketId, ticket.getAssignedTicket().getId());
+                pendingAssignmentQueue.remove(ticketId);
                 return ticket;
             }
         }
         
-        // Find best agent for this ticket
-        Optional<Agent> agentOpt = findBestAgentForTicket(ticket.getPriority());
-        if (agentOpt.isEmpty()) {
+        // Find candidate agents for this ticket, best first
+        List<Agent> candidates = findCandidateAgentsForTicket(ticket);
+        if (candidates.isEmpty()) {
             logger.warn("No suitable agent found for ticket: {}", ticketId);
             // Update status to indicate no agent is available
             ticket.setStatus(Status.NO_AGENT_AVAILABLE);
+            pendingAssignmentQueue.add(ticket);
             return ticketRepository.save(ticket);
         }
         
-        Agent agent = agentOpt.get();
-        
-        // Verify the agent is active
-        if (!agent.isActive()) {
-            logger.warn("Selected agent {} is inactive. Cannot assign ticket {}", agent.getId(), ticketId);
-            ticket.setStatus(Status.NO_AGENT_AVAILABLE);
-            return ticketRepository.save(ticket);
+        // Reserve capacity atomically in the database. The candidate list may be stale
+        // when tickets are assigned concurrently, so a failed reservation moves on to
+        // the next-best agent instead of overbooking this one.
+        int ticketWeight = ticket.getPriority().getWeight();
+        Agent agent = null;
+        for (Agent candidate : candidates) {
+            if (agentRepository.tryReserveWorkload(candidate, ticketWeight)) {
+                agent = candidate;
+                break;
+            }
+            logger.info("Agent {} filled up or went inactive before ticket {} could be reserved, trying next agent",
+                candidate.getId(), ticketId);
         }
         
-        // Double-check agent can handle this ticket's weight
-        int ticketWeight = ticket.getPriority().getWeight();
-        if (!agent.hasCapacityFor(ticketWeight)) {
-            logger.warn("Agent {} cannot handle ticket {} with weight {}: current workload {} exceeds capacity {}",
-                agent.getId(), ticketId, ticketWeight, agent.getCurrentWorkload(), agent.getTotalCapacity());
+        if (agent == null) {
+            logger.warn("All {} candidate agents were taken for ticket {} with weight {}",
+                candidates.size(), ticketId, ticketWeight);
             ticket.setStatus(Status.NO_AGENT_AVAILABLE);
+            pendingAssignmentQueue.add(ticket);
             return ticketRepository.save(ticket);
         }
         
         // Assign the ticket to the agent
         ticket.setAssignedTicket(agent);
         ticket.setStatus(Status.ASSIGNED);
-        
-        // Update agent's workload
-        agent.addWorkload(ticket.getPriority().getWeight());
         logger.info("Assigned ticket {} to agent {}. New workload: {}/{}",
             ticketId, agent.getId(), agent.getCurrentWorkload(), agent.getTotalCapacity());
         
         // Save changes
-        agentRepository.save(agent);
         Ticket updatedTicket = ticketRepository.save(ticket);
+        pendingAssignmentQueue.remove(ticketId);
+        chatHistoryCache.invalidate(String.valueOf(ticketId));
 
 
         String emailSubject = "Ticket Notification";
@@ -282,6 +347,7 @@ public class AgentService {
      * @return the completed ticket or null if not possible
      */
     @Transactional
+    @Observed(name = "tickets.complete", lowCardinalityKeyValues = {"by", "agent"})
     public Ticket completeTicket(Long ticketId, Long agentId) {
         // Find the ticket
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
@@ -319,7 +385,7 @@ public class AgentService {
                 agentId, performancePoints, ticketId);
         
         // Update agent's workload and completed tickets count with performance points
-        agent.reduceWorkload(ticket.getPriority().getWeight());
+        agentRepository.adjustWorkload(agent, -ticket.getPriority().getWeight());
         agent.addCompletedTicketWithPoints(performancePoints);
         
         // Update ticket status
@@ -328,6 +394,7 @@ public class AgentService {
         // Save changes
         agentRepository.save(agent);
         Ticket updatedTicket = ticketRepository.save(ticket);
+        recordCompletion(updatedTicket);
         
         // Create notification for user about ticket completion by agent
         Notification userNotification = new Notification();
@@ -356,6 +423,16 @@ public class AgentService {
         return updatedTicket;
     }
     
+    /**
+     * Add a completed ticket to its agent's matching profile and leaderboard standing.
+     * 
+     * @param ticket the completed ticket, with its performance points set
+     */
+    public void recordCompletion(Ticket ticket) {
+        matchingEngine.recordCompletion(ticket);
+        agentLeaderboard.recordCompletion(ticket);
+    }
+    
     /**
      * Calculate performance points based on priority, category, and completion time.
      * Uses an efficiency-based formula that rewards early completion and slightly penalizes late completion.
@@ -428,6 +505,53 @@ public class AgentService {
         return agentRepository.findById(agentId);
     }
     
+    /**
+     * Get an agent's capacity and ticket counts.
+     * Tickets are counted per status in the database instead of being loaded.
+     * 
+     * @param agentId the agent ID
+     * @return the agent's stats or empty if not found
+     */
+    public Optional<AgentStatsDTO> getAgentStats(Long agentId) {
+        return agentRepository.findById(agentId).map(agent -> {
+            Map<Status, Long> counts = new EnumMap<>(Status.class);
+            for (Object[] row : ticketRepository.countByStatusForAgent(agentId)) {
+                if (row[0] != null) {
+                    counts.put((Status) row[0], ((Number) row[1]).longValue());
+                }
+            }
+            return AgentStatsDTO.of(agent.getId(), agent.getUser().getUsername(), agent.getLevel(),
+                    agent.getBaseCapacity(), agent.getTotalCapacity(), agent.getCurrentWorkload(),
+                    agent.getCompletedTickets(), counts);
+        });
+    }
+    
+    /**
+     * Get the stats of every agent with a single grouped query.
+     * 
+     * @return stats of all agents, by agent ID
+     */
+    public List<AgentStatsDTO> getAllAgentStats() {
+        Map<Long, Object[]> agents = new LinkedHashMap<>();
+        Map<Long, Map<Status, Long>> counts = new LinkedHashMap<>();
+        for (Object[] row : agentRepository.summarizeTicketStatsByAgent()) {
+            Long agentId = ((Number) row[0]).longValue();
+            agents.putIfAbsent(agentId, row);
+            Map<Status, Long> agentCounts = counts.computeIfAbsent(agentId, id -> new EnumMap<>(Status.class));
+            if (row[7] != null) {
+                agentCounts.put((Status) row[7], ((Number) row[8]).longValue());
+            }
+        }
+        return agents.entrySet().stream()
+                .map(entry -> {
+                    Object[] row = entry.getValue();
+                    return AgentStatsDTO.of(entry.getKey(), (String) row[1], (AgentLevel) row[2],
+                            ((Number) row[3]).intValue(), ((Number) row[4]).intValue(), ((Number) row[5]).intValue(),
+                            ((Number) row[6]).intValue(), counts.get(entry.getKey()));
+                })
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Find available agents for assignment.
      * 
@@ -439,7 +563,8 @@ public class AgentService {
     
     /**
      * Set an agent's active status.
-     * When deactivating an agent, their current tickets will be reassigned.
+     * When deactivating an agent, an AgentDeactivatedEvent is published and their
+     * open tickets are reassigned by AgentDeactivationListener once this commits.
      * 
      * @param agentId the agent ID
      * @param active the new active status
@@ -461,13 +586,9 @@ public class AgentService {
                 agentId, active ? "active" : "inactive");
                 
             // Even if the agent is already inactive, check for any tickets that might still be assigned
-            if (!active) {
-                List<Ticket> assignedTickets = ticketRepository.findByAssignedTicket_Id(agentId);
-                if (!assignedTickets.isEmpty()) {
-                    logger.warn("Agent {} is already inactive but still has {} tickets assigned. Forcing reassignment.",
-                        agentId, assignedTickets.size());
-                    forceReassignTickets(agent, assignedTickets);
-                }
+            if (!active && ticketRepository.existsByAssignedTicket_IdAndStatusNot(agentId, Status.COMPLETED)) {
+                logger.warn("Agent {} is already inactive but still has open tickets. Forcing reassignment.", agentId);
+                publishAgentDeactivated(agent);
             }
             
             return Optional.of(agent);
@@ -476,83 +597,25 @@ public class AgentService {
         logger.info("Changing agent {} status from {} to {}", 
             agentId, agent.isActive() ? "active" : "inactive", active ? "active" : "inactive");
         
-        // If we're deactivating an agent, reassign their tickets first
-        if (!active) {
-            logger.info("Deactivating agent {} and reassigning tickets", agentId);
-            
-            // Count how many tickets will be affected
-            List<Ticket> activeTickets = ticketRepository.findByAssignedTicket_Id(agentId)
-                .stream()
-                .filter(ticket -> ticket.getStatus() != Status.COMPLETED)
-                .collect(Collectors.toList());
-                
-            int ticketCount = activeTickets.size();
-            if (ticketCount > 0) {
-                logger.info("Agent {} has {} active tickets that will be reassigned", 
-                    agentId, ticketCount);
-                forceReassignTickets(agent, activeTickets);
-            } else {
-                logger.info("Agent {} has no active tickets to reassign", agentId);
-            }
-        }
-        
         // Update agent status
         agent.setActive(active);
         Agent savedAgent = agentRepository.save(agent);
         logger.info("Agent {} active status changed to {}", agentId, active);
         
-        // Verify tickets were actually reassigned if deactivating
         if (!active) {
-            List<Ticket> remainingTickets = ticketRepository.findByAssignedTicket_Id(agentId)
-                .stream()
-                .filter(ticket -> ticket.getStatus() != Status.COMPLETED)
-                .collect(Collectors.toList());
-                
-            if (!remainingTickets.isEmpty()) {
-                logger.warn("Agent {} still has {} active tickets after deactivation. Forcing reassignment.", 
-                    agentId, remainingTickets.size());
-                forceReassignTickets(agent, remainingTickets);
-            }
+            publishAgentDeactivated(savedAgent);
         }
         
         return Optional.of(savedAgent);
     }
     
     /**
-     * Force reassignment of tickets from an agent without attempting to assign them to new agents.
-     * This is used when we need to guarantee tickets are unassigned from an agent.
+     * Announce that an agent has been deactivated so their open tickets get reassigned.
      * 
-     * @param agent The agent to unassign tickets from
-     * @param tickets The tickets to unassign
+     * @param agent the deactivated agent
      */
-    @Transactional
-    private void forceReassignTickets(Agent agent, List<Ticket> tickets) {
-        if (agent == null || tickets == null || tickets.isEmpty()) {
-            return;
-        }
-        
-        logger.info("Forcing reassignment of {} tickets from agent {}", tickets.size(), agent.getId());
-        
-        // Calculate total workload to remove
-        int totalWorkload = tickets.stream()
-            .mapToInt(ticket -> ticket.getPriority().getWeight())
-            .sum();
-            
-        // Update agent's workload
-        agent.setCurrentWorkload(Math.max(0, agent.getCurrentWorkload() - totalWorkload));
-        agentRepository.save(agent);
-        
-        // Unassign all tickets
-        for (Ticket ticket : tickets) {
-            ticket.setAssignedTicket(null);
-            ticket.setStatus(Status.NO_AGENT_AVAILABLE);
-            ticketRepository.save(ticket);
-            
-            // Create notification for user
-            notificationService.createNoAgentAvailableNotification(ticket);
-            
-            logger.info("Unassigned ticket {} from agent {}", ticket.getTicketId(), agent.getId());
-        }
+    public void publishAgentDeactivated(Agent agent) {
+        eventPublisher.publishEvent(new AgentDeactivatedEvent(agent.getId()));
     }
     
     /**
@@ -594,10 +657,7 @@ public class AgentService {
         logger.info("Starting ticket reassignment for agent {}", agent.getId());
 
         // Find all tickets assigned to this agent that are not completed
-        List<Ticket> agentTickets = ticketRepository.findByAssignedTicket_Id(agent.getId())
-            .stream()
-            .filter(ticket -> ticket.getStatus() != Status.COMPLETED)
-            .collect(Collectors.toList());
+        List<Ticket> agentTickets = ticketRepository.findByAssignedTicket_IdAndStatusNot(agent.getId(), Status.COMPLETED);
 
         if (agentTickets.isEmpty()) {
             logger.info("No active tickets to reassign for agent {}", agent.getId());
@@ -612,8 +672,7 @@ public class AgentService {
             .sum();
             
         // Reset agent's workload
-        agent.setCurrentWorkload(Math.max(0, agent.getCurrentWorkload() - totalWorkloadToRemove));
-        agentRepository.save(agent);
+        agentRepository.adjustWorkload(agent, -totalWorkloadToRemove);
         
         logger.info("Reset workload for agent {}. Removed {} points of workload.", 
             agent.getId(), totalWorkloadToRemove);
@@ -628,6 +687,7 @@ public class AgentService {
             ticket.setAssignedTicket(null);
             ticket.setStatus(Status.NO_AGENT_AVAILABLE);
             ticketRepository.save(ticket);
+            chatHistoryCache.invalidate(String.valueOf(ticket.getTicketId()));
 
             // Try to assign to a new agent
             Ticket updatedTicket = assignTicketToAgent(ticket.getTicketId());
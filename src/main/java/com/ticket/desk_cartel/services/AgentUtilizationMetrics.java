@@ -0,0 +1,89 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gauges for active agents, their workload, capacity and utilization (workload / capacity).
+ * Values come from one aggregate query refreshed on a fixed delay, so a metrics scrape
+ * or an ops snapshot never touches the database.
+ */
+@Component
+public class AgentUtilizationMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentUtilizationMetrics.class);
+
+    /**
+     * Active agents of one level.
+     */
+    public record LevelUtilization(long agents, long workload, long capacity) {
+
+        public static final LevelUtilization NONE = new LevelUtilization(0, 0, 0);
+
+        public double utilization() {
+            return capacity > 0 ? (double) workload / capacity : 0.0;
+        }
+
+        LevelUtilization plus(LevelUtilization other) {
+            return new LevelUtilization(agents + other.agents, workload + other.workload, capacity + other.capacity);
+        }
+    }
+
+    private final AgentRepository agentRepository;
+
+    private volatile Map<AgentLevel, LevelUtilization> byLevel = Map.of();
+    private volatile LevelUtilization total = LevelUtilization.NONE;
+
+    public AgentUtilizationMetrics(AgentRepository agentRepository, MeterRegistry meterRegistry) {
+        this.agentRepository = agentRepository;
+        Gauge.builder("agents.active", this, metrics -> metrics.total.agents())
+                .register(meterRegistry);
+        Gauge.builder("agents.workload", this, metrics -> metrics.total.workload())
+                .description("Summed workload of active agents")
+                .register(meterRegistry);
+        Gauge.builder("agents.capacity", this, metrics -> metrics.total.capacity())
+                .description("Summed capacity of active agents")
+                .register(meterRegistry);
+        Gauge.builder("agents.utilization", this, metrics -> metrics.total.utilization())
+                .description("Workload / capacity over active agents")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.agents.refresh-ms:15000}", scheduler = ExecutorConfig.RECONCILIATION_SCHEDULER)
+    public void refresh() {
+        Map<AgentLevel, LevelUtilization> levels = new EnumMap<>(AgentLevel.class);
+        LevelUtilization sum = LevelUtilization.NONE;
+        for (Object[] row : agentRepository.summarizeActiveCapacityByLevel()) {
+            LevelUtilization level = new LevelUtilization(((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+            if (row[0] != null) {
+                levels.put((AgentLevel) row[0], level);
+            }
+            sum = sum.plus(level);
+        }
+        byLevel = levels;
+        total = sum;
+        logger.debug("Agent utilization: {} active agents, workload {} of {}", sum.agents(), sum.workload(), sum.capacity());
+    }
+
+    /**
+     * @return active agents per level, as of the last refresh
+     */
+    public Map<AgentLevel, LevelUtilization> byLevel() {
+        return byLevel;
+    }
+
+    public LevelUtilization total() {
+        return total;
+    }
+}
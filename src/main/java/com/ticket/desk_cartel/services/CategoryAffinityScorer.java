@@ -0,0 +1,45 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Ticket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefers agents who have completed tickets of the same category, and done them well.
+ * Experience grows with the number of completed tickets in the category: 5 tickets
+ * count for half, and more tickets count for less each. It is scaled by the agent's
+ * efficiency in that category: performance points earned over base points
+ * (priority weight x category points). Efficiency is 1.0 when on time and 1.5 at most.
+ */
+@Component
+public class CategoryAffinityScorer implements AgentScorer {
+
+    private static final double EXPERIENCE_HALF_POINT = 5.0;
+    private static final double MAX_EFFICIENCY = 1.5;
+
+    private final double weight;
+
+    public CategoryAffinityScorer(@Value("${matching.weights.category-affinity:0.5}") double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public double score(Agent agent, AgentProfileCache.AgentProfile profile, Ticket ticket) {
+        if (ticket.getCategory() == null) {
+            return 0;
+        }
+        AgentProfileCache.CategoryStats stats = profile.forCategory(ticket.getCategory().getCategoryId());
+        if (stats == null || stats.completed() == 0) {
+            return 0;
+        }
+        double experience = stats.completed() / (stats.completed() + EXPERIENCE_HALF_POINT);
+        double efficiency = Math.min(stats.efficiency(), MAX_EFFICIENCY) / MAX_EFFICIENCY;
+        return experience * efficiency;
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+}
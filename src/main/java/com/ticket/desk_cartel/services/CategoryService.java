@@ -11,10 +11,12 @@ import java.util.Optional;
 @Service
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
 
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ReferenceDataCache referenceDataCache) {
         this.categoryRepository = categoryRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     public Category categoryCreation(String name, String description, int points, boolean isActive) throws AuthException {
@@ -25,13 +27,9 @@ public class CategoryService {
 
         Category category = new Category(name, description, points, isActive);
 
-        return categoryRepository.save(category);
-
-
-
-
-
-
+        Category saved = categoryRepository.save(category);
+        referenceDataCache.categoriesChanged();
+        return saved;
     }
 
     public List<Category> getAllCategories(){
@@ -57,8 +55,9 @@ public class CategoryService {
 
         existingCategory.get().setActive(false);
 
-        Category category = existingCategory.get();
-        return categoryRepository.save(category);
+        Category category = categoryRepository.save(existingCategory.get());
+        referenceDataCache.categoriesChanged();
+        return category;
 
 
     }
@@ -84,7 +83,9 @@ public class CategoryService {
         category.setDescription(description);
         category.setPoints(points);
         category.setActive(isActive);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        referenceDataCache.categoriesChanged();
+        return saved;
     }
 
 
@@ -0,0 +1,131 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.events.ChatHistoryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the serialized ticket chat history of recently viewed tickets.
+ * A ticket's entry is built on the first history load and reused for every user
+ * loading the same ticket until the next message for that ticket is saved.
+ * Every invalidation bumps a generation counter; a load only stores its result if no
+ * invalidation happened while it ran, so history read before a commit is never cached
+ * after that commit's invalidation.
+ */
+@Component
+public class ChatHistoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatHistoryCache.class);
+
+    private final SerializedPayloadSender payloadSender;
+    private final ClusterEventBroadcaster clusterEventBroadcaster;
+    private final Map<String, byte[]> histories;
+    // Guarded by histories
+    private long generation;
+
+    public ChatHistoryCache(SerializedPayloadSender payloadSender, ClusterEventBroadcaster clusterEventBroadcaster,
+                            @Value("${cache.chat-history.max-tickets:500}") int maxTickets) {
+        this.payloadSender = payloadSender;
+        this.clusterEventBroadcaster = clusterEventBroadcaster;
+        this.histories = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxTickets;
+            }
+        });
+    }
+
+    /**
+     * Get the history frame for a ticket, serializing it only on a cache miss.
+     * The requestId differs per request, so it is spliced into the cached JSON
+     * object instead of being part of the cached bytes.
+     * @param ticketId The ticket the history belongs to
+     * @param requestId The client request id to echo back (may be empty)
+     * @param historyLoader Builds the history map on a cache miss
+     * @return The complete JSON frame
+     */
+    public byte[] getHistoryFrame(String ticketId, String requestId, Supplier<Map<String, Object>> historyLoader) {
+        byte[] body;
+        long loadGeneration;
+        synchronized (histories) {
+            body = histories.get(ticketId);
+            loadGeneration = generation;
+        }
+        if (body == null) {
+            body = payloadSender.serialize(historyLoader.get());
+            synchronized (histories) {
+                if (loadGeneration == generation) {
+                    histories.put(ticketId, body);
+                    logger.debug("📦 Cached serialized history for ticket {} ({} bytes)", ticketId, body.length);
+                }
+            }
+        }
+        return prependField(body, "requestId", requestId != null ? requestId : "");
+    }
+
+    /**
+     * Drop the cached history of a ticket, here and on the other nodes. Called when a
+     * message for the ticket is saved; inside a transaction the entry is dropped again
+     * after commit so that a concurrent load cannot re-cache the history without the new message.
+     */
+    public void invalidate(String ticketId) {
+        if (ticketId == null) {
+            return;
+        }
+        evict(ticketId);
+        AfterCommit.run(() -> {
+            evict(ticketId);
+            clusterEventBroadcaster.broadcastChatHistoryChanged(ticketId);
+        });
+    }
+
+    /**
+     * Drop a history after a message was saved on another node.
+     */
+    @EventListener
+    public void onChatHistoryChanged(ChatHistoryChangedEvent event) {
+        evict(event.getTicketId());
+    }
+
+    private void evict(String ticketId) {
+        synchronized (histories) {
+            generation++;
+            histories.remove(ticketId);
+        }
+    }
+
+    public int size() {
+        return histories.size();
+    }
+
+    // Turns {"a":1} into {"field":value,"a":1} without re-serializing the object
+    private byte[] prependField(byte[] jsonObject, String field, Object value) {
+        byte[] prefix = ("{\"" + field + "\":").getBytes(StandardCharsets.UTF_8);
+        byte[] encodedValue = payloadSender.serialize(value);
+        boolean empty = jsonObject.length <= 2;
+
+        byte[] frame = new byte[prefix.length + encodedValue.length + (empty ? 1 : jsonObject.length)];
+        int offset = 0;
+        System.arraycopy(prefix, 0, frame, offset, prefix.length);
+        offset += prefix.length;
+        System.arraycopy(encodedValue, 0, frame, offset, encodedValue.length);
+        offset += encodedValue.length;
+        if (empty) {
+            frame[offset] = '}';
+        } else {
+            frame[offset++] = ',';
+            System.arraycopy(jsonObject, 1, frame, offset, jsonObject.length - 1);
+        }
+        return frame;
+    }
+}
@@ -5,6 +5,7 @@ import com.ticket.desk_cartel.entities.ChatMessage;
 import com.ticket.desk_cartel.entities.User;
 import com.ticket.desk_cartel.repositories.ChatMessageRepository;
 import com.ticket.desk_cartel.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +17,6 @@ import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,10 +28,15 @@ public class ChatService {
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
     private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ChatHistoryCache chatHistoryCache;
 
-    public ChatService(ChatMessageRepository chatMessageRepository, UserRepository userRepository) {
+    public ChatService(ChatMessageRepository chatMessageRepository, UserRepository userRepository,
+                       UserIdentityCache userIdentityCache, ChatHistoryCache chatHistoryCache) {
         this.chatMessageRepository = chatMessageRepository;
         this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.chatHistoryCache = chatHistoryCache;
     }
 
     /**
@@ -41,6 +46,7 @@ public class ChatService {
      * @throws RuntimeException if sender or receiver not found
      */
     @Transactional
+    @Observed(name = "chat.message.save")
     public ChatMessage saveMessage(ChatMessageDTO chatMessageDTO) {
         try {
             logger.info("🔄 Starting to save message from '{}' to '{}'", 
@@ -48,14 +54,15 @@ public class ChatService {
             
             // No need to ensure users exist here - they're created at app startup
             
-            // Get the sender and receiver from the database
-            User sender = userRepository.findByUsername(chatMessageDTO.getSenderUsername())
+            // Resolve sender and receiver through the identity cache. These are lazy
+            // references, so only the ids are needed to write the message row.
+            User sender = userIdentityCache.getReference(chatMessageDTO.getSenderUsername())
                     .orElseThrow(() -> new RuntimeException("Sender not found: " + chatMessageDTO.getSenderUsername()));
             
-            User receiver = userRepository.findByUsername(chatMessageDTO.getReceiverUsername())
+            User receiver = userIdentityCache.getReference(chatMessageDTO.getReceiverUsername())
                     .orElseThrow(() -> new RuntimeException("Receiver not found: " + chatMessageDTO.getReceiverUsername()));
             
-            logger.info("✅ Found both sender (ID:{}) and receiver (ID:{}) in database", 
+            logger.info("✅ Resolved sender (ID:{}) and receiver (ID:{})", 
                 sender.getId(), receiver.getId());
             
             // Create a new message entity
@@ -79,8 +86,14 @@ public class ChatService {
             
             // Save the message
             ChatMessage savedMessage = chatMessageRepository.save(chatMessage);
+            
+            // The cached history of this ticket no longer includes every message
+            if (chatMessage.getTicketId() != null) {
+                chatHistoryCache.invalidate(chatMessage.getTicketId());
+            }
+            
             logger.info("✅ Message saved with ID {}: from {} to {}", 
-                      savedMessage.getId(), sender.getUsername(), receiver.getUsername());
+                      savedMessage.getId(), chatMessageDTO.getSenderUsername(), chatMessageDTO.getReceiverUsername());
             
             return savedMessage;
         } catch (Exception e) {
@@ -248,25 +261,13 @@ public class ChatService {
                 logger.info("📝 Creating initial system message for empty ticket chat {}", ticketId);
                 
                 try {
-                    User systemUser = userRepository.findByUsername("SYSTEM")
-                        .orElseGet(() -> {
-                            // Create SYSTEM user if it doesn't exist
-                            User system = new User();
-                            system.setUsername("SYSTEM");
-                            system.setEmail("system@system.com");
-                            system.setPassword("$2a$10$dummypasswordhash");
-                            return userRepository.save(system);
-                        });
+                    // System users are pinned at startup, only fall back to the database
+                    // if startup initialization did not run
+                    User systemUser = userIdentityCache.getPinned("SYSTEM")
+                        .orElseGet(() -> loadOrCreateSystemUser("SYSTEM", "system@system.com"));
                     
-                    User publicUser = userRepository.findByUsername("PUBLIC_CHAT")
-                        .orElseGet(() -> {
-                            // Create PUBLIC_CHAT user if it doesn't exist
-                            User publicChat = new User();
-                            publicChat.setUsername("PUBLIC_CHAT");
-                            publicChat.setEmail("public@system.com");
-                            publicChat.setPassword("$2a$10$dummypasswordhash");
-                            return userRepository.save(publicChat);
-                        });
+                    User publicUser = userIdentityCache.getPinned("PUBLIC_CHAT")
+                        .orElseGet(() -> loadOrCreateSystemUser("PUBLIC_CHAT", "public@system.com"));
                     
                     // Create welcome message
                     ChatMessage welcomeMessage = new ChatMessage();
@@ -292,6 +293,22 @@ public class ChatService {
         }
     }
 
+    /**
+     * Load a system user, creating it if it doesn't exist, and pin it in the identity cache
+     */
+    private User loadOrCreateSystemUser(String username, String email) {
+        User user = userRepository.findByUsername(username)
+            .orElseGet(() -> {
+                User system = new User();
+                system.setUsername(username);
+                system.setEmail(email);
+                system.setPassword("$2a$10$dummypasswordhash");
+                return userRepository.save(system);
+            });
+        userIdentityCache.pin(user);
+        return user;
+    }
+
     /**
      * Get all messages and participant information for a specific ticket
      * @param ticketId The ticket ID to get messages for
@@ -314,11 +331,6 @@ public class ChatService {
             String clientUsername = null;
             String agentUsername = null;
             
-            // Always add essential users (admin and known agents)
-            participants.add("admin");
-            participants.add("neil");  // Admin user
-            participants.add("marie"); // Agent
-            
             // Analyze messages to determine participants
             for (ChatMessage message : messages) {
                 String sender = message.getSender().getUsername();
@@ -349,9 +361,6 @@ public class ChatService {
                 }
             }
             
-            // Add ticket creator and assigned agent based on ticketId lookup (if implemented)
-            // TODO: In a real implementation, you'd look up the ticket by ID and add the client and agent
-
             // Log all participants 
             logger.info("👥 Final participants for ticket {}: {}", ticketId, participants);
             
@@ -383,7 +392,7 @@ public class ChatService {
             errorResult.put("ticketId", ticketId);
             errorResult.put("error", e.getMessage());
             errorResult.put("messages", new ArrayList<>());
-            errorResult.put("participants", new ArrayList<>(Arrays.asList("admin", "neil", "marie")));
+            errorResult.put("participants", new ArrayList<>());
             return errorResult;
         }
     }
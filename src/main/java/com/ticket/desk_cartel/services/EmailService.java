@@ -0,0 +1,53 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends plain-text emails on the mail executor.
+ * Kept in its own bean so every caller goes through the @Async proxy.
+ */
+@Service
+public class EmailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+    private final JavaMailSender mailSender;
+    private final Counter failures;
+
+    public EmailService(JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.failures = meterRegistry.counter("mail.send.failures");
+    }
+
+    /**
+     * Sends an email with a given subject and message.
+     * Runs on the mail executor, so callers never wait on SMTP.
+     * Failures are logged and counted as mail.send.failures.
+     */
+    @Async(ExecutorConfig.MAIL_EXECUTOR)
+    @Observed(name = "mail.send")
+    public void sendEmail(String to, String subject, String text) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(to);
+            message.setSubject(subject);
+            message.setText(text);
+            mailSender.send(message);
+
+            logger.info("✅ Email sent successfully to: {}", to);
+        } catch (MailException e) {
+            failures.increment();
+            logger.error("❌ Email sending failed to: {}", to, e);
+        }
+    }
+}
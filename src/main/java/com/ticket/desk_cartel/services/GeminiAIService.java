@@ -1,27 +1,37 @@
 package com.ticket.desk_cartel.services;
 
+import com.ticket.desk_cartel.configs.ExecutorConfig;
 import com.ticket.desk_cartel.entities.Priority;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpObservationInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class GeminiAIService {
     
     private static final Logger logger = LoggerFactory.getLogger(GeminiAIService.class);
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .callTimeout(java.time.Duration.ofSeconds(30))
-            .readTimeout(java.time.Duration.ofSeconds(30))
-            .build();
+    private final OkHttpClient client;
+    private final Counter fallbacks;
             
     private final ObjectMapper objectMapper = new ObjectMapper();
     
@@ -31,7 +41,32 @@ public class GeminiAIService {
     @Autowired
     private PriorityService priorityService;
     
-    private final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent";
+    // Bounded pool for Gemini calls; a full pool falls back to keyword matching
+    @Autowired
+    @Qualifier(ExecutorConfig.AI_EXECUTOR)
+    private Executor aiExecutor;
+    
+    // Overridden by the load test to point at a local stub
+    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}")
+    private String geminiApiUrl;
+    
+    // Each call is a client span and the ai.gemini.request timer (tagged with status and outcome)
+    @Autowired
+    public GeminiAIService(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.fallbacks = meterRegistry.counter("ai.priority.fallback");
+        this.client = new OkHttpClient.Builder()
+                .callTimeout(java.time.Duration.ofSeconds(30))
+                .readTimeout(java.time.Duration.ofSeconds(30))
+                .addInterceptor(OkHttpObservationInterceptor.builder(observationRegistry, "ai.gemini.request")
+                        .uriMapper(request -> "generateContent")
+                        .build())
+                .build();
+    }
+    
+    // For KeywordPriorityBenchmark, which never calls Gemini
+    GeminiAIService() {
+        this(ObservationRegistry.NOOP, new SimpleMeterRegistry());
+    }
     
     /**
      * Suggests a priority level for a ticket based on title and description
@@ -42,15 +77,23 @@ public class GeminiAIService {
      * @param category Category of the ticket
      * @return Suggested priority level
      */
+    @Observed(name = "ai.priority.suggest")
     public Priority suggestPriority(String title, String description, String category) {
         try {
             logger.info("Requesting priority suggestion from Gemini AI for ticket: {}", title);
             
-            // Try to get priority from Gemini API
-            return callGeminiForPriority(title, description, category);
+            // Try to get priority from Gemini API, on the AI pool and slightly past the HTTP call timeout
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return callGeminiForPriority(title, description, category);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, aiExecutor).get(35, TimeUnit.SECONDS);
             
         } catch (Exception e) {
             logger.error("Failed to get priority from Gemini API, falling back to keyword analysis", e);
+            fallbacks.increment();
             
             // Fallback to keyword-based priority detection
             return keywordBasedPriority(title, description, category);
@@ -90,7 +133,9 @@ public class GeminiAIService {
             
             // Create API request
             Request request = new Request.Builder()
-                    .url(GEMINI_API_URL + "?key=" + apiKey)
+                    .url(geminiApiUrl)
+                    // In a header rather than the query string, so the key stays out of spans and logs
+                    .header("x-goog-api-key", apiKey)
                     .post(RequestBody.create(objectMapper.writeValueAsString(requestBody), 
                           MediaType.parse("application/json")))
                     .build();
@@ -158,9 +203,10 @@ public class GeminiAIService {
     }
     
     /**
-     * Fallback method that determines priority based on keywords in title and description
+     * Fallback method that determines priority based on keywords in title and description.
+     * Package-private for KeywordPriorityBenchmark.
      */
-    private Priority keywordBasedPriority(String title, String description, String category) {
+    Priority keywordBasedPriority(String title, String description, String category) {
         logger.info("Using keyword-based priority detection as fallback");
         String text = (title + " " + description).toLowerCase();
         
@@ -0,0 +1,33 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Ticket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefers more senior agents: JUNIOR scores 0, SENIOR 1.
+ */
+@Component
+public class LevelScorer implements AgentScorer {
+
+    private static final int TOP_LEVEL = AgentLevel.values().length - 1;
+
+    private final double weight;
+
+    public LevelScorer(@Value("${matching.weights.level:0.2}") double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public double score(Agent agent, AgentProfileCache.AgentProfile profile, Ticket ticket) {
+        AgentLevel level = agent.getLevel();
+        return level != null && TOP_LEVEL > 0 ? (double) level.ordinal() / TOP_LEVEL : 0;
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Ticket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefers agents with the most capacity left once the ticket is added,
+ * which spreads work evenly (the previous assignment rule on its own).
+ */
+@Component
+public class LoadScorer implements AgentScorer {
+
+    private final double weight;
+
+    public LoadScorer(@Value("${matching.weights.load:0.3}") double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public double score(Agent agent, AgentProfileCache.AgentProfile profile, Ticket ticket) {
+        if (agent.getTotalCapacity() <= 0) {
+            return 0;
+        }
+        int ticketWeight = ticket.getPriority() != null ? ticket.getPriority().getWeight() : 0;
+        double load = (double) (agent.getCurrentWorkload() + ticketWeight) / agent.getTotalCapacity();
+        return Math.max(0, 1 - load);
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.configs.PresenceRegistry;
+import com.ticket.desk_cartel.dto.OpsSnapshotDTO;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the ops snapshot for admins and pushes what changed to /topic/admin.ops.
+ * Every figure is read from memory, never from a table scan:
+ * ticket counts from TicketStatusCounters, the waiting queue from PendingAssignmentQueue,
+ * agent load from AgentUtilizationMetrics, executor queues and WebSocket presence directly.
+ * Delta messages carry only the keys whose value changed since the previous push
+ * (dotted names as in {@link #flatten}; a key that disappeared is sent as null).
+ */
+@Service
+public class OpsSnapshotService {
+
+    public static final String TOPIC = "/topic/admin.ops";
+
+    private static final Logger logger = LoggerFactory.getLogger(OpsSnapshotService.class);
+
+    private final TicketStatusCounters ticketStatusCounters;
+    private final PendingAssignmentQueue pendingAssignmentQueue;
+    private final AgentUtilizationMetrics agentUtilizationMetrics;
+    private final PresenceRegistry presenceRegistry;
+    private final ThreadPoolTaskExecutor mailExecutor;
+    private final ThreadPoolTaskExecutor aiExecutor;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final String nodeId;
+
+    private Map<String, Object> lastPushed = Map.of();
+
+    public OpsSnapshotService(TicketStatusCounters ticketStatusCounters,
+                              PendingAssignmentQueue pendingAssignmentQueue,
+                              AgentUtilizationMetrics agentUtilizationMetrics,
+                              PresenceRegistry presenceRegistry,
+                              @Qualifier(ExecutorConfig.MAIL_EXECUTOR) ThreadPoolTaskExecutor mailExecutor,
+                              @Qualifier(ExecutorConfig.AI_EXECUTOR) ThreadPoolTaskExecutor aiExecutor,
+                              SimpMessagingTemplate messagingTemplate,
+                              SchedulerLeaseService schedulerLeaseService) {
+        this.ticketStatusCounters = ticketStatusCounters;
+        this.pendingAssignmentQueue = pendingAssignmentQueue;
+        this.agentUtilizationMetrics = agentUtilizationMetrics;
+        this.presenceRegistry = presenceRegistry;
+        this.mailExecutor = mailExecutor;
+        this.aiExecutor = aiExecutor;
+        this.messagingTemplate = messagingTemplate;
+        this.nodeId = schedulerLeaseService.getNodeId();
+    }
+
+    public OpsSnapshotDTO snapshot() {
+        Map<AgentLevel, OpsSnapshotDTO.AgentLevelLoad> agents = new EnumMap<>(AgentLevel.class);
+        agentUtilizationMetrics.byLevel().forEach((level, load) -> agents.put(level,
+                new OpsSnapshotDTO.AgentLevelLoad(load.agents(), load.workload(), load.capacity(), load.utilization())));
+
+        Map<String, OpsSnapshotDTO.ExecutorLoad> executors = new LinkedHashMap<>();
+        executors.put("mail", new OpsSnapshotDTO.ExecutorLoad(mailExecutor.getQueueSize(), mailExecutor.getActiveCount()));
+        executors.put("ai", new OpsSnapshotDTO.ExecutorLoad(aiExecutor.getQueueSize(), aiExecutor.getActiveCount()));
+
+        return new OpsSnapshotDTO(Instant.now(), nodeId, ticketStatusCounters.snapshot(),
+                new TreeMap<>(pendingAssignmentQueue.countsByPriority()), agents, executors,
+                presenceRegistry.getSessionCount(), presenceRegistry.getUserCount());
+    }
+
+    @Scheduled(fixedDelayString = "${ops.snapshot.push-ms:5000}", scheduler = ExecutorConfig.HEARTBEAT_SCHEDULER)
+    public void pushChanges() {
+        Map<String, Object> current = flatten(snapshot());
+        Map<String, Object> changes = changes(lastPushed, current);
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("node", nodeId);
+        message.put("changes", changes);
+        try {
+            messagingTemplate.convertAndSend(TOPIC, message);
+            lastPushed = current;
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to push ops snapshot changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One entry per figure, e.g. tickets.ASSIGNED, pending.HIGH, agents.JUNIOR.utilization,
+     * executors.mail.queued, websocket.sessions.
+     */
+    static Map<String, Object> flatten(OpsSnapshotDTO snapshot) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        snapshot.ticketsByStatus().forEach((status, count) -> values.put("tickets." + status, count));
+        snapshot.pendingByPriority().forEach((priority, count) -> values.put("pending." + priority, count));
+        snapshot.agentsByLevel().forEach((level, load) -> {
+            values.put("agents." + level + ".agents", load.agents());
+            values.put("agents." + level + ".workload", load.workload());
+            values.put("agents." + level + ".capacity", load.capacity());
+            values.put("agents." + level + ".utilization", load.utilization());
+        });
+        snapshot.executors().forEach((name, load) -> {
+            values.put("executors." + name + ".queued", load.queued());
+            values.put("executors." + name + ".active", load.active());
+        });
+        values.put("websocket.sessions", snapshot.websocketSessions());
+        values.put("websocket.users", snapshot.onlineUsers());
+        return values;
+    }
+
+    /**
+     * @return the entries of current that differ from previous, and null for keys no longer present
+     */
+    static Map<String, Object> changes(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        current.forEach((key, value) -> {
+            if (!value.equals(previous.get(key))) {
+                changes.put(key, value);
+            }
+        });
+        previous.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> changes.put(key, null));
+        return changes;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ticket.desk_cartel.services;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted set that also answers "what is the position of x" and "what is at position i",
+ * both in O(log n) expected time. Implemented as a treap (a binary search tree kept balanced
+ * by random heap priorities) where every node stores the size of its subtree.
+ * Not thread safe; AgentLeaderboard guards it with its lock.
+ *
+ * @param <T> element type, ordered by the given comparator; equal elements are stored once
+ */
+public final class OrderStatisticTree<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority;
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private record Split<T>(Node<T> left, Node<T> right) {
+    }
+
+    private final Comparator<? super T> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<T> root;
+
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * @return false if an equal element is already present
+     */
+    public boolean add(T value) {
+        if (indexOf(value) >= 0) {
+            return false;
+        }
+        Split<T> parts = split(root, value, false);
+        root = merge(merge(parts.left(), new Node<>(value, random.nextInt())), parts.right());
+        return true;
+    }
+
+    /**
+     * @return false if no equal element was present
+     */
+    public boolean remove(T value) {
+        Split<T> lower = split(root, value, false);
+        Split<T> upper = split(lower.right(), value, true);
+        root = merge(lower.left(), upper.right());
+        return upper.left() != null;
+    }
+
+    /**
+     * @return the 0-based position of the element in sort order, -1 if absent
+     */
+    public int indexOf(T value) {
+        int index = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                index += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return index + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the element at the 0-based position in sort order
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    // Elements below value on the left (below or equal with equalGoesLeft), the rest on the right
+    private Split<T> split(Node<T> node, T value, boolean equalGoesLeft) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int cmp = comparator.compare(node.value, value);
+        if (cmp < 0 || (equalGoesLeft && cmp == 0)) {
+            Split<T> parts = split(node.right, value, equalGoesLeft);
+            node.right = parts.left();
+            resize(node);
+            return new Split<>(node, parts.right());
+        }
+        Split<T> parts = split(node.left, value, equalGoesLeft);
+        node.left = parts.right();
+        resize(node);
+        return new Split<>(parts.left(), node);
+    }
+
+    // Every element of left sorts before every element of right
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            resize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        resize(right);
+        return right;
+    }
+
+    private static void resize(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Ticket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory queue of tickets waiting for an agent (NO_AGENT_AVAILABLE), most urgent first.
+ * Urgency is the priority weight, so a CRITICAL ticket always goes before a LOW one.
+ * Within a priority the ticket that has waited longest comes first.
+ * The priority's time limit is the window to resolve the ticket, not a wait SLA, and
+ * grows with severity, so it is not used for the order.
+ * The key never changes while a ticket waits, so the order is fixed at insertion.
+ * The database stays the source of truth: the queue is refilled by every assignment
+ * run, and stale entries are dropped when they are dispatched.
+ */
+@Component
+public class PendingAssignmentQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingAssignmentQueue.class);
+
+    // Urgency order for tickets loaded from the database
+    public static final Comparator<Ticket> BY_URGENCY = Comparator.comparing(PendingAssignmentQueue::entryOf);
+
+    private final NavigableSet<Entry> queue = new ConcurrentSkipListSet<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Queued tickets per priority name, kept in step with entries for the ops snapshot
+    private final Map<String, Integer> countsByPriority = new ConcurrentHashMap<>();
+
+    public PendingAssignmentQueue(MeterRegistry meterRegistry) {
+        Gauge.builder("tickets.pending.assignment", entries, Map::size)
+                .description("Tickets waiting for an agent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a ticket that could not be assigned. Inside a transaction the ticket is
+     * queued after commit, so it is never dispatched before its status is visible.
+     */
+    public void add(Ticket ticket) {
+        if (ticket.getTicketId() == null) {
+            return;
+        }
+        Entry entry = entryOf(ticket);
+        AfterCommit.run(() -> put(entry));
+    }
+
+    /**
+     * Replace the whole queue with the pending tickets read from the database.
+     */
+    public void replaceAll(Collection<Ticket> tickets) {
+        queue.clear();
+        entries.clear();
+        countsByPriority.clear();
+        tickets.forEach(ticket -> put(entryOf(ticket)));
+        logger.debug("Pending assignment queue reloaded with {} tickets", tickets.size());
+    }
+
+    /**
+     * Add pending tickets read from the database (one shard), keeping the other entries.
+     */
+    public void addAll(Collection<Ticket> tickets) {
+        tickets.forEach(ticket -> put(entryOf(ticket)));
+    }
+
+    public void remove(Long ticketId) {
+        Entry entry = entries.remove(ticketId);
+        if (entry != null) {
+            queue.remove(entry);
+            count(entry.priority(), -1);
+        }
+    }
+
+    /**
+     * @return the queued tickets, most urgent first
+     */
+    public List<Entry> snapshot() {
+        return List.copyOf(queue);
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return queued tickets per priority name
+     */
+    public Map<String, Integer> countsByPriority() {
+        return Map.copyOf(countsByPriority);
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.ticketId(), entry);
+        if (previous != null) {
+            queue.remove(previous);
+            count(previous.priority(), -1);
+        }
+        queue.add(entry);
+        count(entry.priority(), 1);
+    }
+
+    private void count(String priority, int delta) {
+        countsByPriority.merge(priority, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+
+    private static Entry entryOf(Ticket ticket) {
+        Priority priority = ticket.getPriority();
+        String name = priority != null ? priority.getName() : "NONE";
+        int weight = priority != null ? priority.getWeight() : 0;
+        // Rows created before date_created existed count as the oldest
+        LocalDateTime created = ticket.getDate_created() != null ? ticket.getDate_created() : LocalDateTime.MIN;
+        return new Entry(ticket.getTicketId(), name, weight, created);
+    }
+
+    /**
+     * A queued ticket with its ordering key.
+     *
+     * @param ticketId the ticket
+     * @param priority the priority name
+     * @param weight the priority weight, i.e. the capacity an agent needs to take it
+     * @param created when the ticket was created
+     */
+    public record Entry(Long ticketId, String priority, int weight, LocalDateTime created) implements Comparable<Entry> {
+
+        private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::weight, Comparator.reverseOrder())
+                .thenComparing(Entry::created)
+                .thenComparing(Entry::ticketId);
+
+        @Override
+        public int compareTo(Entry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
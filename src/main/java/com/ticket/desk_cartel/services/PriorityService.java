@@ -19,11 +19,16 @@ import com.ticket.desk_cartel.repositories.PriorityRepository;
 @Service
 public class PriorityService {
 
+    // Placeholder priority of tickets that have not been classified yet
+    public static final String NOT_ASSIGNED = "NOT_ASSIGNED";
+
     private final PriorityRepository priorityRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public PriorityService(PriorityRepository priorityRepository) {
+    public PriorityService(PriorityRepository priorityRepository, ReferenceDataCache referenceDataCache) {
         this.priorityRepository = priorityRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -34,21 +39,22 @@ public class PriorityService {
     public void initializeDefaultPriorities() {
         if (priorityRepository.count() == 0) {
             // Create default priority levels
-            priorityRepository.save(new Priority("NOT_ASSIGNED", 0, 0));
+            priorityRepository.save(new Priority(NOT_ASSIGNED, 0, 0));
             priorityRepository.save(new Priority("LOW", 10, 4));
             priorityRepository.save(new Priority("MEDIUM", 20, 8));
             priorityRepository.save(new Priority("HIGH", 30, 24));
             priorityRepository.save(new Priority("CRITICAL", 40, 48));
+            referenceDataCache.prioritiesChanged();
         }
     }
 
     /**
-     * Get all priority levels.
+     * Get all priority levels, served from the reference data cache.
      * 
-     * @return list of all priority levels
+     * @return read-only list of all priority levels
      */
     public List<Priority> getAllPriorities() {
-        return priorityRepository.findAll();
+        return referenceDataCache.getAllPriorities();
     }
 
     /**
@@ -59,7 +65,7 @@ public class PriorityService {
      * @throws ResourceNotFoundException if the priority with the given ID does not exist
      */
     public Priority getPriorityById(Long id) {
-        return priorityRepository.findById(id)
+        return referenceDataCache.findPriorityById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Priority not found with id: " + id));
     }
 
@@ -71,7 +77,7 @@ public class PriorityService {
      * @throws ResourceNotFoundException if the priority with the given name does not exist
      */
     public Priority getPriorityByName(String name) {
-        return priorityRepository.findByName(name)
+        return referenceDataCache.findPriorityByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Priority not found with name: " + name));
     }
 
@@ -87,7 +93,9 @@ public class PriorityService {
         if (priorityRepository.existsByName(priority.getName())) {
             throw new ResourceAlreadyExistsException("Priority already exists with name: " + priority.getName());
         }
-        return priorityRepository.save(priority);
+        Priority saved = priorityRepository.save(priority);
+        referenceDataCache.prioritiesChanged();
+        return saved;
     }
 
     /**
@@ -101,7 +109,9 @@ public class PriorityService {
      */
     @Transactional
     public Priority updatePriority(Long id, Priority priorityDetails) {
-        Priority priority = getPriorityById(id);
+        // Load the managed row rather than the shared cached instance
+        Priority priority = priorityRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Priority not found with id: " + id));
         
         // Check if name is being changed and if the new name already exists
         if (!priority.getName().equals(priorityDetails.getName()) && 
@@ -113,7 +123,9 @@ public class PriorityService {
         priority.setWeight(priorityDetails.getWeight());
         priority.setTimeLimit(priorityDetails.getTimeLimit());
         
-        return priorityRepository.save(priority);
+        Priority saved = priorityRepository.save(priority);
+        referenceDataCache.prioritiesChanged();
+        return saved;
     }
 
     /**
@@ -128,5 +140,6 @@ public class PriorityService {
             throw new ResourceNotFoundException("Priority not found with id: " + id);
         }
         priorityRepository.deleteById(id);
+        referenceDataCache.prioritiesChanged();
     }
 } 
\ No newline at end of file
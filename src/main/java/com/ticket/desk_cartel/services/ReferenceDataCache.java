@@ -0,0 +1,202 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.events.ReferenceDataChangedEvent;
+import com.ticket.desk_cartel.repositories.CategoryRepository;
+import com.ticket.desk_cartel.repositories.PriorityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through in-memory cache of the priority and category tables.
+ * Both tables are tiny and rarely change but are read on every ticket creation,
+ * classification and filter request. Each table is held as an immutable snapshot
+ * indexed by id and name; a snapshot is loaded on first use (and warmed at startup)
+ * and dropped when PriorityService or CategoryService change the table, locally
+ * and on the other nodes through ClusterEventBroadcaster.
+ * Lookups that miss the snapshot fall through to the database.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final PriorityRepository priorityRepository;
+    private final CategoryRepository categoryRepository;
+    private final ClusterEventBroadcaster clusterEventBroadcaster;
+
+    // A lock rather than synchronized: loads hit the database, and a virtual thread
+    // blocking inside a monitor would pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot<Priority> priorities;
+    private volatile Snapshot<Category> categories;
+
+    public ReferenceDataCache(PriorityRepository priorityRepository,
+                              CategoryRepository categoryRepository,
+                              ClusterEventBroadcaster clusterEventBroadcaster) {
+        this.priorityRepository = priorityRepository;
+        this.categoryRepository = categoryRepository;
+        this.clusterEventBroadcaster = clusterEventBroadcaster;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        priorities();
+        categories();
+        logger.info("✅ Reference data cache loaded: {} priorities, {} categories",
+                priorities().all.size(), categories().all.size());
+    }
+
+    public List<Priority> getAllPriorities() {
+        return priorities().all;
+    }
+
+    public Optional<Priority> findPriorityById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Priority priority = priorities().byId.get(id);
+        return priority != null ? Optional.of(priority) : priorityRepository.findById(id);
+    }
+
+    public Optional<Priority> findPriorityByName(String name) {
+        Priority priority = name != null ? priorities().byName.get(name) : null;
+        return priority != null ? Optional.of(priority) : priorityRepository.findByName(name);
+    }
+
+    public List<Category> getAllCategories() {
+        return categories().all;
+    }
+
+    public Optional<Category> findCategoryById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Category category = categories().byId.get(id);
+        return category != null ? Optional.of(category) : categoryRepository.findById(id);
+    }
+
+    public Optional<Category> findCategoryByName(String name) {
+        Category category = name != null ? categories().byName.get(name) : null;
+        return category != null ? Optional.of(category) : categoryRepository.findByName(name);
+    }
+
+    /**
+     * Called by PriorityService after a priority was created, updated or deleted.
+     */
+    public void prioritiesChanged() {
+        changed(ReferenceDataChangedEvent.Type.PRIORITY);
+    }
+
+    /**
+     * Called by CategoryService after a category was created, updated or deactivated.
+     */
+    public void categoriesChanged() {
+        changed(ReferenceDataChangedEvent.Type.CATEGORY);
+    }
+
+    /**
+     * Invalidate after a change made on another node.
+     */
+    @EventListener
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidate(event.getType());
+    }
+
+    // Drop now, and again after commit so a concurrent reload cannot cache the old rows
+    private void changed(ReferenceDataChangedEvent.Type type) {
+        invalidate(type);
+        AfterCommit.run(() -> {
+            invalidate(type);
+            clusterEventBroadcaster.broadcast(type);
+        });
+    }
+
+    // Locked with the loaders so an in-flight load cannot store rows read before the change
+    private void invalidate(ReferenceDataChangedEvent.Type type) {
+        lock.lock();
+        try {
+            if (type == ReferenceDataChangedEvent.Type.PRIORITY) {
+                priorities = null;
+            } else {
+                categories = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("🔄 Invalidated {} reference data", type);
+    }
+
+    private Snapshot<Priority> priorities() {
+        Snapshot<Priority> snapshot = priorities;
+        if (snapshot == null) {
+            lock.lock();
+            try {
+                snapshot = priorities;
+                if (snapshot == null) {
+                    List<Priority> all = priorityRepository.findAll();
+                    Map<Long, Priority> byId = new HashMap<>();
+                    Map<String, Priority> byName = new HashMap<>();
+                    for (Priority priority : all) {
+                        byId.put(priority.getId(), priority);
+                        byName.put(priority.getName(), priority);
+                    }
+                    snapshot = new Snapshot<>(all, byId, byName);
+                    priorities = snapshot;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private Snapshot<Category> categories() {
+        Snapshot<Category> snapshot = categories;
+        if (snapshot == null) {
+            lock.lock();
+            try {
+                snapshot = categories;
+                if (snapshot == null) {
+                    List<Category> all = categoryRepository.findAll();
+                    Map<Long, Category> byId = new HashMap<>();
+                    Map<String, Category> byName = new HashMap<>();
+                    for (Category category : all) {
+                        byId.put((long) category.getCategoryId(), category);
+                        byName.put(category.getName(), category);
+                    }
+                    snapshot = new Snapshot<>(all, byId, byName);
+                    categories = snapshot;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private static final class Snapshot<T> {
+        private final List<T> all;
+        private final Map<Long, T> byId;
+        private final Map<String, T> byName;
+
+        private Snapshot(List<T> all, Map<Long, T> byId, Map<String, T> byName) {
+            this.all = Collections.unmodifiableList(all);
+            this.byId = byId;
+            this.byName = byName;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.ticket.desk_cartel.entities.*;
 import com.ticket.desk_cartel.repositories.AgentRepository;
 import com.ticket.desk_cartel.repositories.TicketRepository;
 import com.ticket.desk_cartel.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +59,7 @@ public class ReportService {
      * @return Byte array containing the PDF report
      * @throws Exception if PDF generation fails
      */
+    @Observed(name = "report.pdf", lowCardinalityKeyValues = {"report", "tickets"})
     public byte[] generateTicketsReport(Category category, Priority priority, Status status) throws Exception {
         List<Ticket> tickets = ticketService.filterTickets(category, priority, status);
         
@@ -326,6 +328,7 @@ public class ReportService {
      * @return Byte array containing the PDF report
      * @throws Exception if PDF generation fails
      */
+    @Observed(name = "report.pdf", lowCardinalityKeyValues = {"report", "completion-time"})
     public byte[] generateCompletionTimeReport(
             Category category, 
             Priority priority, 
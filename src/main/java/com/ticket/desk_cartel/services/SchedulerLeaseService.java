@@ -0,0 +1,120 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.repositories.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Database-backed leases for periodic jobs, so each job runs on exactly one node
+ * when several replicas share the database.
+ * A job calls tryAcquire before doing any work and release when done. Each
+ * successful acquisition returns a new fencing token; long-running jobs call
+ * isHeld with their token before every side effect and stop once it is no longer
+ * valid. Lease updates always run in their own transaction.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${scheduler.node-id:}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        logger.info("Scheduler leases will be taken as node {}", this.nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Try to take the lease on a job.
+     *
+     * @param name the job name
+     * @param lockAtMostFor how long the lease is held if this node never releases it (e.g. crashes)
+     * @return the fencing token if the lease was taken, empty if another node holds it
+     */
+    public OptionalLong tryAcquire(String name, Duration lockAtMostFor) {
+        try {
+            Long token = newTransaction.execute(status -> {
+                leaseRepository.insertIfAbsent(name);
+                if (leaseRepository.acquire(name, nodeId, lockAtMostFor.toMillis()) == 0) {
+                    return null;
+                }
+                return leaseRepository.findFencingToken(name);
+            });
+            if (token == null) {
+                logger.debug("Lease {} is held by another node", name);
+                return OptionalLong.empty();
+            }
+            logger.debug("Acquired lease {} with fencing token {}", name, token);
+            return OptionalLong.of(token);
+        } catch (Exception e) {
+            logger.error("❌ Could not acquire lease {}: {}", name, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Check that the lease taken with the given token is still valid.
+     *
+     * @param name the job name
+     * @param token the fencing token returned by tryAcquire
+     * @return true if no other node has taken the lease since and it has not expired
+     */
+    public boolean isHeld(String name, long token) {
+        Long count = newTransaction.execute(status -> leaseRepository.countValid(name, token));
+        return count != null && count > 0;
+    }
+
+    /**
+     * Release a lease. When called inside a transaction the lease is released after
+     * that transaction completes, so another node cannot start before our changes are committed.
+     *
+     * @param name the job name
+     * @param token the fencing token returned by tryAcquire
+     * @param lockAtLeastFor minimum time the lease stays taken after acquisition
+     */
+    public void release(String name, long token, Duration lockAtLeastFor) {
+        AfterCommit.runAfterCompletion(() -> releaseNow(name, token, lockAtLeastFor));
+    }
+
+    private void releaseNow(String name, long token, Duration lockAtLeastFor) {
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    leaseRepository.release(name, token, lockAtLeastFor.toMillis()));
+            logger.debug("Released lease {} (token {})", name, token);
+        } catch (Exception e) {
+            // The lease expires on its own after lockAtMostFor
+            logger.error("❌ Could not release lease {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ticket.desk_cartel.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends STOMP payloads that have already been serialized to JSON.
+ * SimpMessagingTemplate.convertAndSend runs Jackson for every destination; with this
+ * sender a payload is serialized once and the same byte[] is reused for every
+ * destination, so serialization cost no longer depends on the audience size.
+ */
+@Component
+public class SerializedPayloadSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializedPayloadSender.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public SerializedPayloadSender(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serialize a payload to JSON once.
+     * @param payload The object to serialize
+     * @return The UTF-8 encoded JSON
+     * @throws IllegalStateException if the payload cannot be serialized
+     */
+    public byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize STOMP payload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Send a serialized payload to one or more broker destinations.
+     */
+    public void send(byte[] payload, String... destinations) {
+        send(payload, List.of(destinations));
+    }
+
+    /**
+     * Send a serialized payload to each of the given broker destinations.
+     */
+    public void send(byte[] payload, Collection<String> destinations) {
+        for (String destination : destinations) {
+            try {
+                messagingTemplate.send(destination, buildMessage(payload));
+            } catch (Exception e) {
+                logger.error("❌ Error sending serialized payload to {}: {}", destination, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Send a serialized payload to a user destination (e.g. /queue/chat-history).
+     */
+    public void sendToUser(String username, String destination, byte[] payload) {
+        send(payload, userDestination(username, destination));
+    }
+
+    /**
+     * Send the same serialized payload to a user destination of every given user.
+     */
+    public void sendToUsers(Collection<String> usernames, String destination, byte[] payload) {
+        for (String username : usernames) {
+            sendToUser(username, destination, payload);
+        }
+    }
+
+    // Same encoding as SimpMessagingTemplate.convertAndSendToUser
+    private String userDestination(String username, String destination) {
+        return messagingTemplate.getUserDestinationPrefix() + username.replace("/", "%2F") + destination;
+    }
+
+    // Headers are per send, the payload array is shared
+    private Message<byte[]> buildMessage(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
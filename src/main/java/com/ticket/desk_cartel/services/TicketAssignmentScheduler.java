@@ -1,6 +1,8 @@
 package com.ticket.desk_cartel.services;
 
+import com.ticket.desk_cartel.configs.ExecutorConfig;
 import com.ticket.desk_cartel.entities.*;
+import com.ticket.desk_cartel.events.AgentCapacityReleasedEvent;
 import com.ticket.desk_cartel.repositories.AgentRepository;
 import com.ticket.desk_cartel.repositories.NotificationRepository;
 import com.ticket.desk_cartel.repositories.TicketRepository;
@@ -8,17 +10,30 @@ import com.ticket.desk_cartel.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service for scheduled tasks related to ticket assignments.
  * Periodically checks for unassigned tickets and tries to assign them to available agents.
+ * The job holds a SchedulerLeaseService lease so only one node runs it at a time; with
+ * scheduler.assignment.shards > 1 the tickets are split by id into shards with one lease
+ * each, so several nodes can work through the backlog in parallel.
+ * Tickets are assigned most urgent first (PendingAssignmentQueue). When an agent's
+ * workload goes down, the queued tickets are dispatched right away instead of on
+ * the next run.
  */
 @Service
 @EnableScheduling
@@ -26,35 +41,97 @@ public class TicketAssignmentScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(TicketAssignmentScheduler.class);
     
+    static final String ASSIGNMENT_LEASE = "assignPendingTickets";
+    // Held at most this long if the node dies mid-run
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(5);
+    // Keeps a fast run from being repeated by another node within the same period
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(30);
+    
     private final TicketRepository ticketRepository;
     private final AgentService agentService;
     private final NotificationRepository notificationRepository;
     private final AgentRepository agentRepository;
     private final UserRepository userRepository;
+    private final SchedulerLeaseService leaseService;
+    private final PendingAssignmentQueue pendingQueue;
     
     @Autowired
     private NotificationService notificationService;
     
+    // Number of ticket id shards, each with its own lease (1 = no sharding)
+    @Value("${scheduler.assignment.shards:1}")
+    private int shards;
+    
     @Autowired
-    public TicketAssignmentScheduler(TicketRepository ticketRepository, AgentService agentService, NotificationRepository notificationRepository, AgentRepository agentRepository, UserRepository userRepository) {
+    public TicketAssignmentScheduler(TicketRepository ticketRepository, AgentService agentService, NotificationRepository notificationRepository, AgentRepository agentRepository, UserRepository userRepository, SchedulerLeaseService leaseService, PendingAssignmentQueue pendingQueue) {
         this.ticketRepository = ticketRepository;
         this.agentService = agentService;
         this.notificationRepository = notificationRepository;
         this.agentRepository = agentRepository;
         this.userRepository = userRepository;
+        this.leaseService = leaseService;
+        this.pendingQueue = pendingQueue;
     }
     
     /**
      * Scheduled task that runs every minute to check for unassigned tickets.
      * Tries to assign tickets with NO_AGENT_AVAILABLE status to available agents.
+     * Every assignment runs in its own transaction (AgentService.assignTicketToAgent).
      */
-    @Scheduled(fixedRate = 60000) // Run every minute (60,000 ms)
-    @Transactional
+    @Scheduled(fixedRate = 60000, scheduler = ExecutorConfig.ASSIGNMENT_SCHEDULER) // Run every minute (60,000 ms)
     public void assignPendingTickets() {
         logger.info("Running scheduled task to assign pending tickets...");
         
+        if (shards <= 1) {
+            assignShard(ASSIGNMENT_LEASE, -1);
+            return;
+        }
+        
+        // Start from a node-specific shard so concurrent nodes spread over different shards
+        int offset = Math.floorMod(leaseService.getNodeId().hashCode(), shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (offset + i) % shards;
+            assignShard(ASSIGNMENT_LEASE + "#" + shard, shard);
+        }
+    }
+    
+    /**
+     * Assign the pending tickets of one shard while holding its lease.
+     * 
+     * @param leaseName the lease guarding this shard
+     * @param shard the shard index, or -1 for all tickets
+     */
+    private void assignShard(String leaseName, int shard) {
+        OptionalLong lease = leaseService.tryAcquire(leaseName, LOCK_AT_MOST_FOR);
+        if (lease.isEmpty()) {
+            logger.info("Skipping {}: running on another node.", leaseName);
+            return;
+        }
+        long token = lease.getAsLong();
+        
+        try {
+            assignTickets(leaseName, token, shard);
+        } finally {
+            leaseService.release(leaseName, token, LOCK_AT_LEAST_FOR);
+        }
+    }
+    
+    private void assignTickets(String leaseName, long token, int shard) {
         // Find all tickets with NO_AGENT_AVAILABLE status
-        List<Ticket> unassignedTickets = ticketRepository.findByStatus(Status.NO_AGENT_AVAILABLE);
+        // Imported tickets wait for TicketClassificationScheduler before they are assigned
+        List<Ticket> unassignedTickets = (shard < 0
+                ? ticketRepository.findByStatus(Status.NO_AGENT_AVAILABLE)
+                : ticketRepository.findByStatusInShard(Status.NO_AGENT_AVAILABLE, shards, shard))
+                .stream()
+                .filter(ticket -> !TicketClassificationScheduler.isUnclassified(ticket))
+                .toList();
+        
+        // The database is authoritative; resync the queue used between runs
+        if (shard < 0) {
+            pendingQueue.replaceAll(unassignedTickets);
+        } else {
+            pendingQueue.addAll(unassignedTickets);
+        }
         
         if (unassignedTickets.isEmpty()) {
             logger.info("No pending tickets to assign.");
@@ -63,46 +140,114 @@ public class TicketAssignmentScheduler {
         
         logger.info("Found {} unassigned tickets to process.", unassignedTickets.size());
         
-        // Try to assign each ticket
-        for (Ticket ticket : unassignedTickets) {
+        // Most urgent first, so capacity goes to the heaviest priorities, oldest tickets first
+        List<Ticket> ordered = new ArrayList<>(unassignedTickets);
+        ordered.sort(PendingAssignmentQueue.BY_URGENCY);
+        
+        for (Ticket ticket : ordered) {
+            // Fencing check: stop if the lease expired or another node has taken it over
+            if (!leaseService.isHeld(leaseName, token)) {
+                logger.warn("Lost lease {} (token {}), stopping assignment run.", leaseName, token);
+                return;
+            }
+            
             logger.info("Attempting to assign ticket {} with priority {}...", 
                     ticket.getTicketId(), ticket.getPriority());
             
-            Ticket updatedTicket = agentService.assignTicketToAgent(ticket.getTicketId());
-
-            if (updatedTicket != null && updatedTicket.getAssignedTicket() != null) {
-                // The notification to the agent is already sent by the agentService.assignTicketToAgent method
-                
-                // Notify the user that their ticket has been assigned to an agent
-                // Create a user notification that their ticket has been assigned
-                Notification userNotification = new Notification();
-                userNotification.setTitle("Ticket Assigned: " + updatedTicket.getTitle());
-                userNotification.setDescription("Your ticket #" + updatedTicket.getTicketId() + 
-                        " has been assigned to an agent and is now being processed.");
-                userNotification.setTicket(updatedTicket);
-                userNotification.setAssignedTicket(updatedTicket.getAssignedTicket());
-                userNotification.setTicketCreator(updatedTicket.getTicketOwner());
-                
-                // Increment user notification count
-                if (updatedTicket.getTicketOwner() != null) {
-                    Long userId = updatedTicket.getTicketOwner().getId();
-                    Optional<User> userOpt = userRepository.findById(userId);
-                    
-                    if (userOpt.isPresent()) {
-                        User userNotif = userOpt.get();
-                        int userNotifCount = userNotif.getNotifCount();
-                        userNotif.setNotifCount(userNotifCount + 1);
-                        userRepository.save(userNotif);
-                    }
-                }
-                
-                notificationRepository.save(userNotification);
-                
-                logger.info("Successfully assigned ticket {} to agent {}.", 
-                        updatedTicket.getTicketId(), updatedTicket.getAssignedTicket().getId());
-            } else {
-                logger.info("Still no suitable agent available for ticket {}.", ticket.getTicketId());
+            assign(ticket.getTicketId());
+        }
+    }
+    
+    /**
+     * Dispatch waiting tickets as soon as an agent's workload goes down.
+     * Runs after the release is committed, on the assignment scheduler's thread, so it
+     * never overlaps with an assignment run on this node. Runs on other nodes are not
+     * excluded; the ticket's optimistic lock makes the second assignment fail instead.
+     */
+    @Async(ExecutorConfig.ASSIGNMENT_SCHEDULER)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCapacityReleased(AgentCapacityReleasedEvent event) {
+        if (pendingQueue.isEmpty()) {
+            return;
+        }
+        
+        logger.info("Agent {} released capacity, dispatching {} waiting tickets.", 
+                event.getAgentId(), pendingQueue.size());
+        
+        int smallestRejectedWeight = Integer.MAX_VALUE;
+        for (PendingAssignmentQueue.Entry entry : pendingQueue.snapshot()) {
+            // No agent could take a lighter ticket, so this one cannot fit either
+            if (entry.weight() >= smallestRejectedWeight) {
+                continue;
+            }
+            if (!assign(entry.ticketId())) {
+                smallestRejectedWeight = entry.weight();
+            }
+        }
+    }
+    
+    /**
+     * Try to assign one ticket and tell its owner if it got an agent.
+     * Every assignment runs in its own transaction (AgentService.assignTicketToAgent).
+     * 
+     * @return false if no agent had room for the ticket
+     */
+    private boolean assign(Long ticketId) {
+        Ticket updatedTicket;
+        try {
+            updatedTicket = agentService.assignTicketToAgent(ticketId);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.info("Ticket {} was assigned concurrently by another node.", ticketId);
+            pendingQueue.remove(ticketId);
+            return true;
+        }
+        
+        if (updatedTicket == null) {
+            // Deleted since it was queued
+            pendingQueue.remove(ticketId);
+            return true;
+        }
+        
+        if (updatedTicket.getAssignedTicket() == null) {
+            logger.info("Still no suitable agent available for ticket {}.", ticketId);
+            return false;
+        }
+        
+        if (updatedTicket.getStatus() == Status.ASSIGNED) {
+            notifyOwnerAssigned(updatedTicket);
+        }
+        return true;
+    }
+    
+    private void notifyOwnerAssigned(Ticket updatedTicket) {
+        // The notification to the agent is already sent by the agentService.assignTicketToAgent method
+        
+        // Notify the user that their ticket has been assigned to an agent
+        // Create a user notification that their ticket has been assigned
+        Notification userNotification = new Notification();
+        userNotification.setTitle("Ticket Assigned: " + updatedTicket.getTitle());
+        userNotification.setDescription("Your ticket #" + updatedTicket.getTicketId() + 
+                " has been assigned to an agent and is now being processed.");
+        userNotification.setTicket(updatedTicket);
+        userNotification.setAssignedTicket(updatedTicket.getAssignedTicket());
+        userNotification.setTicketCreator(updatedTicket.getTicketOwner());
+        
+        // Increment user notification count
+        if (updatedTicket.getTicketOwner() != null) {
+            Long userId = updatedTicket.getTicketOwner().getId();
+            Optional<User> userOpt = userRepository.findById(userId);
+            
+            if (userOpt.isPresent()) {
+                User userNotif = userOpt.get();
+                int userNotifCount = userNotif.getNotifCount();
+                userNotif.setNotifCount(userNotifCount + 1);
+                userRepository.save(userNotif);
             }
         }
+        
+        notificationRepository.save(userNotification);
+        
+        logger.info("Successfully assigned ticket {} to agent {}.", 
+                updatedTicket.getTicketId(), updatedTicket.getAssignedTicket().getId());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Classifies tickets that were created without a priority by the bulk import.
+ * Each pass takes the oldest tickets still on the NOT_ASSIGNED priority, asks
+ * GeminiAIService for a priority one ticket at a time (so the AI pool stays free for
+ * tickets created through the API) and hands them to the PendingAssignmentQueue.
+ * Until then TicketAssignmentScheduler leaves them alone. Only one node runs a pass.
+ * A pass can wait on Gemini for minutes, so it runs on its own scheduler thread and
+ * never holds up the reconciliation jobs.
+ */
+@Service
+public class TicketClassificationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketClassificationScheduler.class);
+
+    static final String CLASSIFICATION_LEASE = "classifyImportedTickets";
+    // A pass is bounded by batch-size Gemini calls of at most 35 seconds each
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(30);
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(30);
+
+    private final TicketRepository ticketRepository;
+    private final GeminiAIService geminiAIService;
+    private final SchedulerLeaseService leaseService;
+    private final PendingAssignmentQueue pendingQueue;
+
+    @Value("${tickets.classification.batch-size:50}")
+    private int batchSize;
+
+    public TicketClassificationScheduler(TicketRepository ticketRepository, GeminiAIService geminiAIService,
+                                         SchedulerLeaseService leaseService, PendingAssignmentQueue pendingQueue) {
+        this.ticketRepository = ticketRepository;
+        this.geminiAIService = geminiAIService;
+        this.leaseService = leaseService;
+        this.pendingQueue = pendingQueue;
+    }
+
+    /**
+     * @return true if the ticket still carries the placeholder priority
+     */
+    public static boolean isUnclassified(Ticket ticket) {
+        return ticket.getPriority() != null && PriorityService.NOT_ASSIGNED.equals(ticket.getPriority().getName());
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.classification.interval-ms:60000}", scheduler = ExecutorConfig.CLASSIFICATION_SCHEDULER)
+    public void classifyImportedTickets() {
+        List<Ticket> tickets = ticketRepository.findByStatusAndPriority_Name(Status.NO_AGENT_AVAILABLE,
+                PriorityService.NOT_ASSIGNED, PageRequest.of(0, batchSize, Sort.by("ticketId")));
+        if (tickets.isEmpty()) {
+            return;
+        }
+
+        OptionalLong lease = leaseService.tryAcquire(CLASSIFICATION_LEASE, LOCK_AT_MOST_FOR);
+        if (lease.isEmpty()) {
+            logger.info("Skipping {}: running on another node.", CLASSIFICATION_LEASE);
+            return;
+        }
+        long token = lease.getAsLong();
+
+        int classified = 0;
+        try {
+            for (Ticket ticket : tickets) {
+                // Fencing check: stop if the lease expired or another node has taken it over
+                if (!leaseService.isHeld(CLASSIFICATION_LEASE, token)) {
+                    logger.warn("Lost lease {} (token {}), stopping classification run.", CLASSIFICATION_LEASE, token);
+                    break;
+                }
+                if (classify(ticket)) {
+                    classified++;
+                }
+            }
+        } finally {
+            leaseService.release(CLASSIFICATION_LEASE, token, LOCK_AT_LEAST_FOR);
+        }
+        logger.info("Classified {} of {} imported tickets.", classified, tickets.size());
+    }
+
+    private boolean classify(Ticket ticket) {
+        Priority priority = geminiAIService.suggestPriority(ticket.getTitle(), ticket.getDescription(),
+                ticket.getCategory() != null ? ticket.getCategory().getName() : null);
+        ticket.setPriority(priority);
+        try {
+            Ticket saved = ticketRepository.save(ticket);
+            pendingQueue.add(saved);
+            return true;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.info("Ticket {} was changed concurrently, classifying it on the next pass.", ticket.getTicketId());
+            return false;
+        }
+    }
+}
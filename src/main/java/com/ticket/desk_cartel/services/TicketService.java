@@ -4,6 +4,7 @@ import com.ticket.desk_cartel.entities.*;
 import com.ticket.desk_cartel.repositories.*;
 import com.ticket.desk_cartel.security.JwtUtil;
 import jakarta.security.auth.message.AuthException;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +25,7 @@ public class TicketService {
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final NotificationRepository notificationRepository;
     private final AgentRepository agentRepository;
     private final VerificationTokenService verificationTokenService;
@@ -41,12 +42,15 @@ public class TicketService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ChatHistoryCache chatHistoryCache;
+
     public TicketService(TicketRepository ticketRepository, UserRepository userRepository,
-                         JwtUtil jwtUtil,VerificationTokenService verificationTokenService, CategoryRepository categoryRepository, NotificationRepository notificationRepository, AgentRepository agentRepository) {
+                         JwtUtil jwtUtil,VerificationTokenService verificationTokenService, ReferenceDataCache referenceDataCache, NotificationRepository notificationRepository, AgentRepository agentRepository) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.categoryRepository = categoryRepository;
+        this.referenceDataCache = referenceDataCache;
         this.notificationRepository = notificationRepository;
         this.agentRepository = agentRepository;
         this.verificationTokenService = verificationTokenService;
@@ -67,6 +71,7 @@ public class TicketService {
      * @throws Exception if user not found or other error occurs
      */
     @Transactional
+    @Observed(name = "tickets.create")
     public Ticket createTicket(Long userId, String title, String description, 
                              Priority priority, Status status, Category category) throws Exception {
         
@@ -97,6 +102,7 @@ public class TicketService {
         ticket.setStatus(Status.ASSIGNED); // Default to ASSIGNED initially
         ticket.setDescription(description);
         ticket.setCategory(category);
+        ticket.setDate_created(LocalDateTime.now());
         ticket.setDate_started(null); // Will be set when agent starts working
         ticket.setCompletion_date(null);
 
@@ -238,7 +244,7 @@ public class TicketService {
                 ticket.setPriority(priority);
             }
             if(categoryId != null) {
-                Category foundCategory = categoryRepository.findById(categoryId).orElse(null);
+                Category foundCategory = referenceDataCache.findCategoryById(categoryId).orElse(null);
                 if (foundCategory != null) {
                     ticket.setCategory(foundCategory);
                 } else {
@@ -260,7 +266,7 @@ public class TicketService {
                     // Update agent's completed tickets and workload
                     if (ticket.getAssignedTicket() != null) {
                         Agent agent = ticket.getAssignedTicket();
-                        agent.reduceWorkload(ticket.getPriority().getWeight());
+                        agentRepository.adjustWorkload(agent, -ticket.getPriority().getWeight());
                         agent.incrementCompletedTickets();
                     }
                 }
@@ -332,12 +338,6 @@ public class TicketService {
             return null;
         }
         
-        // If ticket is already assigned to an agent, remove it from their workload
-        if (ticket.getAssignedTicket() != null) {
-            Agent currentAgent = ticket.getAssignedTicket();
-            currentAgent.reduceWorkload(ticket.getPriority().getWeight());
-        }
-        
         // Find the new agent
         Optional<Agent> agentOpt = agentService.getAgentById(agentId);
         if (agentOpt.isEmpty()) {
@@ -346,12 +346,20 @@ public class TicketService {
         
         Agent agent = agentOpt.get();
         
+        // If ticket is already assigned to an agent, remove it from their workload
+        if (ticket.getAssignedTicket() != null) {
+            Agent currentAgent = ticket.getAssignedTicket();
+            agentRepository.adjustWorkload(currentAgent, -ticket.getPriority().getWeight());
+        }
+        
         // Assign ticket to new agent
         ticket.setAssignedTicket(agent);
         ticket.setStatus(Status.ASSIGNED);
         
-        // Update agent workload
-        agent.addWorkload(ticket.getPriority().getWeight());
+        // Update agent workload; an admin override may exceed the agent's capacity
+        agentRepository.adjustWorkload(agent, ticket.getPriority().getWeight());
+        // Cached chat histories carry the old agent
+        chatHistoryCache.invalidate(String.valueOf(ticketId));
 
         String emailSubject = "Ticket Notification";
         String emailText = "Ticket has been assigned. Please check your dashboard for more details.";
@@ -378,6 +386,7 @@ public class TicketService {
      * @return The updated ticket or null if operation failed
      */
     @Transactional
+    @Observed(name = "tickets.complete", lowCardinalityKeyValues = {"by", "client"})
     public Ticket completeTicketByClient(Long ticketId, Long userId, String token) {
         // Find the ticket
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
@@ -415,7 +424,7 @@ public class TicketService {
                     agent.getId(), performancePoints, ticketId);
             
             // Update agent's workload and completed tickets count with performance points
-            agent.reduceWorkload(ticket.getPriority().getWeight());
+            agentRepository.adjustWorkload(agent, -ticket.getPriority().getWeight());
             agent.addCompletedTicketWithPoints(performancePoints);
             
             // Save agent changes
@@ -427,6 +436,7 @@ public class TicketService {
         
         // Save and return the updated ticket
         Ticket updatedTicket = ticketRepository.save(ticket);
+        agentService.recordCompletion(updatedTicket);
 
         String emailSubject = "Ticket Notification";
         String emailText = "Ticket has been completed. Please check your dashboard for more details.";
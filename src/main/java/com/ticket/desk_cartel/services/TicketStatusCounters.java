@@ -0,0 +1,145 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.configs.ExecutorConfig;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ticket counts per status, kept in memory for the ops snapshot.
+ * Hibernate post-commit listeners apply every committed insert, status change and delete
+ * on this node, so rolled-back work is never counted. The counts are reloaded from one
+ * GROUP BY on the status index at startup and then every ops.status-counts.resync-ms,
+ * which also picks up changes committed by other nodes.
+ */
+@Component
+public class TicketStatusCounters implements InitializingBean,
+        PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketStatusCounters.class);
+
+    private final Map<Status, AtomicLong> counts = new EnumMap<>(Status.class);
+    private final TicketRepository ticketRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TicketStatusCounters(TicketRepository ticketRepository, EntityManagerFactory entityManagerFactory) {
+        this.ticketRepository = ticketRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        for (Status status : Status.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Scheduled(fixedDelayString = "${ops.status-counts.resync-ms:300000}", scheduler = ExecutorConfig.RECONCILIATION_SCHEDULER)
+    public void resync() {
+        Map<Status, Long> loaded = new EnumMap<>(Status.class);
+        for (Object[] row : ticketRepository.countByStatus()) {
+            if (row[0] != null) {
+                loaded.put((Status) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        counts.forEach((status, count) -> count.set(loaded.getOrDefault(status, 0L)));
+        logger.debug("Ticket status counts reloaded: {}", loaded);
+    }
+
+    /**
+     * Count tickets written outside Hibernate (bulk import), once their batch is committed.
+     */
+    public void added(Status status, long count) {
+        if (status != null) {
+            counts.get(status).addAndGet(count);
+        }
+    }
+
+    /**
+     * @return tickets per status
+     */
+    public Map<Status, Long> snapshot() {
+        Map<Status, Long> snapshot = new EnumMap<>(Status.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+        return snapshot;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            increment(ticket.getStatus(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Without the state loaded before the update the old status is unknown; the next resync corrects it
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        Status previous = (Status) event.getOldState()[statusIndex(event.getPersister())];
+        if (previous != ticket.getStatus()) {
+            increment(previous, -1);
+            increment(ticket.getStatus(), 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            increment(ticket.getStatus(), -1);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Ticket.class.equals(persister.getMappedClass());
+    }
+
+    private void increment(Status status, int delta) {
+        if (status != null) {
+            counts.get(status).addAndGet(delta);
+        }
+    }
+
+    private static int statusIndex(EntityPersister persister) {
+        return persister.getEntityMetamodel().getPropertyIndex("status");
+    }
+}
@@ -0,0 +1,323 @@
+package com.ticket.desk_cartel.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.ticket.desk_cartel.dto.TicketImportResultDTO;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bulk ticket import and export as CSV or NDJSON, for migrating from another helpdesk.
+ * The import reads one record at a time and inserts the tickets in JDBC batches, one
+ * transaction per batch, without what POST /api/tickets/create does per ticket: no email
+ * is sent, tickets without a priority stay on NOT_ASSIGNED until TicketClassificationScheduler
+ * classifies them, and every ticket starts as NO_AGENT_AVAILABLE for TicketAssignmentScheduler.
+ * The export streams the ticket table with its joins straight from the result set.
+ */
+@Service
+public class TicketTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketTransferService.class);
+
+    // Length of the title and description columns
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_ERRORS = 100;
+
+    private static final String INSERT_SQL = "INSERT INTO ticket (version, title, description, client_id, category_id, " +
+            "priority_id, status, points, date_created) VALUES (0, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private static final String EXPORT_SQL = "SELECT t.ticket_id, t.title, t.description, t.status, t.points, " +
+            "t.date_created, t.date_started, t.completion_date, t.expected_completion_date, " +
+            "client.email AS owner_email, c.name AS category, p.name AS priority, agent_user.username AS agent " +
+            "FROM ticket t " +
+            "LEFT JOIN users client ON client.id = t.client_id " +
+            "LEFT JOIN category c ON c.category_id = t.category_id " +
+            "LEFT JOIN priority_levels p ON p.id = t.priority_id " +
+            "LEFT JOIN agents a ON a.id = t.agent_id " +
+            "LEFT JOIN users agent_user ON agent_user.id = a.user_id " +
+            "ORDER BY t.ticket_id";
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String label;
+        private final String contentType;
+
+        Format(String label, String contentType) {
+            this.label = label;
+            this.contentType = contentType;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format of(String label) {
+            return Arrays.stream(values()).filter(format -> format.label.equalsIgnoreCase(label)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + label));
+        }
+    }
+
+    /**
+     * One imported ticket. Blank priority means classify later; blank createdAt means now.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ImportRow(String ownerEmail, String title, String description, String category,
+                            String priority, String createdAt) {
+    }
+
+    /**
+     * One exported ticket; the first columns are those of ImportRow, so an export can be imported again.
+     */
+    @JsonPropertyOrder({"ownerEmail", "title", "description", "category", "priority", "createdAt",
+            "ticketId", "status", "agent", "points", "startedAt", "completedAt", "expectedCompletionAt"})
+    public record ExportRow(String ownerEmail, String title, String description, String category, String priority,
+                            String createdAt, Long ticketId, String status, String agent, int points,
+                            String startedAt, String completedAt, String expectedCompletionAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final UserRepository userRepository;
+    private final TicketStatusCounters ticketStatusCounters;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${tickets.import.batch-size:500}")
+    private int batchSize;
+
+    public TicketTransferService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 ReferenceDataCache referenceDataCache, UserRepository userRepository,
+                                 TicketStatusCounters ticketStatusCounters) {
+        this.jdbcTemplate = jdbcTemplate;
+        // MySQL Connector/J streams the rows one by one at this fetch size instead of reading the whole result
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.referenceDataCache = referenceDataCache;
+        this.userRepository = userRepository;
+        this.ticketStatusCounters = ticketStatusCounters;
+    }
+
+    /**
+     * Import tickets from a CSV (with header) or NDJSON stream.
+     * Invalid rows are skipped and reported; a malformed record stops the import.
+     * Batches committed before a database error stay imported.
+     *
+     * @return imported and rejected row counts
+     */
+    public TicketImportResultDTO importTickets(InputStream input, Format format) throws IOException {
+        Import state = new Import();
+        try (MappingIterator<ImportRow> rows = reader(format).readValues(input)) {
+            int record = 0;
+            while (true) {
+                ImportRow row;
+                record++;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    state.reject(record, "malformed record, import stopped (" + e.getOriginalMessage() + ")");
+                    break;
+                }
+                accept(state, record, row);
+            }
+        }
+        flush(state);
+
+        logger.info("✅ Imported {} tickets ({} rejected, {} awaiting classification)",
+                state.imported, state.rejected, state.awaitingClassification);
+        return new TicketImportResultDTO(state.imported, state.rejected, state.awaitingClassification, state.errors);
+    }
+
+    /**
+     * Write every ticket, with owner, category, priority and agent, as CSV (with header) or NDJSON.
+     */
+    public void exportTickets(OutputStream output, Format format) throws IOException {
+        try (SequenceWriter writer = writer(format).writeValues(output)) {
+            streamingJdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) resultSet -> {
+                try {
+                    writer.write(exportRow(resultSet));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void accept(Import state, int record, ImportRow row) {
+        String title = blankToNull(row.title());
+        if (title == null) {
+            state.reject(record, "title is required");
+            return;
+        }
+        if (title.length() > MAX_TEXT_LENGTH || (row.description() != null && row.description().length() > MAX_TEXT_LENGTH)) {
+            state.reject(record, "title and description are limited to " + MAX_TEXT_LENGTH + " characters");
+            return;
+        }
+
+        String email = blankToNull(row.ownerEmail());
+        Optional<Long> ownerId = email == null ? Optional.empty()
+                : lookup(state.owners, email, key -> userRepository.findByEmail(key).map(User::getId));
+        if (ownerId.isEmpty()) {
+            state.reject(record, "unknown owner " + email);
+            return;
+        }
+
+        String categoryName = blankToNull(row.category());
+        Optional<Integer> categoryId = categoryName == null ? Optional.empty()
+                : lookup(state.categories, categoryName,
+                        key -> referenceDataCache.findCategoryByName(key).map(Category::getCategoryId));
+        if (categoryId.isEmpty()) {
+            state.reject(record, "unknown category " + categoryName);
+            return;
+        }
+
+        // Like ticket creation, NOT_ASSIGNED means the priority is still to be classified
+        String priorityName = blankToNull(row.priority());
+        boolean classifyLater = priorityName == null || PriorityService.NOT_ASSIGNED.equals(priorityName);
+        Optional<Long> priorityId = lookup(state.priorities, classifyLater ? PriorityService.NOT_ASSIGNED : priorityName,
+                key -> referenceDataCache.findPriorityByName(key).map(Priority::getId));
+        if (priorityId.isEmpty()) {
+            state.reject(record, "unknown priority " + (classifyLater ? PriorityService.NOT_ASSIGNED : priorityName));
+            return;
+        }
+
+        LocalDateTime createdAt;
+        try {
+            createdAt = blankToNull(row.createdAt()) != null ? LocalDateTime.parse(row.createdAt().trim()) : LocalDateTime.now();
+        } catch (DateTimeParseException e) {
+            state.reject(record, "createdAt is not an ISO date-time: " + row.createdAt());
+            return;
+        }
+
+        state.batch.add(new Object[]{title, row.description(), ownerId.get(), categoryId.get(), priorityId.get(),
+                Status.NO_AGENT_AVAILABLE.name(), createdAt});
+        if (classifyLater) {
+            state.awaitingClassification++;
+        }
+        if (state.batch.size() >= batchSize) {
+            flush(state);
+        }
+    }
+
+    private void flush(Import state) {
+        if (state.batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = state.batch;
+        state.batch = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        ticketStatusCounters.added(Status.NO_AGENT_AVAILABLE, rows.size());
+        state.imported += rows.size();
+    }
+
+    private ObjectReader reader(Format format) {
+        return switch (format) {
+            case CSV -> csvMapper.readerFor(ImportRow.class).with(CsvSchema.emptySchema().withHeader());
+            case NDJSON -> jsonMapper.readerFor(ImportRow.class);
+        };
+    }
+
+    private ObjectWriter writer(Format format) {
+        return switch (format) {
+            case CSV -> csvMapper.writerFor(ExportRow.class).with(csvMapper.schemaFor(ExportRow.class).withHeader());
+            case NDJSON -> jsonMapper.writerFor(ExportRow.class).withRootValueSeparator("\n");
+        };
+    }
+
+    private static ExportRow exportRow(ResultSet resultSet) throws SQLException {
+        return new ExportRow(
+                resultSet.getString("owner_email"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                resultSet.getString("category"),
+                resultSet.getString("priority"),
+                dateTime(resultSet, "date_created"),
+                resultSet.getLong("ticket_id"),
+                resultSet.getString("status"),
+                resultSet.getString("agent"),
+                resultSet.getInt("points"),
+                dateTime(resultSet, "date_started"),
+                dateTime(resultSet, "completion_date"),
+                dateTime(resultSet, "expected_completion_date"));
+    }
+
+    private static String dateTime(ResultSet resultSet, String column) throws SQLException {
+        LocalDateTime value = resultSet.getObject(column, LocalDateTime.class);
+        return value != null ? value.toString() : null;
+    }
+
+    // Owners, categories and priorities repeat across rows; each is looked up once per import
+    private static <T> Optional<T> lookup(Map<String, Optional<T>> cache, String key, Function<String, Optional<T>> loader) {
+        return cache.computeIfAbsent(key, loader);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class Import {
+        final Map<String, Optional<Long>> owners = new HashMap<>();
+        final Map<String, Optional<Integer>> categories = new HashMap<>();
+        final Map<String, Optional<Long>> priorities = new HashMap<>();
+        final List<String> errors = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        int imported;
+        int rejected;
+        int awaitingClassification;
+
+        void reject(int record, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("record " + record + ": " + reason);
+            }
+        }
+    }
+}
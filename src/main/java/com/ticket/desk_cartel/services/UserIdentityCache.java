@@ -0,0 +1,113 @@
+package com.ticket.desk_cartel.services;
+
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded username to user id cache used on hot paths such as chat.
+ * Resolved ids are handed out as lazy references (getReferenceById), so a caller
+ * that only needs to set an association never loads the user row.
+ * System users (SYSTEM, PUBLIC_CHAT) are pinned at startup and are never evicted.
+ * Usernames and ids never change and users are never deleted, so entries need no invalidation;
+ * role and status are always read from the user row itself.
+ */
+@Component
+public class UserIdentityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityCache.class);
+
+    private final UserRepository userRepository;
+    private final Map<String, User> pinned = new ConcurrentHashMap<>();
+    private final Map<String, Long> entries;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${cache.user-identity.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        // Access-ordered map so the least recently used username is dropped first
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Resolve the id of a user, hitting the database only on a cache miss.
+     * @param username The username to resolve
+     * @return The user id, or empty if no such user exists
+     */
+    public Optional<Long> getUserId(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        User pinnedUser = pinned.get(username);
+        if (pinnedUser != null) {
+            return Optional.of(pinnedUser.getId());
+        }
+
+        Long id = entries.get(username);
+        if (id != null) {
+            return Optional.of(id);
+        }
+
+        Optional<Long> loaded = userRepository.findIdByUsername(username);
+        loaded.ifPresent(value -> entries.put(username, value));
+        return loaded;
+    }
+
+    /**
+     * Get a user suitable for setting associations. Pinned users are returned as the
+     * loaded entity; everything else is a lazy reference, which must only be
+     * dereferenced inside a transaction.
+     * @param username The username to resolve
+     * @return The user or a reference to it, or empty if no such user exists
+     */
+    public Optional<User> getReference(String username) {
+        User pinnedUser = username != null ? pinned.get(username) : null;
+        if (pinnedUser != null) {
+            return Optional.of(pinnedUser);
+        }
+        return getUserId(username).map(userRepository::getReferenceById);
+    }
+
+    /**
+     * Get a pinned system user.
+     * @param username The system username (e.g. SYSTEM, PUBLIC_CHAT)
+     * @return The pinned user, or empty if it has not been pinned
+     */
+    public Optional<User> getPinned(String username) {
+        return Optional.ofNullable(pinned.get(username));
+    }
+
+    /**
+     * Pin a user so it is never evicted. Intended for the system pseudo-users.
+     */
+    public void pin(User user) {
+        pinned.put(user.getUsername(), user);
+        entries.remove(user.getUsername());
+        logger.info("📌 Pinned system user {} (ID:{}) in identity cache", user.getUsername(), user.getId());
+    }
+
+    /**
+     * Drop every non-pinned entry.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
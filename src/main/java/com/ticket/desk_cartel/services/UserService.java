@@ -176,11 +176,11 @@ public class UserService implements UserDetailsService {
             if (agentOpt.isPresent()) {
                 Agent agent = agentOpt.get();
                 
-                // Reassign all tickets before deactivating
-                agentService.reassignAgentTickets(agent);
-                
                 agent.setActive(false);
                 agentRepository.save(agent);
+                
+                // Open tickets are reassigned once the deactivation commits
+                agentService.publishAgentDeactivated(agent);
             }
         }
 
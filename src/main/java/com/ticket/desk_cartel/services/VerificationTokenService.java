@@ -3,9 +3,6 @@ package com.ticket.desk_cartel.services;
 import com.ticket.desk_cartel.entities.User;
 import com.ticket.desk_cartel.entities.VerificationToken;
 import com.ticket.desk_cartel.repositories.VerificationTokenRepository;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,15 +14,15 @@ import java.util.UUID;
 public class VerificationTokenService {
 
     private final VerificationTokenRepository tokenRepository;
-    private final JavaMailSender mailSender;
+    private final EmailService emailService;
 
-    public VerificationTokenService(VerificationTokenRepository tokenRepository, JavaMailSender mailSender) {
+    public VerificationTokenService(VerificationTokenRepository tokenRepository, EmailService emailService) {
         this.tokenRepository = tokenRepository;
-        this.mailSender = mailSender;
+        this.emailService = emailService;
     }
 
     /**
-     * Generates a verification token, stores it, and sends an email.
+     * Generates a verification token, stores it, and sends an email once the token is committed.
      */
     public void sendVerificationEmail(User user) {
         String token = UUID.randomUUID().toString();
@@ -37,7 +34,9 @@ public class VerificationTokenService {
         tokenRepository.save(verificationToken);
 
         String verificationLink = "http://localhost:8080/auth/verify?token=" + token;
-        sendEmail(user.getEmail(), "Verify your email", "Click here to verify your account: " + verificationLink);
+        String email = user.getEmail();
+        AfterCommit.run(() -> emailService.sendEmail(email, "Verify your email",
+                "Click here to verify your account: " + verificationLink));
     }
 
     /**
@@ -55,20 +54,11 @@ public class VerificationTokenService {
     }
 
     /**
-     * Sends an email with a given subject and message.
+     * Sends an email with a given subject and message through EmailService,
+     * which runs it on the mail executor. Inside a transaction the email is only
+     * queued after commit, so a rolled-back change never notifies anyone.
      */
     public void sendEmail(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-
-            System.out.println("✅ Email sent successfully to: " + to);
-        } catch (MailException e) {
-            System.err.println("❌ Email sending failed: " + e.getMessage());
-            e.printStackTrace(); // Print full error stack trace
-        }
+        AfterCommit.run(() -> emailService.sendEmail(to, subject, text));
     }
 }
\ No newline at end of file
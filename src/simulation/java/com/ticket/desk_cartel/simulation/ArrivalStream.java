@@ -0,0 +1,89 @@
+package com.ticket.desk_cartel.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Ticket arrivals fed to the simulator: either synthetic (Poisson arrivals with a
+ * fixed priority and category mix) or replayed from a CSV file.
+ */
+final class ArrivalStream {
+
+    /**
+     * One ticket arriving.
+     *
+     * @param minute minutes since the start of the simulation
+     * @param priority priority name, as in the priority_levels table
+     * @param category category name
+     */
+    record Arrival(double minute, String priority, String category) {
+    }
+
+    private ArrivalStream() {
+    }
+
+    /**
+     * Poisson arrivals at a constant rate.
+     *
+     * @param perHour mean arrivals per hour
+     * @param hours how long tickets keep arriving
+     * @param priorityMix priority name to relative frequency
+     * @param categories category names, equally likely
+     * @param seed random seed, so every strategy sees the same stream
+     */
+    static List<Arrival> synthetic(double perHour, double hours, Map<String, Double> priorityMix,
+                                   List<String> categories, long seed) {
+        Random random = new Random(seed);
+        double total = priorityMix.values().stream().mapToDouble(Double::doubleValue).sum();
+        List<Arrival> arrivals = new ArrayList<>();
+        double minute = 0;
+        while (true) {
+            minute += -Math.log(1 - random.nextDouble()) * 60.0 / perHour;
+            if (minute > hours * 60) {
+                return arrivals;
+            }
+            double pick = random.nextDouble() * total;
+            String priority = null;
+            for (Map.Entry<String, Double> entry : priorityMix.entrySet()) {
+                priority = entry.getKey();
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    break;
+                }
+            }
+            arrivals.add(new Arrival(minute, priority, categories.get(random.nextInt(categories.size()))));
+        }
+    }
+
+    /**
+     * Read a recorded stream. One arrival per line: {@code minute,priority,category}.
+     * Blank lines, lines starting with '#' and a header line are skipped.
+     */
+    static List<Arrival> fromCsv(Path file) throws IOException {
+        List<Arrival> arrivals = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",");
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Expected minute,priority,category but got: " + line);
+            }
+            double minute;
+            try {
+                minute = Double.parseDouble(fields[0].trim());
+            } catch (NumberFormatException e) {
+                continue; // header
+            }
+            arrivals.add(new Arrival(minute, fields[1].trim(), fields[2].trim()));
+        }
+        arrivals.sort((a, b) -> Double.compare(a.minute(), b.minute()));
+        return arrivals;
+    }
+}
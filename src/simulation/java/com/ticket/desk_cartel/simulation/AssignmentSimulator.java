@@ -0,0 +1,166 @@
+package com.ticket.desk_cartel.simulation;
+
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.services.AgentScorer;
+import com.ticket.desk_cartel.services.CategoryAffinityScorer;
+import com.ticket.desk_cartel.services.LevelScorer;
+import com.ticket.desk_cartel.services.LoadScorer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline replay of a ticket arrival stream against the assignment logic, to compare
+ * assignment strategies, capacity rules and scheduler cadence before they ship.
+ * Every combination of --strategies and --dispatch runs on the same arrivals and agents,
+ * and the results are printed side by side.
+ *
+ * <pre>
+ * ./gradlew simulate -PsimArgs="--strategies=load,matching --dispatch=on-release,periodic"
+ * ./gradlew simulate -PsimArgs="--arrivals=recorded.csv --agents=40"
+ * </pre>
+ *
+ * Options (defaults in brackets): --agents [30], --arrivals-per-hour [20], --hours [40],
+ * --drain-hours [24], --scheduler-interval-s [60], --seed [42],
+ * --strategies [load,matching], --dispatch [on-release],
+ * --arrivals=file.csv (minute,priority,category per line; replaces the synthetic stream).
+ */
+public final class AssignmentSimulator {
+
+    /**
+     * How candidate agents are ranked: the AgentScorer beans to use and their weights.
+     */
+    enum Strategy {
+        // Free capacity only (the original rule)
+        LOAD {
+            @Override
+            List<AgentScorer> scorers() {
+                return List.of(new LoadScorer(1.0));
+            }
+        },
+        // Application defaults from application.properties
+        MATCHING {
+            @Override
+            List<AgentScorer> scorers() {
+                return List.of(new CategoryAffinityScorer(0.5), new LevelScorer(0.2), new LoadScorer(0.3));
+            }
+        };
+
+        abstract List<AgentScorer> scorers();
+    }
+
+    /**
+     * When waiting tickets are retried.
+     */
+    enum Dispatch {
+        // Scheduler run plus dispatch whenever an agent frees capacity
+        ON_RELEASE("on-release"),
+        // Scheduler run only
+        PERIODIC("periodic");
+
+        private final String label;
+
+        Dispatch(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+
+        static Dispatch of(String label) {
+            return Arrays.stream(values()).filter(dispatch -> dispatch.label.equalsIgnoreCase(label)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown dispatch mode: " + label));
+        }
+    }
+
+    static final class Options {
+        int agents = 30;
+        double arrivalsPerHour = 20;
+        double hours = 40;
+        double drainHours = 24;
+        double schedulerIntervalSeconds = 60;
+        long seed = 42;
+        List<Strategy> strategies = List.of(Strategy.LOAD, Strategy.MATCHING);
+        List<Dispatch> dispatch = List.of(Dispatch.ON_RELEASE);
+        Path arrivals;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String value = parts[1];
+                switch (parts[0]) {
+                    case "agents" -> options.agents = Integer.parseInt(value);
+                    case "arrivals-per-hour" -> options.arrivalsPerHour = Double.parseDouble(value);
+                    case "hours" -> options.hours = Double.parseDouble(value);
+                    case "drain-hours" -> options.drainHours = Double.parseDouble(value);
+                    case "scheduler-interval-s" -> options.schedulerIntervalSeconds = Double.parseDouble(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "strategies" -> options.strategies = Arrays.stream(value.split(","))
+                            .map(name -> Strategy.valueOf(name.trim().toUpperCase())).toList();
+                    case "dispatch" -> options.dispatch = Arrays.stream(value.split(","))
+                            .map(name -> Dispatch.of(name.trim())).toList();
+                    case "arrivals" -> options.arrivals = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return options;
+        }
+    }
+
+    private AssignmentSimulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        // Synthetic categories: points and typical handling time in minutes
+        Map<String, Category> categories = new LinkedHashMap<>();
+        Map<String, Integer> categoryMinutes = new LinkedHashMap<>();
+        addCategory(categories, categoryMinutes, 1, "Account", 1, 30);
+        addCategory(categories, categoryMinutes, 2, "Hardware", 2, 60);
+        addCategory(categories, categoryMinutes, 3, "Software", 2, 90);
+        addCategory(categories, categoryMinutes, 4, "Network", 3, 120);
+        addCategory(categories, categoryMinutes, 5, "Database", 3, 150);
+
+        Map<String, Double> priorityMix = new LinkedHashMap<>();
+        priorityMix.put("LOW", 0.4);
+        priorityMix.put("MEDIUM", 0.3);
+        priorityMix.put("HIGH", 0.2);
+        priorityMix.put("CRITICAL", 0.1);
+
+        List<ArrivalStream.Arrival> arrivals = options.arrivals != null
+                ? ArrivalStream.fromCsv(options.arrivals)
+                : ArrivalStream.synthetic(options.arrivalsPerHour, options.hours, priorityMix,
+                        List.copyOf(categories.keySet()), options.seed);
+
+        System.out.printf("Replaying %d tickets against %d agents (seed %d, scheduler every %.0fs)%n%n",
+                arrivals.size(), options.agents, options.seed, options.schedulerIntervalSeconds);
+
+        List<SimulationReport> reports = new ArrayList<>();
+        for (Strategy strategy : options.strategies) {
+            for (Dispatch dispatch : options.dispatch) {
+                reports.add(new SimulationRun(options, strategy, dispatch, categories, categoryMinutes).run(arrivals));
+            }
+        }
+        SimulationReport.print(reports, System.out);
+    }
+
+    private static void addCategory(Map<String, Category> categories, Map<String, Integer> categoryMinutes,
+                                    int id, String name, int points, int minutes) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setName(name);
+        category.setPoints(points);
+        categories.put(name, category);
+        categoryMinutes.put(name, minutes);
+    }
+}
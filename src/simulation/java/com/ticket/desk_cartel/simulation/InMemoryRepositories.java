@@ -0,0 +1,136 @@
+package com.ticket.desk_cartel.simulation;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.repositories.NotificationRepository;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import com.ticket.desk_cartel.repositories.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the repositories used by the assignment code.
+ * Each repository is a dynamic proxy that implements only the methods the assignment
+ * path calls; any other method fails loudly, so a new query in the services shows up
+ * here instead of silently returning nothing.
+ */
+final class InMemoryRepositories {
+
+    private final Map<Long, Agent> agents = new LinkedHashMap<>();
+    private final Map<Long, Ticket> tickets = new LinkedHashMap<>();
+    private final List<Object[]> completedHistory = new ArrayList<>();
+
+    final AgentRepository agentRepository;
+    final TicketRepository ticketRepository;
+    final NotificationRepository notificationRepository;
+    final UserRepository userRepository;
+
+    /**
+     * @param onTicketSaved called with every saved ticket, so the simulation sees assignments
+     */
+    InMemoryRepositories(Consumer<Ticket> onTicketSaved) {
+        Map<String, Function<Object[], Object>> agentMethods = new HashMap<>();
+        agentMethods.put("findById", args -> Optional.ofNullable(agents.get((Long) args[0])));
+        agentMethods.put("findAll", args -> new ArrayList<>(agents.values()));
+        agentMethods.put("save", args -> save((Agent) args[0]));
+        agentMethods.put("findAgentsWithEnoughCapacityFor", args -> {
+            int weight = (Integer) args[0];
+            return agents.values().stream()
+                    .filter(agent -> agent.isActive() && agent.getTotalCapacity() - agent.getCurrentWorkload() >= weight)
+                    .toList();
+        });
+        agentMethods.put("tryReserveWorkload", args -> {
+            Agent agent = (Agent) args[0];
+            int weight = (Integer) args[1];
+            if (!agent.isActive() || agent.getCurrentWorkload() + weight > agent.getTotalCapacity()) {
+                return false;
+            }
+            agent.addWorkload(weight);
+            return true;
+        });
+        agentMethods.put("adjustWorkload", args -> {
+            Agent agent = (Agent) args[0];
+            agent.setCurrentWorkload(Math.max(0, agent.getCurrentWorkload() + (Integer) args[1]));
+            return null;
+        });
+        agentMethods.put("summarizeForLeaderboard", args -> agents.values().stream()
+                .map(agent -> new Object[]{agent.getId(), null, agent.getLevel(), agent.getCompletedTickets(),
+                        agent.getTotalPerformancePoints()})
+                .toList());
+        this.agentRepository = proxy(AgentRepository.class, agentMethods);
+
+        Map<String, Function<Object[], Object>> ticketMethods = new HashMap<>();
+        ticketMethods.put("findById", args -> Optional.ofNullable(tickets.get((Long) args[0])));
+        ticketMethods.put("save", args -> {
+            Ticket ticket = (Ticket) args[0];
+            tickets.put(ticket.getTicketId(), ticket);
+            onTicketSaved.accept(ticket);
+            return ticket;
+        });
+        ticketMethods.put("findByStatus", args -> tickets.values().stream()
+                .filter(ticket -> ticket.getStatus() == args[0])
+                .toList());
+        ticketMethods.put("summarizeByAgentAndCategory", args ->
+                args[0] == Status.COMPLETED ? List.copyOf(completedHistory) : List.of());
+        // Seeded history has no completion dates, so the weekly and monthly boards start empty
+        ticketMethods.put("sumPointsByAgentSince", args -> List.of());
+        this.ticketRepository = proxy(TicketRepository.class, ticketMethods);
+
+        Map<String, Function<Object[], Object>> notificationMethods = new HashMap<>();
+        notificationMethods.put("save", args -> args[0]);
+        this.notificationRepository = proxy(NotificationRepository.class, notificationMethods);
+
+        Map<String, Function<Object[], Object>> userMethods = new HashMap<>();
+        userMethods.put("findById", args -> Optional.empty());
+        userMethods.put("save", args -> args[0]);
+        this.userRepository = proxy(UserRepository.class, userMethods);
+    }
+
+    Agent save(Agent agent) {
+        agents.put(agent.getId(), agent);
+        return agent;
+    }
+
+    List<Agent> agents() {
+        return List.copyOf(agents.values());
+    }
+
+    /**
+     * Seed the completed-ticket history read by AgentProfileCache, in the row shape of
+     * TicketRepository.summarizeByAgentAndCategory.
+     */
+    void addCompletedHistory(long agentId, long categoryId, long completed, long points, long basePoints) {
+        completedHistory.add(new Object[]{agentId, categoryId, completed, points, basePoints});
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> implementation = methods.get(method.getName());
+                    if (implementation == null) {
+                        throw new UnsupportedOperationException(
+                                type.getSimpleName() + "." + method.getName() + " is not simulated");
+                    }
+                    return implementation.apply(args != null ? args : new Object[0]);
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.ticket.desk_cartel.simulation;
+
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.Ticket;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Results of one simulation run, and the side-by-side table printed for all runs.
+ */
+final class SimulationReport {
+
+    private static final class PriorityStats {
+        int arrived;
+        int completed;
+        int slaMisses;
+    }
+
+    private final String name;
+    private final Map<String, PriorityStats> byPriority = new LinkedHashMap<>();
+    private final List<Double> waits = new ArrayList<>();
+
+    private int arrived;
+    private int completed;
+    private int neverAssigned;
+    private int stillOpen;
+    private double lastCompletionMinute;
+    private double utilizationArea;
+    private double agentMinutes;
+
+    SimulationReport(String name, List<String> priorities) {
+        this.name = name;
+        priorities.forEach(priority -> byPriority.put(priority, new PriorityStats()));
+    }
+
+    void arrived(String priority) {
+        arrived++;
+        byPriority.get(priority).arrived++;
+    }
+
+    void assigned(double waitMinutes) {
+        waits.add(waitMinutes);
+    }
+
+    void completed(String priority, boolean slaMissed) {
+        completed++;
+        PriorityStats stats = byPriority.get(priority);
+        stats.completed++;
+        if (slaMissed) {
+            stats.slaMisses++;
+        }
+    }
+
+    // Time-weighted share of capacity in use, over all agents
+    void accumulateUtilization(List<Agent> agents, double minutes) {
+        if (minutes <= 0) {
+            return;
+        }
+        for (Agent agent : agents) {
+            if (agent.getTotalCapacity() > 0) {
+                utilizationArea += Math.min(1.0, (double) agent.getCurrentWorkload() / agent.getTotalCapacity()) * minutes;
+            }
+            agentMinutes += minutes;
+        }
+    }
+
+    /**
+     * Close the run. Tickets still open count as SLA misses once past their time limit.
+     */
+    void finish(double endMinute, List<Ticket> openTickets, ToDoubleFunction<Ticket> minutesOpen) {
+        lastCompletionMinute = endMinute;
+        stillOpen = openTickets.size();
+        for (Ticket ticket : openTickets) {
+            if (ticket.getAssignedTicket() == null) {
+                neverAssigned++;
+            }
+            if (minutesOpen.applyAsDouble(ticket) > ticket.getPriority().getTimeLimit() * 60.0) {
+                byPriority.get(ticket.getPriority().getName()).slaMisses++;
+            }
+        }
+    }
+
+    double throughputPerHour() {
+        return lastCompletionMinute > 0 ? completed / (lastCompletionMinute / 60.0) : 0;
+    }
+
+    double waitPercentile(double percentile) {
+        if (waits.isEmpty()) {
+            return 0;
+        }
+        List<Double> sorted = new ArrayList<>(waits);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    double utilization() {
+        return agentMinutes > 0 ? utilizationArea / agentMinutes : 0;
+    }
+
+    /**
+     * Print one column per run, so strategies can be compared row by row.
+     */
+    static void print(List<SimulationReport> reports, PrintStream out) {
+        Map<String, Function<SimulationReport, String>> rows = new LinkedHashMap<>();
+        rows.put("tickets arrived", report -> String.valueOf(report.arrived));
+        rows.put("tickets completed", report -> String.valueOf(report.completed));
+        rows.put("open at end", report -> report.stillOpen + " (" + report.neverAssigned + " unassigned)");
+        rows.put("throughput / hour", report -> String.format("%.2f", report.throughputPerHour()));
+        rows.put("queue wait p50 (min)", report -> String.format("%.1f", report.waitPercentile(50)));
+        rows.put("queue wait p90 (min)", report -> String.format("%.1f", report.waitPercentile(90)));
+        rows.put("queue wait p99 (min)", report -> String.format("%.1f", report.waitPercentile(99)));
+        rows.put("agent utilization", report -> String.format("%.1f%%", report.utilization() * 100));
+        for (String priority : reports.get(0).byPriority.keySet()) {
+            rows.put("SLA misses " + priority, report -> {
+                PriorityStats stats = report.byPriority.get(priority);
+                double share = stats.arrived > 0 ? 100.0 * stats.slaMisses / stats.arrived : 0;
+                return String.format("%d/%d (%.1f%%)", stats.slaMisses, stats.arrived, share);
+            });
+        }
+
+        int labelWidth = rows.keySet().stream().mapToInt(String::length).max().orElse(0) + 2;
+        int columnWidth = Math.max(22, reports.stream().mapToInt(report -> report.name.length()).max().orElse(0) + 2);
+
+        StringBuilder header = new StringBuilder(String.format("%-" + labelWidth + "s", ""));
+        reports.forEach(report -> header.append(String.format("%" + columnWidth + "s", report.name)));
+        out.println(header);
+        rows.forEach((label, value) -> {
+            StringBuilder line = new StringBuilder(String.format("%-" + labelWidth + "s", label));
+            reports.forEach(report -> line.append(String.format("%" + columnWidth + "s", value.apply(report))));
+            out.println(line);
+        });
+    }
+}
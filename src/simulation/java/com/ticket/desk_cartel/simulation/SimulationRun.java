@@ -0,0 +1,314 @@
+package com.ticket.desk_cartel.simulation;
+
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Notification;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.events.AgentCapacityReleasedEvent;
+import com.ticket.desk_cartel.services.AgentLeaderboard;
+import com.ticket.desk_cartel.services.AgentMatchingEngine;
+import com.ticket.desk_cartel.services.AgentProfileCache;
+import com.ticket.desk_cartel.services.AgentService;
+import com.ticket.desk_cartel.services.ChatHistoryCache;
+import com.ticket.desk_cartel.services.NotificationService;
+import com.ticket.desk_cartel.services.PendingAssignmentQueue;
+import com.ticket.desk_cartel.services.SchedulerLeaseService;
+import com.ticket.desk_cartel.services.TicketAssignmentScheduler;
+import com.ticket.desk_cartel.services.VerificationTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * One discrete-event simulation of the assignment logic for one strategy.
+ * The real AgentService, TicketAssignmentScheduler, PendingAssignmentQueue and
+ * AgentMatchingEngine run against InMemoryRepositories on a simulated clock.
+ * Ticket arrivals, completions and scheduler ticks are the events. The simulation
+ * plays the part of the agents: an assigned ticket is started right away and
+ * completed after a service time that depends on the category, the agent's level
+ * and the agent's experience in that category.
+ */
+final class SimulationRun {
+
+    static final LocalDateTime START = LocalDateTime.of(2025, 1, 6, 8, 0);
+
+    // Priorities as seeded in data.sql
+    static final List<Priority> PRIORITIES = List.of(
+            new Priority("LOW", 10, 4),
+            new Priority("MEDIUM", 20, 8),
+            new Priority("HIGH", 30, 24),
+            new Priority("CRITICAL", 40, 48));
+
+    private enum EventType { ARRIVAL, COMPLETION, SCHEDULER_TICK }
+
+    private record Event(double minute, long sequence, EventType type, Object subject) implements Comparable<Event> {
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(minute, other.minute);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final AssignmentSimulator.Options options;
+    private final AssignmentSimulator.Strategy strategy;
+    private final AssignmentSimulator.Dispatch dispatch;
+    private final Map<String, Category> categories;
+    private final Map<String, Integer> categoryMinutes;
+    private final Map<String, Priority> priorities = new HashMap<>();
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final Map<Long, Double> arrivalMinute = new HashMap<>();
+    // Ground truth used for service times: completed tickets per agent and category
+    private final Map<Long, Map<Long, Integer>> experience = new HashMap<>();
+    private final SimulationReport report;
+
+    private InMemoryRepositories repositories;
+    private AgentService agentService;
+    private TicketAssignmentScheduler scheduler;
+    private double now;
+    private long sequence;
+    private long nextTicketId = 1;
+
+    SimulationRun(AssignmentSimulator.Options options, AssignmentSimulator.Strategy strategy,
+                  AssignmentSimulator.Dispatch dispatch, Map<String, Category> categories,
+                  Map<String, Integer> categoryMinutes) {
+        this.options = options;
+        this.strategy = strategy;
+        this.dispatch = dispatch;
+        this.categories = categories;
+        this.categoryMinutes = categoryMinutes;
+        PRIORITIES.forEach(priority -> priorities.put(priority.getName(), priority));
+        this.report = new SimulationReport(strategy.name().toLowerCase() + "/" + dispatch.label(),
+                PRIORITIES.stream().map(Priority::getName).toList());
+    }
+
+    SimulationReport run(List<ArrivalStream.Arrival> arrivals) {
+        wire();
+        arrivals.forEach(arrival -> schedule(arrival.minute(), EventType.ARRIVAL, arrival));
+        double lastArrival = arrivals.isEmpty() ? 0 : arrivals.get(arrivals.size() - 1).minute();
+        double end = lastArrival + options.drainHours * 60;
+        schedule(options.schedulerIntervalSeconds / 60.0, EventType.SCHEDULER_TICK, null);
+
+        while (!events.isEmpty() && events.peek().minute() <= end) {
+            Event event = events.poll();
+            report.accumulateUtilization(repositories.agents(), event.minute() - now);
+            now = event.minute();
+            switch (event.type()) {
+                case ARRIVAL -> arrive((ArrivalStream.Arrival) event.subject());
+                case COMPLETION -> complete((Ticket) event.subject());
+                case SCHEDULER_TICK -> {
+                    scheduler.assignPendingTickets();
+                    schedule(now + options.schedulerIntervalSeconds / 60.0, EventType.SCHEDULER_TICK, null);
+                }
+            }
+        }
+
+        report.finish(now, openTickets(), this::minutesSince);
+        return report;
+    }
+
+    private void wire() {
+        repositories = new InMemoryRepositories(this::onTicketSaved);
+        seedAgents();
+
+        AgentProfileCache profileCache = new AgentProfileCache(repositories.ticketRepository);
+        AgentMatchingEngine matchingEngine = new AgentMatchingEngine(strategy.scorers(), profileCache);
+        PendingAssignmentQueue pendingQueue = new PendingAssignmentQueue(new SimpleMeterRegistry());
+
+        agentService = new AgentService(repositories.agentRepository, repositories.userRepository,
+                repositories.ticketRepository, repositories.notificationRepository, new SilentMail());
+        agentService.notificationService = new SilentNotifications();
+        setField(agentService, "pendingAssignmentQueue", pendingQueue);
+        setField(agentService, "matchingEngine", matchingEngine);
+        setField(agentService, "agentLeaderboard",
+                new AgentLeaderboard(repositories.agentRepository, repositories.ticketRepository));
+        // Simple broker mode: nothing is broadcast
+        setField(agentService, "chatHistoryCache",
+                new ChatHistoryCache(null, new ClusterEventBroadcaster(null, null, null, "simple"), 1));
+
+        scheduler = new TicketAssignmentScheduler(repositories.ticketRepository, agentService,
+                repositories.notificationRepository, repositories.agentRepository, repositories.userRepository,
+                new LocalLease(), pendingQueue);
+    }
+
+    // Same agents for every strategy: levels from 0-150 completed tickets, 60% of them in one specialty
+    private void seedAgents() {
+        Random random = new Random(options.seed);
+        List<Category> categoryList = List.copyOf(categories.values());
+        for (long id = 1; id <= options.agents; id++) {
+            int completed = random.nextInt(151);
+            Agent agent = new Agent(new User(), AgentLevel.calculateLevel(completed));
+            agent.setId(id);
+            agent.setCompletedTickets(completed);
+            agent.recalculateLevel();
+            repositories.save(agent);
+
+            Category specialty = categoryList.get(random.nextInt(categoryList.size()));
+            int inSpecialty = (int) Math.round(completed * 0.6);
+            int elsewhere = (completed - inSpecialty) / Math.max(1, categoryList.size() - 1);
+            for (Category category : categoryList) {
+                int count = category == specialty ? inSpecialty : elsewhere;
+                if (count == 0) {
+                    continue;
+                }
+                experience.computeIfAbsent(id, key -> new HashMap<>()).put((long) category.getCategoryId(), count);
+                // Seeded history is on time: points equal base points
+                long base = (long) count * category.getPoints() * PRIORITIES.get(1).getWeight();
+                repositories.addCompletedHistory(id, category.getCategoryId(), count, base, base);
+            }
+        }
+    }
+
+    private void arrive(ArrivalStream.Arrival arrival) {
+        Priority priority = priorities.get(arrival.priority());
+        Category category = categories.get(arrival.category());
+        if (priority == null || category == null) {
+            throw new IllegalArgumentException("Unknown priority or category in arrival: " + arrival);
+        }
+
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(nextTicketId++);
+        ticket.setTitle("Simulated " + arrival.priority() + " " + arrival.category());
+        ticket.setPriority(priority);
+        ticket.setCategory(category);
+        ticket.setStatus(Status.NO_AGENT_AVAILABLE);
+        ticket.setDate_created(clock());
+        arrivalMinute.put(ticket.getTicketId(), now);
+        repositories.ticketRepository.save(ticket);
+        report.arrived(priority.getName());
+
+        // What TicketService.createTicket does after saving
+        agentService.assignTicketToAgent(ticket.getTicketId());
+    }
+
+    // Every assignment goes through TicketRepository.save; start work on it right away
+    private void onTicketSaved(Ticket ticket) {
+        if (ticket.getStatus() != Status.ASSIGNED || ticket.getAssignedTicket() == null
+                || ticket.getDate_started() != null) {
+            return;
+        }
+        ticket.setDate_started(clock());
+        report.assigned(now - arrivalMinute.get(ticket.getTicketId()));
+        schedule(now + serviceMinutes(ticket.getAssignedTicket(), ticket), EventType.COMPLETION, ticket);
+    }
+
+    private void complete(Ticket ticket) {
+        Agent agent = ticket.getAssignedTicket();
+        LocalDateTime completedAt = clock();
+        int points = agentService.calculatePerformancePoints(ticket, completedAt);
+
+        ticket.setCompletion_date(completedAt);
+        ticket.setPoints(points);
+        ticket.setStatus(Status.COMPLETED);
+        repositories.agentRepository.adjustWorkload(agent, -ticket.getPriority().getWeight());
+        agent.addCompletedTicketWithPoints(points);
+        agentService.recordCompletion(ticket);
+        experience.computeIfAbsent(agent.getId(), key -> new HashMap<>())
+                .merge((long) ticket.getCategory().getCategoryId(), 1, Integer::sum);
+
+        double minutesOpen = now - arrivalMinute.get(ticket.getTicketId());
+        report.completed(ticket.getPriority().getName(), minutesOpen > ticket.getPriority().getTimeLimit() * 60.0);
+
+        if (dispatch == AssignmentSimulator.Dispatch.ON_RELEASE) {
+            // What the AgentCapacityReleasedEvent listener does after commit
+            scheduler.onCapacityReleased(new AgentCapacityReleasedEvent(agent.getId()));
+        }
+    }
+
+    private double serviceMinutes(Agent agent, Ticket ticket) {
+        double base = categoryMinutes.get(ticket.getCategory().getName());
+        double levelFactor = switch (agent.getLevel()) {
+            case JUNIOR -> 1.3;
+            case MID -> 1.0;
+            case SENIOR -> 0.8;
+        };
+        int done = experience.getOrDefault(agent.getId(), Map.of())
+                .getOrDefault((long) ticket.getCategory().getCategoryId(), 0);
+        double skillFactor = 1.6 - 0.9 * done / (done + 5.0);
+        // Noise depends on the ticket only, so every strategy sees the same luck for the same ticket
+        double noise = Math.exp(0.4 * new Random(options.seed * 31 + ticket.getTicketId()).nextGaussian());
+        return base * levelFactor * skillFactor * noise;
+    }
+
+    private List<Ticket> openTickets() {
+        return Stream.concat(
+                repositories.ticketRepository.findByStatus(Status.NO_AGENT_AVAILABLE).stream(),
+                repositories.ticketRepository.findByStatus(Status.ASSIGNED).stream()).toList();
+    }
+
+    private double minutesSince(Ticket ticket) {
+        return now - arrivalMinute.get(ticket.getTicketId());
+    }
+
+    private LocalDateTime clock() {
+        return START.plusSeconds(Math.round(now * 60));
+    }
+
+    private void schedule(double minute, EventType type, Object subject) {
+        events.add(new Event(minute, sequence++, type, subject));
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static final class SilentMail extends VerificationTokenService {
+        SilentMail() {
+            super(null, null);
+        }
+
+        @Override
+        public void sendEmail(String to, String subject, String text) {
+        }
+    }
+
+    private static final class SilentNotifications extends NotificationService {
+        @Override
+        public Notification createTicketAssignedNotification(Ticket ticket) {
+            return null;
+        }
+
+        @Override
+        public Notification createNoAgentAvailableNotification(Ticket ticket) {
+            return null;
+        }
+    }
+
+    // Single simulated node: the lease is always ours
+    private static final class LocalLease extends SchedulerLeaseService {
+        LocalLease() {
+            super(null, null, "simulation");
+        }
+
+        @Override
+        public OptionalLong tryAcquire(String name, Duration lockAtMostFor) {
+            return OptionalLong.of(1);
+        }
+
+        @Override
+        public boolean isHeld(String name, long token) {
+            return true;
+        }
+
+        @Override
+        public void release(String name, long token, Duration lockAtLeastFor) {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import com.ticket.desk_cartel.services.AgentLeaderboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AgentLeaderboardTest {
+
+    private AgentRepository agentRepository;
+    private TicketRepository ticketRepository;
+    private AgentLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        agentRepository = mock(AgentRepository.class);
+        ticketRepository = mock(TicketRepository.class);
+        when(agentRepository.summarizeForLeaderboard()).thenReturn(List.of(
+                new Object[]{1L, "ana", AgentLevel.SENIOR, 40, 300},
+                new Object[]{2L, "ben", AgentLevel.MID, 20, 150},
+                new Object[]{3L, "cy", AgentLevel.JUNIOR, 5, 40}));
+        // Points this week and this month
+        when(ticketRepository.sumPointsByAgentSince(any(), any())).thenReturn(List.<Object[]>of(new Object[]{3L, 25L}));
+        leaderboard = new AgentLeaderboard(agentRepository, ticketRepository);
+    }
+
+    private List<Long> order(AgentLeaderboard.Window window) {
+        return leaderboard.page(window, 0, 10).stream().map(AgentLeaderboard.Standing::agentId).toList();
+    }
+
+    @Test
+    void testPagesAreRankedByPoints() {
+        List<AgentLeaderboard.Standing> first = leaderboard.page(AgentLeaderboard.Window.ALL_TIME, 0, 2);
+        List<AgentLeaderboard.Standing> second = leaderboard.page(AgentLeaderboard.Window.ALL_TIME, 1, 2);
+
+        assertEquals(List.of(1L, 2L), first.stream().map(AgentLeaderboard.Standing::agentId).toList());
+        assertEquals("ana", first.get(0).name());
+        assertEquals(3, second.get(0).rank());
+        assertEquals(List.of(3L, 1L, 2L), order(AgentLeaderboard.Window.WEEKLY));
+        assertTrue(leaderboard.page(AgentLeaderboard.Window.ALL_TIME, 5, 2).isEmpty());
+    }
+
+    @Test
+    void testCompletionMovesAgentOnEveryBoard() {
+        User user = new User();
+        user.setUsername("ben");
+        Agent agent = new Agent(user, AgentLevel.MID);
+        agent.setId(2L);
+        agent.setTotalPerformancePoints(150);
+        agent.addCompletedTicketWithPoints(200);
+
+        Ticket ticket = new Ticket();
+        ticket.setAssignedTicket(agent);
+        ticket.setPoints(200);
+        ticket.setCompletion_date(LocalDateTime.now());
+        when(ticketRepository.sumPointsOfAgentSince(eq(2L), any(), any())).thenReturn(200L);
+        leaderboard.recordCompletion(ticket);
+
+        assertEquals(1, leaderboard.rankOf(AgentLeaderboard.Window.ALL_TIME, 2L).orElseThrow().rank());
+        assertEquals(350, leaderboard.rankOf(AgentLeaderboard.Window.ALL_TIME, 2L).orElseThrow().totalPoints());
+        assertEquals(List.of(2L, 3L, 1L), order(AgentLeaderboard.Window.MONTHLY));
+        assertEquals(3, leaderboard.size(AgentLeaderboard.Window.WEEKLY));
+    }
+
+    @Test
+    void testRebuildBeforeCompletionUpdateDoesNotCountTwice() {
+        User user = new User();
+        user.setUsername("cy");
+        Agent agent = new Agent(user, AgentLevel.JUNIOR);
+        agent.setId(3L);
+        agent.setTotalPerformancePoints(40);
+        agent.addCompletedTicketWithPoints(10);
+
+        Ticket ticket = new Ticket();
+        ticket.setAssignedTicket(agent);
+        ticket.setPoints(10);
+        ticket.setCompletion_date(LocalDateTime.now());
+
+        // The rebuild already sees the committed completion
+        when(ticketRepository.sumPointsByAgentSince(any(), any())).thenReturn(List.<Object[]>of(new Object[]{3L, 35L}));
+        when(ticketRepository.sumPointsOfAgentSince(eq(3L), any(), any())).thenReturn(35L);
+        leaderboard.refresh();
+        leaderboard.recordCompletion(ticket);
+
+        assertEquals(35, leaderboard.rankOf(AgentLeaderboard.Window.WEEKLY, 3L).orElseThrow().totalPoints());
+        assertEquals(35, leaderboard.rankOf(AgentLeaderboard.Window.MONTHLY, 3L).orElseThrow().totalPoints());
+    }
+
+    @Test
+    void testUnknownAgentHasNoRank() {
+        assertTrue(leaderboard.rankOf(AgentLeaderboard.Window.ALL_TIME, 99L).isEmpty());
+    }
+}
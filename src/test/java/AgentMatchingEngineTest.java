@@ -0,0 +1,90 @@
+import com.ticket.desk_cartel.entities.*;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import com.ticket.desk_cartel.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AgentMatchingEngineTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private AgentProfileCache profileCache;
+    private AgentMatchingEngine matchingEngine;
+    private Category database;
+    private Priority high;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        profileCache = new AgentProfileCache(ticketRepository);
+        matchingEngine = new AgentMatchingEngine(
+                List.of(new CategoryAffinityScorer(0.5), new LevelScorer(0.2), new LoadScorer(0.3)), profileCache);
+
+        database = new Category();
+        database.setCategoryId(3);
+        database.setPoints(2);
+        high = new Priority("HIGH", 3, 24);
+    }
+
+    private Agent agent(long id, AgentLevel level, int workload) {
+        Agent agent = new Agent(new User(), level);
+        agent.setId(id);
+        agent.setTotalCapacity(20);
+        agent.setCurrentWorkload(workload);
+        return agent;
+    }
+
+    private Ticket ticket(Agent agent) {
+        Ticket ticket = new Ticket();
+        ticket.setPriority(high);
+        ticket.setCategory(database);
+        ticket.setAssignedTicket(agent);
+        return ticket;
+    }
+
+    @Test
+    void testAgentWithCategoryHistoryRanksFirst() {
+        Agent idle = agent(1L, AgentLevel.JUNIOR, 0);
+        Agent experienced = agent(2L, AgentLevel.JUNIOR, 10);
+        // Agent 2 closed 10 database tickets on time (points == base points)
+        when(ticketRepository.summarizeByAgentAndCategory(Status.COMPLETED))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 3, 10L, 60L, 60L}));
+
+        List<Agent> ranked = matchingEngine.rank(List.of(idle, experienced), ticket(null));
+
+        assertEquals(List.of(experienced, idle), ranked);
+    }
+
+    @Test
+    void testLoadDecidesWithoutHistory() {
+        Agent busy = agent(1L, AgentLevel.JUNIOR, 15);
+        Agent free = agent(2L, AgentLevel.JUNIOR, 2);
+
+        List<Agent> ranked = matchingEngine.rank(List.of(busy, free), ticket(null));
+
+        assertEquals(List.of(free, busy), ranked);
+    }
+
+    @Test
+    void testCompletionUpdatesProfileWithoutReload() {
+        Agent agent = agent(1L, AgentLevel.JUNIOR, 0);
+        Ticket completed = ticket(agent);
+        completed.setPoints(9);
+
+        matchingEngine.recordCompletion(completed);
+        matchingEngine.recordCompletion(completed);
+
+        AgentProfileCache.CategoryStats stats = profileCache.getProfile(1L).forCategory(3);
+        assertEquals(2, stats.completed());
+        assertEquals(1.5, stats.efficiency(), 0.001);
+        verify(ticketRepository, times(1)).summarizeByAgentAndCategory(Status.COMPLETED);
+    }
+}
@@ -1,12 +1,15 @@
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.ticket.desk_cartel.dto.AgentStatsDTO;
 import com.ticket.desk_cartel.entities.*;
 import com.ticket.desk_cartel.repositories.*;
 import com.ticket.desk_cartel.services.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
@@ -34,6 +37,9 @@ public class AgentServiceTest {
     @Mock
     private PriorityRepository priorityRepository;
 
+    @Mock
+    private ChatHistoryCache chatHistoryCache;
+
     private AgentService agentService;
 
     @BeforeEach
@@ -41,6 +47,11 @@ public class AgentServiceTest {
         MockitoAnnotations.openMocks(this);
         agentService = new AgentService(agentRepository, userRepository, ticketRepository, notificationRepository, verificationTokenService);
         agentService.notificationService = notificationService;  // Inject the mock notificationService
+        ReflectionTestUtils.setField(agentService, "pendingAssignmentQueue", new PendingAssignmentQueue(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(agentService, "matchingEngine",
+                new AgentMatchingEngine(List.of(new LoadScorer(1.0)), new AgentProfileCache(ticketRepository)));
+        ReflectionTestUtils.setField(agentService, "agentLeaderboard", new AgentLeaderboard(agentRepository, ticketRepository));
+        ReflectionTestUtils.setField(agentService, "chatHistoryCache", chatHistoryCache);
     }
 
     // Test for creating an agent from a user
@@ -146,6 +157,7 @@ public class AgentServiceTest {
         when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
         when(agentRepository.findAgentsWithEnoughCapacityFor(ticket.getPriority().getWeight()))
                 .thenReturn(Collections.singletonList(agent));
+        when(agentRepository.tryReserveWorkload(agent, 3)).thenReturn(true);
         when(agentRepository.save(any(Agent.class))).thenReturn(agent);
         when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
 
@@ -156,6 +168,59 @@ public class AgentServiceTest {
         assertNotNull(updatedTicket);
         assertEquals(Status.ASSIGNED, updatedTicket.getStatus());
         assertEquals(agent, updatedTicket.getAssignedTicket());
+        verify(chatHistoryCache).invalidate("1");
+    }
+
+    @Test
+    @Transactional
+    public void testAssignTicketToAgentFallsBackToNextAgentOnContention() {
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(1L);
+        Priority priority = new Priority("HIGH", 3, 24);
+        ticket.setPriority(priority);
+
+        Agent busiest = new Agent(new User(), AgentLevel.JUNIOR);
+        busiest.setCurrentWorkload(50);
+        busiest.setTotalCapacity(100);
+
+        // Looks best, but another assignment filled it first
+        Agent raced = new Agent(new User(), AgentLevel.JUNIOR);
+        raced.setCurrentWorkload(10);
+        raced.setTotalCapacity(100);
+
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+        when(agentRepository.findAgentsWithEnoughCapacityFor(3)).thenReturn(Arrays.asList(busiest, raced));
+        when(agentRepository.tryReserveWorkload(raced, 3)).thenReturn(false);
+        when(agentRepository.tryReserveWorkload(busiest, 3)).thenReturn(true);
+        when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
+
+        Ticket updatedTicket = agentService.assignTicketToAgent(1L);
+
+        assertEquals(Status.ASSIGNED, updatedTicket.getStatus());
+        assertEquals(busiest, updatedTicket.getAssignedTicket());
+        verify(agentRepository, never()).save(any(Agent.class));
+    }
+
+    @Test
+    @Transactional
+    public void testAssignTicketToAgentAllCandidatesTaken() {
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(1L);
+        Priority priority = new Priority("HIGH", 3, 24);
+        ticket.setPriority(priority);
+
+        Agent agent = new Agent(new User(), AgentLevel.JUNIOR);
+        agent.setTotalCapacity(100);
+
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+        when(agentRepository.findAgentsWithEnoughCapacityFor(3)).thenReturn(Collections.singletonList(agent));
+        when(agentRepository.tryReserveWorkload(agent, 3)).thenReturn(false);
+        when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
+
+        Ticket updatedTicket = agentService.assignTicketToAgent(1L);
+
+        assertEquals(Status.NO_AGENT_AVAILABLE, updatedTicket.getStatus());
+        assertNull(updatedTicket.getAssignedTicket());
     }
 
     @Test
@@ -216,4 +281,43 @@ public class AgentServiceTest {
         // Assertions
         assertNull(updatedTicket);
     }
+
+    @Test
+    public void testGetAgentStatsCountsTicketsInDatabase() {
+        User user = new User();
+        user.setUsername("agent1");
+        Agent agent = new Agent(user, AgentLevel.JUNIOR);
+        agent.setId(1L);
+        agent.setCurrentWorkload(2);
+
+        when(agentRepository.findById(1L)).thenReturn(Optional.of(agent));
+        when(ticketRepository.countByStatusForAgent(1L)).thenReturn(List.of(
+                new Object[]{Status.ONGOING, 2L},
+                new Object[]{Status.COMPLETED, 40L}));
+
+        AgentStatsDTO stats = agentService.getAgentStats(1L).orElseThrow();
+
+        assertEquals(42, stats.assignedTickets());
+        assertEquals(2, stats.ongoingTickets());
+        assertEquals(0L, stats.ticketsByStatus().get(Status.ASSIGNED));
+        assertEquals(agent.getTotalCapacity() - 2, stats.availableCapacity());
+        verify(ticketRepository, never()).findByAssignedTicket_Id(anyLong());
+    }
+
+    @Test
+    public void testGetAllAgentStatsFoldsStatusRows() {
+        when(agentRepository.summarizeTicketStatsByAgent()).thenReturn(List.of(
+                new Object[]{1L, "agent1", AgentLevel.SENIOR, 8, 12, 3, 60, Status.ASSIGNED, 1L},
+                new Object[]{1L, "agent1", AgentLevel.SENIOR, 8, 12, 3, 60, Status.ONGOING, 2L},
+                new Object[]{2L, "agent2", AgentLevel.JUNIOR, 3, 3, 0, 0, null, 0L}));
+
+        List<AgentStatsDTO> stats = agentService.getAllAgentStats();
+
+        assertEquals(2, stats.size());
+        assertEquals(3, stats.get(0).assignedTickets());
+        assertEquals(2, stats.get(0).ongoingTickets());
+        assertEquals(9, stats.get(0).availableCapacity());
+        assertEquals("agent2", stats.get(1).name());
+        assertEquals(0, stats.get(1).assignedTickets());
+    }
 }
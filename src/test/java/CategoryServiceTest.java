@@ -1,6 +1,7 @@
 import com.ticket.desk_cartel.entities.Category;
 import com.ticket.desk_cartel.repositories.CategoryRepository;
 import com.ticket.desk_cartel.services.CategoryService;
+import com.ticket.desk_cartel.services.ReferenceDataCache;
 import jakarta.security.auth.message.AuthException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -0,0 +1,102 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.events.ChatHistoryChangedEvent;
+import com.ticket.desk_cartel.services.ChatHistoryCache;
+import com.ticket.desk_cartel.services.SerializedPayloadSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChatHistoryCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ChatHistoryCache chatHistoryCache;
+    private AtomicInteger loads;
+    private final ClusterEventBroadcaster broadcaster = mock(ClusterEventBroadcaster.class);
+
+    @BeforeEach
+    void setUp() {
+        // serialize() does not touch the messaging template
+        chatHistoryCache = new ChatHistoryCache(new SerializedPayloadSender(null, objectMapper), broadcaster, 2);
+        loads = new AtomicInteger();
+    }
+
+    private Map<String, Object> history(String ticketId) {
+        loads.incrementAndGet();
+        Map<String, Object> history = new LinkedHashMap<>();
+        history.put("type", "ticket");
+        history.put("ticketId", ticketId);
+        history.put("messages", List.of("hello"));
+        return history;
+    }
+
+    @Test
+    void testHistoryIsSerializedOnceAndRequestIdIsSpliced() throws Exception {
+        byte[] first = chatHistoryCache.getHistoryFrame("1", "req-1", () -> history("1"));
+        byte[] second = chatHistoryCache.getHistoryFrame("1", "req-\"2\"", () -> history("1"));
+
+        assertEquals(1, loads.get());
+
+        JsonNode firstFrame = objectMapper.readTree(first);
+        assertEquals("req-1", firstFrame.get("requestId").asText());
+        assertEquals("ticket", firstFrame.get("type").asText());
+        assertEquals("hello", firstFrame.get("messages").get(0).asText());
+
+        JsonNode secondFrame = objectMapper.readTree(second);
+        assertEquals("req-\"2\"", secondFrame.get("requestId").asText());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        chatHistoryCache.getHistoryFrame("1", null, () -> history("1"));
+        chatHistoryCache.invalidate("1");
+        chatHistoryCache.getHistoryFrame("1", null, () -> history("1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedTicketIsEvicted() {
+        chatHistoryCache.getHistoryFrame("1", "", () -> history("1"));
+        chatHistoryCache.getHistoryFrame("2", "", () -> history("2"));
+        chatHistoryCache.getHistoryFrame("3", "", () -> history("3"));
+
+        assertEquals(2, chatHistoryCache.size());
+        chatHistoryCache.getHistoryFrame("1", "", () -> history("1"));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testLoadOverlappingAnInvalidationIsNotCached() {
+        // The write commits (and invalidates) while this load is still reading the old history
+        chatHistoryCache.getHistoryFrame("1", "", () -> {
+            Map<String, Object> stale = history("1");
+            chatHistoryCache.invalidate("1");
+            return stale;
+        });
+
+        assertEquals(0, chatHistoryCache.size());
+        chatHistoryCache.getHistoryFrame("1", "", () -> history("1"));
+        assertEquals(2, loads.get());
+        assertEquals(1, chatHistoryCache.size());
+    }
+
+    @Test
+    void testInvalidationIsBroadcastAndReceived() {
+        chatHistoryCache.invalidate("1");
+        verify(broadcaster).broadcastChatHistoryChanged("1");
+
+        // A message saved on another node drops our copy
+        chatHistoryCache.getHistoryFrame("2", "", () -> history("2"));
+        chatHistoryCache.onChatHistoryChanged(new ChatHistoryChangedEvent("2", "other-node"));
+        assertEquals(0, chatHistoryCache.size());
+    }
+}
@@ -3,7 +3,9 @@ import com.ticket.desk_cartel.entities.ChatMessage;
 import com.ticket.desk_cartel.entities.User;
 import com.ticket.desk_cartel.repositories.ChatMessageRepository;
 import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.ChatHistoryCache;
 import com.ticket.desk_cartel.services.ChatService;
+import com.ticket.desk_cartel.services.UserIdentityCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +29,12 @@ class ChatServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    @Mock
+    private ChatHistoryCache chatHistoryCache;
+
     @InjectMocks
     private ChatService chatService;
 
@@ -55,8 +63,8 @@ class ChatServiceTest {
         chatMessageDTO.setReceiverUsername("Bob");
         chatMessageDTO.setMessageContent("Hello Bob!");
 
-        when(userRepository.findByUsername("Alice")).thenReturn(Optional.of(sender));
-        when(userRepository.findByUsername("Bob")).thenReturn(Optional.of(receiver));
+        when(userIdentityCache.getReference("Alice")).thenReturn(Optional.of(sender));
+        when(userIdentityCache.getReference("Bob")).thenReturn(Optional.of(receiver));
         when(chatMessageRepository.save(any(ChatMessage.class))).thenReturn(message);
 
         ChatMessage savedMessage = chatService.saveMessage(chatMessageDTO);
@@ -66,6 +74,23 @@ class ChatServiceTest {
         verify(chatMessageRepository).save(any(ChatMessage.class));
     }
 
+    @Test
+    void testSaveMessage_ReceiverNotFound() {
+        ChatMessageDTO chatMessageDTO = new ChatMessageDTO();
+        chatMessageDTO.setSenderUsername("Alice");
+        chatMessageDTO.setReceiverUsername("Nobody");
+        chatMessageDTO.setMessageContent("Hello?");
+
+        when(userIdentityCache.getReference("Alice")).thenReturn(Optional.of(sender));
+        when(userIdentityCache.getReference("Nobody")).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> chatService.saveMessage(chatMessageDTO));
+
+        assertTrue(exception.getMessage().contains("Receiver not found"));
+        verify(chatMessageRepository, never()).save(any(ChatMessage.class));
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
     @Test
     void testGetChatHistory() {
         when(chatMessageRepository.findChatHistory("Alice", "Bob")).thenReturn(List.of(message));
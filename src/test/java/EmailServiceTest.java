@@ -0,0 +1,48 @@
+import com.ticket.desk_cartel.services.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EmailServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(mailSender, meterRegistry);
+    }
+
+    @Test
+    void testSendEmail() {
+        emailService.sendEmail("test@example.com", "Test Subject", "Test Message");
+
+        ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender, times(1)).send(message.capture());
+        assertArrayEquals(new String[]{"test@example.com"}, message.getValue().getTo());
+        assertEquals("Test Subject", message.getValue().getSubject());
+        assertEquals("Test Message", message.getValue().getText());
+    }
+
+    @Test
+    void testSendEmailFailureIsNotRethrown() {
+        doThrow(new MailSendException("SMTP down")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        assertDoesNotThrow(() -> emailService.sendEmail("test@example.com", "Test Subject", "Test Message"));
+        assertEquals(1.0, meterRegistry.counter("mail.send.failures").count());
+    }
+}
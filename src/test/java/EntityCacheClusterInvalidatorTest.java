@@ -0,0 +1,77 @@
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.configs.EntityCacheClusterInvalidator;
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.events.EntityChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EntityCacheClusterInvalidatorTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+    private final CacheImplementor cache = mock(CacheImplementor.class);
+    private final ClusterEventBroadcaster broadcaster = mock(ClusterEventBroadcaster.class);
+    private EntityCacheClusterInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        invalidator = new EntityCacheClusterInvalidator(entityManagerFactory, broadcaster);
+    }
+
+    private EntityPersister persister(Class<?> type) {
+        EntityPersister persister = mock(EntityPersister.class);
+        doReturn(type).when(persister).getMappedClass();
+        when(persister.getEntityName()).thenReturn(type.getName());
+        return persister;
+    }
+
+    @Test
+    void testCommittedUserChangesAreBroadcast() {
+        EntityPersister persister = persister(User.class);
+        PostUpdateEvent update = mock(PostUpdateEvent.class);
+        when(update.getPersister()).thenReturn(persister);
+        when(update.getId()).thenReturn(7L);
+        PostDeleteEvent delete = mock(PostDeleteEvent.class);
+        when(delete.getPersister()).thenReturn(persister);
+        when(delete.getId()).thenReturn(8L);
+
+        invalidator.onPostUpdate(update);
+        invalidator.onPostDelete(delete);
+
+        verify(broadcaster).broadcastEntityChanged(User.class.getName(), 7L);
+        verify(broadcaster).broadcastEntityChanged(User.class.getName(), 8L);
+    }
+
+    @Test
+    void testOtherEntitiesAndRollbacksAreNotBroadcast() {
+        EntityPersister agent = persister(Agent.class);
+        PostUpdateEvent update = mock(PostUpdateEvent.class);
+        when(update.getPersister()).thenReturn(agent);
+        when(update.getId()).thenReturn(1L);
+
+        invalidator.onPostUpdate(update);
+        invalidator.onPostUpdateCommitFailed(update);
+
+        verify(broadcaster, never()).broadcastEntityChanged(anyString(), anyLong());
+    }
+
+    @Test
+    void testReceivedChangeEvictsRow() {
+        invalidator.onEntityChanged(new EntityChangedEvent(User.class.getName(), 7L, "other-node"));
+
+        verify(cache).evictEntityData(User.class.getName(), 7L);
+    }
+}
@@ -0,0 +1,65 @@
+import com.ticket.desk_cartel.services.OrderStatisticTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void testRanksAndPositions() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+        List.of(50, 10, 40, 20, 30).forEach(tree::add);
+
+        assertEquals(5, tree.size());
+        assertEquals(0, tree.indexOf(50));
+        assertEquals(4, tree.indexOf(10));
+        assertEquals(-1, tree.indexOf(35));
+        assertEquals(30, tree.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(5));
+    }
+
+    @Test
+    void testDuplicatesAndRemoval() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        assertTrue(tree.add(1));
+        assertFalse(tree.add(1));
+        assertTrue(tree.add(2));
+        assertTrue(tree.remove(1));
+        assertFalse(tree.remove(1));
+
+        assertEquals(1, tree.size());
+        assertEquals(0, tree.indexOf(2));
+    }
+
+    @Test
+    void testMatchesSortedListUnderRandomUpdates() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(!expected.contains(value), tree.add(value));
+                if (!expected.contains(value)) {
+                    expected.add(value);
+                }
+            } else {
+                assertEquals(expected.remove(Integer.valueOf(value)), tree.remove(value));
+            }
+        }
+        expected.sort(Comparator.naturalOrder());
+
+        assertEquals(expected.size(), tree.size());
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.get(index), tree.get(index));
+            assertEquals(index, tree.indexOf(expected.get(index)));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.services.PendingAssignmentQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingAssignmentQueueTest {
+
+    // Seeded by PriorityService.initializeDefaultPriorities
+    private final Priority notAssigned = new Priority("NOT_ASSIGNED", 0, 0);
+    private final Priority low = new Priority("LOW", 10, 4);
+    private final Priority medium = new Priority("MEDIUM", 20, 8);
+    private final Priority high = new Priority("HIGH", 30, 24);
+    private final Priority critical = new Priority("CRITICAL", 40, 48);
+
+    private PendingAssignmentQueue pendingQueue;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        pendingQueue = new PendingAssignmentQueue(new SimpleMeterRegistry());
+        now = LocalDateTime.now();
+    }
+
+    private Ticket ticket(long id, Priority priority, LocalDateTime created) {
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(id);
+        ticket.setPriority(priority);
+        ticket.setDate_created(created);
+        return ticket;
+    }
+
+    private List<Long> order() {
+        return pendingQueue.snapshot().stream().map(PendingAssignmentQueue.Entry::ticketId).toList();
+    }
+
+    @Test
+    void testHeavierPriorityComesFirst() {
+        pendingQueue.add(ticket(1L, low, now.minusHours(10)));
+        pendingQueue.add(ticket(2L, critical, now));
+        pendingQueue.add(ticket(3L, low, now.minusDays(3)));
+        pendingQueue.add(ticket(4L, notAssigned, now.minusDays(30)));
+        pendingQueue.add(ticket(5L, medium, now.minusHours(1)));
+
+        // A fresh CRITICAL ticket goes before LOW tickets that have waited for days
+        assertEquals(List.of(2L, 5L, 3L, 1L, 4L), order());
+    }
+
+    @Test
+    void testOlderTicketComesFirstWithinPriority() {
+        pendingQueue.add(ticket(1L, high, now));
+        pendingQueue.add(ticket(2L, high, now.minusMinutes(5)));
+        pendingQueue.add(ticket(3L, high, now));
+        pendingQueue.add(ticket(4L, high, null));
+
+        // Tickets without a creation time count as the oldest, equal ages go by id
+        assertEquals(List.of(4L, 2L, 1L, 3L), order());
+    }
+
+    @Test
+    void testReaddingAndRemovingKeepOneEntryPerTicket() {
+        pendingQueue.add(ticket(1L, low, now));
+        pendingQueue.add(ticket(2L, low, now.minusHours(1)));
+        assertEquals(List.of(2L, 1L), order());
+
+        // Priority raised while waiting
+        pendingQueue.add(ticket(1L, critical, now));
+        assertEquals(List.of(1L, 2L), order());
+
+        pendingQueue.remove(1L);
+        assertEquals(List.of(2L), order());
+
+        pendingQueue.replaceAll(List.of(ticket(5L, low, now)));
+        assertEquals(List.of(5L), order());
+    }
+
+    @Test
+    void testCountsByPriorityFollowQueue() {
+        pendingQueue.add(ticket(1L, low, now));
+        pendingQueue.add(ticket(2L, low, now));
+        pendingQueue.add(ticket(3L, critical, now));
+        assertEquals(Map.of("LOW", 2, "CRITICAL", 1), pendingQueue.countsByPriority());
+
+        // Priority raised while waiting
+        pendingQueue.add(ticket(1L, critical, now));
+        assertEquals(Map.of("LOW", 1, "CRITICAL", 2), pendingQueue.countsByPriority());
+
+        pendingQueue.remove(2L);
+        assertEquals(Map.of("CRITICAL", 2), pendingQueue.countsByPriority());
+
+        pendingQueue.replaceAll(List.of(ticket(5L, low, now)));
+        assertEquals(Map.of("LOW", 1), pendingQueue.countsByPriority());
+    }
+}
@@ -0,0 +1,79 @@
+import com.ticket.desk_cartel.configs.PresenceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresenceRegistryTest {
+
+    private PresenceRegistry presenceRegistry;
+
+    @BeforeEach
+    void setUp() {
+        presenceRegistry = new PresenceRegistry(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testSecondTabDoesNotReplaceFirst() {
+        presenceRegistry.register("s1", "alice");
+        presenceRegistry.register("s2", "alice");
+
+        assertEquals(Set.of("s1", "s2"), presenceRegistry.getSessions("alice"));
+        assertEquals(2, presenceRegistry.getSessionCount());
+        assertEquals(1, presenceRegistry.getUserCount());
+
+        assertEquals("alice", presenceRegistry.unregister("s1"));
+        assertTrue(presenceRegistry.isOnline("alice"));
+
+        presenceRegistry.unregister("s2");
+        assertFalse(presenceRegistry.isOnline("alice"));
+        assertEquals(0, presenceRegistry.getSessionCount());
+        assertEquals(0, presenceRegistry.getUserCount());
+    }
+
+    @Test
+    void testUnregisterUnknownSession() {
+        presenceRegistry.register("s1", "alice");
+
+        assertNull(presenceRegistry.unregister("unknown"));
+        assertTrue(presenceRegistry.isOnline("alice"));
+    }
+
+    @Test
+    void testReRegisteringSessionMovesItToNewUser() {
+        presenceRegistry.register("s1", "alice");
+        presenceRegistry.register("s1", "bob");
+
+        assertFalse(presenceRegistry.isOnline("alice"));
+        assertTrue(presenceRegistry.isOnline("bob"));
+        assertEquals(1, presenceRegistry.getSessionCount());
+    }
+
+    @Test
+    void testTouchUpdatesLastSeen() throws InterruptedException {
+        presenceRegistry.register("s1", "alice");
+        long connectedAt = presenceRegistry.getSession("s1").getLastSeen();
+
+        Thread.sleep(5);
+        presenceRegistry.touch("s1");
+
+        assertTrue(presenceRegistry.getSession("s1").getLastSeen() > connectedAt);
+    }
+
+    @Test
+    void testForEachUserVisitsEveryOnlineUser() {
+        presenceRegistry.register("s1", "alice");
+        presenceRegistry.register("s2", "alice");
+        presenceRegistry.register("s3", "bob");
+
+        Set<String> visited = new HashSet<>();
+        presenceRegistry.forEachUser(visited::add);
+
+        assertEquals(Set.of("alice", "bob"), visited);
+        assertEquals(Set.of("alice", "bob"), presenceRegistry.getOnlineUsers());
+    }
+}
@@ -1,11 +1,13 @@
 import com.ticket.desk_cartel.entities.Priority;
 import com.ticket.desk_cartel.exceptions.ResourceAlreadyExistsException;
 import com.ticket.desk_cartel.exceptions.ResourceNotFoundException;
+import com.ticket.desk_cartel.configs.ClusterEventBroadcaster;
+import com.ticket.desk_cartel.repositories.CategoryRepository;
 import com.ticket.desk_cartel.repositories.PriorityRepository;
 import com.ticket.desk_cartel.services.PriorityService;
+import com.ticket.desk_cartel.services.ReferenceDataCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -20,7 +22,12 @@ public class PriorityServiceTest {
     @Mock
     private PriorityRepository priorityRepository;
 
-    @InjectMocks
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ClusterEventBroadcaster clusterEventBroadcaster;
+
     private PriorityService priorityService;
 
     private Priority priority;
@@ -28,6 +35,9 @@ public class PriorityServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Real cache over the mocked repositories, so lookups fall through to the stubs
+        priorityService = new PriorityService(priorityRepository,
+                new ReferenceDataCache(priorityRepository, categoryRepository, clusterEventBroadcaster));
         priority = new Priority("HIGH", 30, 24);
     }
 
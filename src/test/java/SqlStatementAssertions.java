@@ -0,0 +1,57 @@
+import com.ticket.desk_cartel.configs.SqlStatementTracker;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budgets for tests that run against a real database, so an N+1 regression fails the build.
+ * Needs SqlStatementTracker registered with Hibernate: automatic in a @SpringBootTest, add
+ * {@code @Import(SqlStatementTracker.class)} to a @DataJpaTest.
+ *
+ * <pre>
+ * Ticket ticket = SqlStatementAssertions.assertMaxStatements(6, () -> ticketService.completeTicketByClient(id, userId));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Fails if the action issues more than max statements, or any one statement more than once per
+     * four allowed (a loop of identical selects is what N+1 loading looks like).
+     */
+    public static <T> T assertMaxStatements(int max, Supplier<T> action) {
+        return assertStatements(max, Math.max(1, max / 4), action);
+    }
+
+    public static void assertMaxStatements(int max, Runnable action) {
+        assertMaxStatements(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param max most statements allowed in total
+     * @param maxRepeats most times any single statement may run
+     */
+    public static <T> T assertStatements(int max, int maxRepeats, Supplier<T> action) {
+        T result;
+        SqlStatementTracker.Scope scope = SqlStatementTracker.open();
+        try {
+            result = action.get();
+        } finally {
+            scope.close();
+        }
+        if (scope.statements() > max) {
+            fail("Expected at most " + max + " SQL statements but " + scope.statements() + " were issued");
+        }
+        scope.mostRepeated()
+                .filter(entry -> entry.getValue() > maxRepeats)
+                .ifPresent(entry -> fail("Statement ran " + entry.getValue() + " times (at most "
+                        + maxRepeats + " allowed), possible N+1: " + entry.getKey()));
+        return result;
+    }
+}
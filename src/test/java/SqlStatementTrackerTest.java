@@ -0,0 +1,74 @@
+import com.ticket.desk_cartel.configs.SqlStatementTracker;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementTrackerTest {
+
+    private static final String SELECT_TICKET = "select t1_0.ticket_id from ticket t1_0 where t1_0.ticket_id=?";
+    private static final String SELECT_AGENT = "select a1_0.id from agent a1_0 where a1_0.id=?";
+
+    private final SqlStatementTracker tracker = new SqlStatementTracker();
+
+    @Test
+    void testCountsStatementsOnlyInsideScope() {
+        tracker.inspect(SELECT_TICKET);
+
+        SqlStatementTracker.Scope scope = SqlStatementTracker.open();
+        tracker.inspect(SELECT_TICKET);
+        tracker.inspect(SELECT_AGENT);
+        tracker.inspect(SELECT_AGENT);
+        scope.close();
+
+        tracker.inspect(SELECT_TICKET);
+
+        assertEquals(3, scope.statements());
+        assertEquals(SELECT_AGENT, scope.mostRepeated().orElseThrow().getKey());
+        assertEquals(2, scope.mostRepeated().orElseThrow().getValue());
+    }
+
+    @Test
+    void testNestedScopeAddsToOuterScope() {
+        try (SqlStatementTracker.Scope outer = SqlStatementTracker.open()) {
+            tracker.inspect(SELECT_TICKET);
+            try (SqlStatementTracker.Scope inner = SqlStatementTracker.open()) {
+                tracker.inspect(SELECT_AGENT);
+                assertEquals(1, inner.statements());
+            }
+            tracker.inspect(SELECT_TICKET);
+            assertEquals(3, outer.statements());
+        }
+    }
+
+    @Test
+    void testAssertionPassesWithinBudget() {
+        String result = SqlStatementAssertions.assertMaxStatements(4, () -> {
+            tracker.inspect(SELECT_TICKET);
+            tracker.inspect(SELECT_AGENT);
+            return "done";
+        });
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    void testAssertionFailsOverBudget() {
+        assertThrows(AssertionFailedError.class, () -> SqlStatementAssertions.assertMaxStatements(2,
+                () -> IntStream.range(0, 3).forEach(i -> tracker.inspect("select " + i))));
+    }
+
+    @Test
+    void testAssertionFailsOnRepeatedStatement() {
+        // One select per agent: within the total budget, but the N+1 pattern
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> SqlStatementAssertions.assertStatements(20, 3,
+                () -> {
+                    IntStream.range(0, 5).forEach(i -> tracker.inspect(SELECT_AGENT));
+                    return null;
+                }));
+
+        assertTrue(error.getMessage().contains(SELECT_AGENT));
+    }
+}
@@ -1,16 +1,27 @@
+import com.ticket.desk_cartel.entities.Priority;
 import com.ticket.desk_cartel.entities.Status;
 import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.events.AgentCapacityReleasedEvent;
 import com.ticket.desk_cartel.repositories.TicketRepository;
 import com.ticket.desk_cartel.services.AgentService;
 import com.ticket.desk_cartel.services.NotificationService;
+import com.ticket.desk_cartel.services.PendingAssignmentQueue;
+import com.ticket.desk_cartel.services.SchedulerLeaseService;
 import com.ticket.desk_cartel.services.TicketAssignmentScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
 
 import static org.mockito.Mockito.*;
 
@@ -25,6 +36,12 @@ public class TicketAssignmentSchedulerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Spy
+    private PendingAssignmentQueue pendingQueue = new PendingAssignmentQueue(new SimpleMeterRegistry());
+
     @InjectMocks
     private TicketAssignmentScheduler ticketAssignmentScheduler;
 
@@ -36,6 +53,10 @@ public class TicketAssignmentSchedulerTest {
         ticket = new Ticket();
         ticket.setTicketId(1L);
         ticket.setStatus(Status.NO_AGENT_AVAILABLE);
+
+        // This node holds the lease unless a test says otherwise
+        when(leaseService.tryAcquire(anyString(), any(Duration.class))).thenReturn(OptionalLong.of(1L));
+        when(leaseService.isHeld(anyString(), anyLong())).thenReturn(true);
     }
 
     @Test
@@ -55,6 +76,63 @@ public class TicketAssignmentSchedulerTest {
 
         verify(agentService, times(1)).assignTicketToAgent(ticket.getTicketId());
         verify(ticketRepository,times(1)).findByStatus(Status.NO_AGENT_AVAILABLE);
+        verify(leaseService).release(eq("assignPendingTickets"), eq(1L), any(Duration.class));
+    }
+
+    @Test
+    void testAssignPendingTicketsSkippedWhenLeaseHeldElsewhere() {
+        when(leaseService.tryAcquire(anyString(), any(Duration.class))).thenReturn(OptionalLong.empty());
+
+        ticketAssignmentScheduler.assignPendingTickets();
+
+        verifyNoInteractions(ticketRepository, agentService);
+        verify(leaseService, never()).release(anyString(), anyLong(), any(Duration.class));
+    }
+
+    @Test
+    void testAssignPendingTicketsStopsWhenLeaseLost() {
+        Ticket second = new Ticket();
+        second.setTicketId(2L);
+        second.setStatus(Status.NO_AGENT_AVAILABLE);
+        when(ticketRepository.findByStatus(Status.NO_AGENT_AVAILABLE)).thenReturn(List.of(ticket, second));
+        when(leaseService.isHeld(anyString(), anyLong())).thenReturn(true, false);
+
+        ticketAssignmentScheduler.assignPendingTickets();
+
+        verify(agentService, times(1)).assignTicketToAgent(1L);
+        verify(agentService, never()).assignTicketToAgent(2L);
+    }
+
+    @Test
+    void testAssignPendingTicketsMostUrgentFirst() {
+        Ticket low = new Ticket();
+        low.setTicketId(1L);
+        low.setStatus(Status.NO_AGENT_AVAILABLE);
+        low.setPriority(new Priority("LOW", 10, 4));
+        // Waiting longer does not put a lighter priority ahead
+        low.setDate_created(LocalDateTime.now().minusDays(2));
+        Ticket critical = new Ticket();
+        critical.setTicketId(2L);
+        critical.setStatus(Status.NO_AGENT_AVAILABLE);
+        critical.setPriority(new Priority("CRITICAL", 40, 48));
+        critical.setDate_created(LocalDateTime.now());
+        when(ticketRepository.findByStatus(Status.NO_AGENT_AVAILABLE)).thenReturn(List.of(low, critical));
+
+        ticketAssignmentScheduler.assignPendingTickets();
 
+        InOrder inOrder = inOrder(agentService);
+        inOrder.verify(agentService).assignTicketToAgent(2L);
+        inOrder.verify(agentService).assignTicketToAgent(1L);
+    }
+
+    @Test
+    void testCapacityReleasedDispatchesQueuedTickets() {
+        pendingQueue.addAll(List.of(ticket));
+        when(agentService.assignTicketToAgent(ticket.getTicketId())).thenReturn(ticket);
+
+        ticketAssignmentScheduler.onCapacityReleased(new AgentCapacityReleasedEvent(7L));
+
+        verify(agentService, times(1)).assignTicketToAgent(ticket.getTicketId());
+        verifyNoInteractions(ticketRepository, leaseService);
     }
 }
@@ -0,0 +1,155 @@
+import com.ticket.desk_cartel.DeskCartelApplication;
+import com.ticket.desk_cartel.configs.SqlStatementTracker;
+import com.ticket.desk_cartel.dto.AgentStatsDTO;
+import com.ticket.desk_cartel.entities.Agent;
+import com.ticket.desk_cartel.entities.AgentLevel;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.Ticket;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.AgentRepository;
+import com.ticket.desk_cartel.repositories.NotificationRepository;
+import com.ticket.desk_cartel.repositories.TicketRepository;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.AgentService;
+import com.ticket.desk_cartel.services.TicketService;
+import com.ticket.desk_cartel.services.VerificationTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Statement budgets for the ticket list and agent ticket counts, run against H2.
+ * The second-level cache is off, so every association that is not fetched with the
+ * query shows up as a statement of its own.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        // data.sql is written for MySQL
+        "spring.sql.init.mode=never"
+})
+// Tests live in the default package, where the application class cannot be found by scanning upwards
+@ContextConfiguration(classes = DeskCartelApplication.class)
+@Import(SqlStatementTracker.class)
+class TicketQueryBudgetTest {
+
+    private static final int CLIENTS = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TicketService ticketService;
+    private AgentService agentService;
+    private final List<Agent> agents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Only the repositories are used by the methods under test
+        ticketService = new TicketService(ticketRepository, userRepository, null, null, null, null, agentRepository);
+        agentService = new AgentService(agentRepository, userRepository, ticketRepository,
+                mock(NotificationRepository.class), mock(VerificationTokenService.class));
+
+        Priority priority = entityManager.persist(new Priority("MEDIUM", 20, 8));
+        Category category = entityManager.persist(new Category("Network", "Network issues", 10, true));
+        for (int i = 0; i < 2; i++) {
+            agents.add(entityManager.persist(new Agent(entityManager.persist(user("agent" + i)), AgentLevel.JUNIOR)));
+        }
+        Status[] statuses = {Status.ASSIGNED, Status.ONGOING, Status.COMPLETED};
+        for (int i = 0; i < CLIENTS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTitle("Ticket " + i);
+            ticket.setTicketOwner(entityManager.persist(user("client" + i)));
+            ticket.setAssignedTicket(agents.get(i % agents.size()));
+            ticket.setPriority(priority);
+            ticket.setCategory(category);
+            ticket.setStatus(statuses[i % statuses.length]);
+            ticket.setDate_created(LocalDateTime.now());
+            entityManager.persist(ticket);
+        }
+        // Start every test from an empty persistence context, like a new request
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+
+    @Test
+    void testTicketListIsOneStatement() {
+        List<Ticket> tickets = SqlStatementAssertions.assertMaxStatements(1, () -> {
+            List<Ticket> all = ticketService.getAllTickets();
+            // What the JSON view reads from every ticket
+            all.forEach(ticket -> {
+                ticket.getTicketOwner().getUsername();
+                ticket.getAssignedTicket().getUser().getUsername();
+                ticket.getPriority().getName();
+                ticket.getCategory().getName();
+            });
+            return all;
+        });
+
+        assertEquals(CLIENTS, tickets.size());
+    }
+
+    @Test
+    void testAgentTicketListIsOneStatement() {
+        Long agentId = agents.get(0).getId();
+
+        List<Ticket> tickets = SqlStatementAssertions.assertMaxStatements(1, () -> {
+            List<Ticket> assigned = ticketService.getTicketsByAgent(agentId);
+            assigned.forEach(ticket -> ticket.getTicketOwner().getUsername());
+            return assigned;
+        });
+
+        assertEquals(CLIENTS / agents.size(), tickets.size());
+    }
+
+    @Test
+    void testAgentStatsCountInTheDatabase() {
+        Long agentId = agents.get(0).getId();
+
+        // The agent with its user, and one grouped count
+        AgentStatsDTO stats = SqlStatementAssertions.assertMaxStatements(2,
+                () -> agentService.getAgentStats(agentId).orElseThrow());
+
+        assertEquals("agent0", stats.name());
+        assertEquals(CLIENTS / agents.size(), stats.assignedTickets());
+    }
+
+    @Test
+    void testAllAgentStatsIsOneStatement() {
+        List<AgentStatsDTO> stats = SqlStatementAssertions.assertMaxStatements(1, agentService::getAllAgentStats);
+
+        assertEquals(agents.size(), stats.size());
+        assertEquals(CLIENTS, stats.stream().mapToLong(AgentStatsDTO::assignedTickets).sum());
+    }
+}
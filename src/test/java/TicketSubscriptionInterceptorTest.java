@@ -0,0 +1,119 @@
+import com.ticket.desk_cartel.security.TicketAccessEvaluator;
+import com.ticket.desk_cartel.security.TicketSubscriptionInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TicketSubscriptionInterceptorTest {
+
+    private TicketAccessEvaluator ticketAccessEvaluator;
+    private TicketSubscriptionInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        ticketAccessEvaluator = mock(TicketAccessEvaluator.class);
+        interceptor = new TicketSubscriptionInterceptor(ticketAccessEvaluator);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put("username", "client1");
+        accessor.setSessionAttributes(sessionAttributes);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void testTicketSubscriptionIsCheckedAgainstTicketAccess() {
+        when(ticketAccessEvaluator.canAccessTicket(eq("client1"), any(), eq("5"))).thenReturn(true);
+
+        assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/ticket.5"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/ticket.6"), channel));
+    }
+
+    @Test
+    void testPatternSubscriptionsAreRejected() {
+        // Even a user allowed on every ticket may not subscribe with a pattern
+        when(ticketAccessEvaluator.canAccessTicket(any(), any(), anyString())).thenReturn(true);
+
+        for (String destination : new String[]{"/topic/**", "/topic/ticket*", "/topic/ticket.*", "/topic/ticket.?",
+                "/topic/ticket.{id}", "/topic/#", "/topic/ticket.#", "/topic/>"}) {
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination), channel), destination);
+        }
+    }
+
+    @Test
+    void testClientsCannotSendToBrokerDestinations() {
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/topic/ticket.5"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/queue/notifications"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/user/client2/queue/chat-history"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/exchange/amq.topic/ticket.5"), channel));
+        assertNotNull(interceptor.preSend(frame(StompCommand.SEND, "/app/chat.sendMessage"), channel));
+    }
+
+    @Test
+    void testAdminTopicsAreForAdminsOnlyWithoutWildcards() {
+        when(ticketAccessEvaluator.isAdmin(any())).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/admin.ops"), channel));
+        // A wildcard would otherwise match /topic/admin.ops without hitting the admin check
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/admin*"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/**"), channel));
+
+        when(ticketAccessEvaluator.isAdmin(any())).thenReturn(true);
+        assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/admin.ops"), channel));
+    }
+
+    @Test
+    void testClusterTopicsAreClosedToClients() {
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/topic/cluster.reference-data"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/cluster.reference-data"), channel));
+    }
+
+    @Test
+    void testRelayBroadcastTopicsAreClosedToClients() {
+        for (String destination : new String[]{"/topic/unresolved-user-destination", "/topic/simp-user-registry"}) {
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination), channel), destination);
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SEND, destination), channel), destination);
+        }
+    }
+
+    @Test
+    void testOnlyKnownDestinationsCanBeSubscribed() {
+        assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/messages"), channel));
+        assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/queue/chat-history"), channel));
+        for (String destination : new String[]{"/topic/ticket.5.extra", "/topic/ticket.abc", "/topic/other",
+                "/queue/chat-history", "/user/client2/queue/chat-history", "/app/chat.history"}) {
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination), channel), destination);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import com.ticket.desk_cartel.dto.TicketImportResultDTO;
+import com.ticket.desk_cartel.entities.Category;
+import com.ticket.desk_cartel.entities.Priority;
+import com.ticket.desk_cartel.entities.Status;
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.ReferenceDataCache;
+import com.ticket.desk_cartel.services.TicketStatusCounters;
+import com.ticket.desk_cartel.services.TicketTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TicketTransferServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private TicketStatusCounters ticketStatusCounters;
+    private TicketTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        userRepository = mock(UserRepository.class);
+        ticketStatusCounters = mock(TicketStatusCounters.class);
+        ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+
+        User owner = new User();
+        owner.setId(7L);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(owner));
+
+        Category network = new Category();
+        network.setCategoryId(3);
+        network.setName("Network");
+        when(referenceDataCache.findCategoryByName(anyString())).thenReturn(Optional.empty());
+        when(referenceDataCache.findCategoryByName("Network")).thenReturn(Optional.of(network));
+
+        Priority notAssigned = new Priority("NOT_ASSIGNED", 0, 0);
+        notAssigned.setId(1L);
+        Priority low = new Priority("LOW", 10, 4);
+        low.setId(2L);
+        when(referenceDataCache.findPriorityByName(anyString())).thenReturn(Optional.empty());
+        when(referenceDataCache.findPriorityByName("NOT_ASSIGNED")).thenReturn(Optional.of(notAssigned));
+        when(referenceDataCache.findPriorityByName("LOW")).thenReturn(Optional.of(low));
+
+        service = new TicketTransferService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                referenceDataCache, userRepository, ticketStatusCounters);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCsvImportBatchesValidRowsAndReportsTheRest() throws Exception {
+        String csv = """
+                ownerEmail,title,description,category,priority,createdAt,legacyId
+                ana@example.com,VPN down,Cannot connect,Network,,2024-01-02T09:00,A-1
+                ana@example.com,Slow wifi,"Slow, since Monday",Network,LOW,,A-2
+                ana@example.com,Printer,Jams,Hardware,,,A-3
+                bob@example.com,Mouse,Broken,Network,,,A-4
+                ana@example.com,Outage,Everything down,Network,,yesterday,A-5
+                ana@example.com,Monitor,Flickers,Network,,,A-6
+                """;
+
+        TicketImportResultDTO result = service.importTickets(stream(csv), TicketTransferService.Format.CSV);
+
+        assertEquals(3, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(2, result.awaitingClassification());
+        assertEquals(List.of("record 3: unknown category Hardware", "record 4: unknown owner bob@example.com",
+                "record 5: createdAt is not an ISO date-time: yesterday"), result.errors());
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Object[]> first = batches.getAllValues().get(0);
+        assertEquals(2, first.size());
+        assertArrayEquals(new Object[]{"VPN down", "Cannot connect", 7L, 3, 1L, Status.NO_AGENT_AVAILABLE.name(),
+                LocalDateTime.of(2024, 1, 2, 9, 0)}, first.get(0));
+        assertEquals("Slow, since Monday", first.get(1)[1]);
+        assertEquals(2L, first.get(1)[4]);
+        assertEquals(1, batches.getAllValues().get(1).size());
+
+        verify(ticketStatusCounters).added(Status.NO_AGENT_AVAILABLE, 2);
+        verify(ticketStatusCounters).added(Status.NO_AGENT_AVAILABLE, 1);
+        // Owners are looked up once per import, not once per row
+        verify(userRepository, times(1)).findByEmail("ana@example.com");
+    }
+
+    @Test
+    void testNdjsonImportStopsAtMalformedRecord() throws Exception {
+        String ndjson = """
+                {"ownerEmail":"ana@example.com","title":"VPN down","description":"Cannot connect","category":"Network"}
+                {"ownerEmail":"ana@example.com","title":
+                """;
+
+        TicketImportResultDTO result = service.importTickets(stream(ndjson), TicketTransferService.Format.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.rejected());
+        assertTrue(result.errors().get(0).startsWith("record 2: malformed record"));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+}
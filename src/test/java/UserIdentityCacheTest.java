@@ -0,0 +1,106 @@
+import com.ticket.desk_cartel.entities.User;
+import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.UserIdentityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserIdentityCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private UserIdentityCache identityCache;
+
+    @BeforeEach
+    void setUp() {
+        identityCache = new UserIdentityCache(userRepository, 2);
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepository.findIdByUsername("bob")).thenReturn(Optional.of(2L));
+        when(userRepository.findIdByUsername("carol")).thenReturn(Optional.of(3L));
+    }
+
+    private User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    @Test
+    void testResolvedIdsAreCached() {
+        assertEquals(Optional.of(1L), identityCache.getUserId("alice"));
+        assertEquals(Optional.of(1L), identityCache.getUserId("alice"));
+
+        verify(userRepository, times(1)).findIdByUsername("alice");
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        identityCache.getUserId("alice");
+        identityCache.getUserId("bob");
+        // Touch alice so bob becomes the least recently used
+        identityCache.getUserId("alice");
+        identityCache.getUserId("carol");
+
+        assertEquals(2, identityCache.size());
+        identityCache.getUserId("alice");
+        verify(userRepository, times(1)).findIdByUsername("alice");
+        identityCache.getUserId("bob");
+        verify(userRepository, times(2)).findIdByUsername("bob");
+    }
+
+    @Test
+    void testUnknownUsersAreNotCached() {
+        when(userRepository.findIdByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertTrue(identityCache.getUserId("nobody").isEmpty());
+        assertTrue(identityCache.getUserId("nobody").isEmpty());
+
+        verify(userRepository, times(2)).findIdByUsername("nobody");
+        assertEquals(0, identityCache.size());
+    }
+
+    @Test
+    void testPinnedUsersSurviveEviction() {
+        User system = user(99L, "SYSTEM");
+        identityCache.pin(system);
+
+        identityCache.getUserId("alice");
+        identityCache.getUserId("bob");
+        identityCache.getUserId("carol");
+        identityCache.clear();
+
+        assertEquals(Optional.of(99L), identityCache.getUserId("SYSTEM"));
+        assertSame(system, identityCache.getReference("SYSTEM").orElseThrow());
+        assertSame(system, identityCache.getPinned("SYSTEM").orElseThrow());
+        verify(userRepository, never()).findIdByUsername("SYSTEM");
+        verify(userRepository, never()).getReferenceById(99L);
+    }
+
+    @Test
+    void testPinningReplacesCachedEntry() {
+        when(userRepository.findIdByUsername("PUBLIC_CHAT")).thenReturn(Optional.of(50L));
+        identityCache.getUserId("PUBLIC_CHAT");
+        assertEquals(1, identityCache.size());
+
+        identityCache.pin(user(50L, "PUBLIC_CHAT"));
+
+        // Pinned users do not take up LRU slots
+        assertEquals(0, identityCache.size());
+        identityCache.getUserId("alice");
+        identityCache.getUserId("bob");
+        assertEquals(2, identityCache.size());
+    }
+
+    @Test
+    void testOtherUsersAreHandedOutAsReferences() {
+        User reference = user(1L, "alice");
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+
+        assertSame(reference, identityCache.getReference("alice").orElseThrow());
+        assertTrue(identityCache.getPinned("alice").isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import com.ticket.desk_cartel.entities.AgentLevel;
 import com.ticket.desk_cartel.repositories.AgentRepository;
 import com.ticket.desk_cartel.repositories.TicketRepository;
 import com.ticket.desk_cartel.repositories.UserRepository;
+import com.ticket.desk_cartel.services.AgentService;
 import com.ticket.desk_cartel.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class UserServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private AgentService agentService;
+
     @InjectMocks
     private UserService userService;
 
@@ -189,6 +193,7 @@ class UserServiceTest {
         // Assert
         assertEquals("USER", testUser.getRole());
         verify(agentRepository, times(1)).save(testAgent);
+        verify(agentService).publishAgentDeactivated(testAgent);
     }
 
     @Test
@@ -1,6 +1,7 @@
 import com.ticket.desk_cartel.entities.User;
 import com.ticket.desk_cartel.entities.VerificationToken;
 import com.ticket.desk_cartel.repositories.VerificationTokenRepository;
+import com.ticket.desk_cartel.services.EmailService;
 import com.ticket.desk_cartel.services.VerificationTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,8 +9,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.*;
 import org.mockito.MockitoAnnotations;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Date;
 import java.util.Optional;
@@ -23,7 +24,7 @@ public class VerificationTokenServiceTest {
     private VerificationTokenRepository tokenRepository;
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailService emailService;
 
     @InjectMocks
     private VerificationTokenService verificationTokenService;
@@ -50,7 +51,7 @@ public class VerificationTokenServiceTest {
         verify(tokenRepository, times(1)).save(any(VerificationToken.class));
 
         // Verify that the email is sent with the expected parameters
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        verify(emailService, times(1)).sendEmail(eq("test@example.com"), eq("Verify your email"), anyString());
     }
 
     @Test
@@ -119,6 +120,20 @@ public class VerificationTokenServiceTest {
         verificationTokenService.sendEmail(to, subject, text);
 
         // Assert
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        verify(emailService, times(1)).sendEmail(to, subject, text);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSendEmailWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            verificationTokenService.sendEmail("agent@example.com", "Ticket Notification", "Assigned");
+            verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(emailService, times(1)).sendEmail("agent@example.com", "Ticket Notification", "Assigned");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}